@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+
+package com.sun.tdk.signaturetest.bench;
+
+import com.sun.tdk.signaturetest.classpath.ClasspathImpl;
+import com.sun.tdk.signaturetest.core.ClassHierarchy;
+import com.sun.tdk.signaturetest.core.ClassHierarchyImpl;
+import com.sun.tdk.signaturetest.core.Erasurator;
+import com.sun.tdk.signaturetest.core.Log;
+import com.sun.tdk.signaturetest.core.MemberCollectionBuilder;
+import com.sun.tdk.signaturetest.loaders.BinaryClassDescrLoader;
+import com.sun.tdk.signaturetest.model.ClassDescription;
+import com.sun.tdk.signaturetest.util.Logger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MemberCollectionBuilder} and {@link Erasurator} over classes read
+ * from the fixture classpath. Class loading happens outside of the measured
+ * region because the builder mutates the loaded descriptions.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BuilderBenchmark {
+
+    static final Log NO_LOG = new Log() {
+        public void storeError(String s, Logger utilLogger) {
+        }
+
+        public void storeWarning(String s, Logger utilLogger) {
+        }
+    };
+
+    @State(Scope.Benchmark)
+    public static class Names {
+
+        List<String> names;
+
+        @Setup
+        public void setup() throws IOException {
+            names = Fixtures.classNames(Fixtures.PACKAGE);
+            Fixtures.resetContext();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Loaded {
+
+        ClasspathImpl cp;
+        ClassHierarchy hierarchy;
+        List<ClassDescription> classes;
+
+        @Setup(Level.Invocation)
+        public void load(Names n) throws IOException, ClassNotFoundException {
+            cp = new ClasspathImpl(Fixtures.classpath());
+            hierarchy = new ClassHierarchyImpl(new BinaryClassDescrLoader(cp, 4096));
+            classes = new ArrayList<>(n.names.size());
+            for (String name : n.names) {
+                ClassDescription c = hierarchy.load(name);
+                if (hierarchy.isAccessible(c)) {
+                    classes.add(c);
+                }
+            }
+        }
+
+        @TearDown(Level.Invocation)
+        public void close() {
+            cp.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Built {
+
+        List<ClassDescription> classes;
+
+        @Setup(Level.Trial)
+        public void build(Names n) throws IOException, ClassNotFoundException {
+            Loaded l = new Loaded();
+            l.load(n);
+            MemberCollectionBuilder builder = new MemberCollectionBuilder(NO_LOG);
+            for (ClassDescription c : l.classes) {
+                builder.createMembers(c, true, true, false);
+            }
+            classes = l.classes;
+            l.close();
+        }
+    }
+
+    @Benchmark
+    public void createMembers(Loaded s, Blackhole bh) throws ClassNotFoundException {
+        MemberCollectionBuilder builder = new MemberCollectionBuilder(NO_LOG);
+        for (ClassDescription c : s.classes) {
+            builder.createMembers(c, true, true, false);
+            bh.consume(c);
+        }
+    }
+
+    @Benchmark
+    public void erasure(Built s, Blackhole bh) {
+        Erasurator erasurator = new Erasurator();
+        for (ClassDescription c : s.classes) {
+            bh.consume(erasurator.erasure(c));
+        }
+    }
+}
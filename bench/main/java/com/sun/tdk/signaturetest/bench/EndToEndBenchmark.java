@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+
+package com.sun.tdk.signaturetest.bench;
+
+import com.sun.tdk.signaturetest.Result;
+import com.sun.tdk.signaturetest.SignatureTest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole Setup, SignatureTest and APICover runs over the fixtures, invoked
+ * in-process through their {@code run} entry points.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EndToEndBenchmark {
+
+    private String classpath;
+    private String sigfile;
+    private File out;
+
+    @Setup
+    public void setup() throws IOException {
+        classpath = Fixtures.classpath();
+        sigfile = Fixtures.sigfile();
+        out = File.createTempFile("sigtest-bench", ".out");
+        // APICover calls System.exit() at the end of a run unless told otherwise
+        System.setProperty(Result.NO_EXIT, "true");
+    }
+
+    @TearDown
+    public void tearDown() {
+        out.delete();
+    }
+
+    @Benchmark
+    public boolean setupRun() {
+        return Fixtures.setup(classpath, out.getPath(), Fixtures.nullWriter());
+    }
+
+    @Benchmark
+    public boolean testRun() {
+        Fixtures.resetContext();
+        SignatureTest t = new SignatureTest();
+        t.run(new String[]{"-static", "-classpath", classpath,
+                "-package", Fixtures.PACKAGE, "-FileName", sigfile}, Fixtures.nullWriter(), null);
+        if (!t.isPassed()) {
+            throw new IllegalStateException("SignatureTest failed");
+        }
+        return true;
+    }
+
+    @Benchmark
+    public void apicoverRun() {
+        Fixtures.resetContext();
+        com.sun.tdk.apicover.Main m = new com.sun.tdk.apicover.Main();
+        m.run(new String[]{"-api", sigfile, "-ts", classpath,
+                "-tsInclude", Fixtures.TS_PACKAGE, "-report", out.getPath()}, Fixtures.nullWriter(), null);
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+
+package com.sun.tdk.signaturetest.bench;
+
+import com.sun.tdk.signaturetest.Setup;
+import com.sun.tdk.signaturetest.classpath.ClasspathImpl;
+import com.sun.tdk.signaturetest.core.AppContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.URI;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Benchmark fixtures generated from the running JDK. The first call
+ * extracts the class files of {@code java.base} (or {@code rt.jar} on JDK 8)
+ * into {@code classes.jar} and runs Setup to produce {@code api.sig}. Both
+ * are kept in {@code sigtest.bench.dir} and reused by later forks.
+ * <p>
+ * System properties:
+ * <ul>
+ * <li>{@code sigtest.bench.dir} - fixture directory, defaults to
+ * {@code ${java.io.tmpdir}/sigtest-bench-${java.specification.version}}</li>
+ * <li>{@code sigtest.bench.package} - API package, defaults to
+ * {@code java.util}</li>
+ * <li>{@code sigtest.bench.ts} - package playing the role of a test suite
+ * for APICover, defaults to {@code java.util.stream}</li>
+ * </ul>
+ */
+public final class Fixtures {
+
+    public static final String PACKAGE = System.getProperty("sigtest.bench.package", "java.util");
+    public static final String TS_PACKAGE = System.getProperty("sigtest.bench.ts", "java.util.stream");
+
+    private static final Path DIR = Paths.get(System.getProperty("sigtest.bench.dir",
+            System.getProperty("java.io.tmpdir") + File.separator
+                    + "sigtest-bench-" + System.getProperty("java.specification.version")));
+
+    /**
+     * The package giving a JDK-sized signature file, all of {@code java.*}
+     * in the fixture jar.
+     */
+    public static final String JDK_PACKAGE = "java";
+
+    private static final String CLASSES_JAR = "classes.jar";
+
+    private Fixtures() {
+    }
+
+    public static synchronized String classpath() throws IOException {
+        Path jar = DIR.resolve(CLASSES_JAR);
+        if (!Files.exists(jar)) {
+            Files.createDirectories(DIR);
+            Path tmp = Files.createTempFile(DIR, "classes", ".tmp");
+            try (ZipOutputStream zos = new ZipOutputStream(Files.newOutputStream(tmp))) {
+                copyJdkClasses(zos);
+            }
+            Files.move(tmp, jar, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return jar.toString();
+    }
+
+    public static String sigfile() throws IOException {
+        return sigfile(PACKAGE);
+    }
+
+    /**
+     * The signature file of {@code pkg} and its subpackages, produced by
+     * Setup on the first call.
+     */
+    public static synchronized String sigfile(String pkg) throws IOException {
+        Path sig = DIR.resolve("api-" + pkg + ".sig");
+        if (!Files.exists(sig)) {
+            String cp = classpath();
+            Path tmp = Files.createTempFile(DIR, "api", ".tmp");
+            StringWriter log = new StringWriter();
+            boolean ok = setup(cp, pkg, tmp.toString(), new PrintWriter(log));
+            if (!ok) {
+                throw new IOException("Setup failed:\n" + log);
+            }
+            Files.move(tmp, sig, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return sig.toString();
+    }
+
+    /**
+     * Runs Setup for {@link #PACKAGE} over the given classpath.
+     */
+    public static boolean setup(String classpath, String sigfile, PrintWriter log) {
+        return setup(classpath, PACKAGE, sigfile, log);
+    }
+
+    private static boolean setup(String classpath, String pkg, String sigfile, PrintWriter log) {
+        resetContext();
+        Setup setup = new Setup();
+        setup.run(new String[]{"-static", "-classpath", classpath,
+                "-package", pkg, "-FileName", sigfile}, log, null);
+        return setup.isPassed();
+    }
+
+    /**
+     * Class names of {@code pkg} and its subpackages found in the fixture jar.
+     */
+    public static List<String> classNames(String pkg) throws IOException {
+        List<String> names = new ArrayList<>();
+        ClasspathImpl cp = new ClasspathImpl(classpath());
+        try {
+            String prefix = pkg + '.';
+            while (cp.hasNext()) {
+                String name = cp.nextClassName();
+                if (name.startsWith(prefix)) {
+                    names.add(name);
+                }
+            }
+        } finally {
+            cp.close();
+        }
+        return names;
+    }
+
+    /**
+     * Options and loggers live in the application context singleton; every
+     * end-to-end run has to start from a clean one.
+     */
+    public static void resetContext() {
+        AppContext.getContext().clean();
+    }
+
+    public static PrintWriter nullWriter() {
+        return new PrintWriter(new NullOutputStream());
+    }
+
+    private static void copyJdkClasses(ZipOutputStream zos) throws IOException {
+        FileSystem jrt;
+        try {
+            jrt = FileSystems.getFileSystem(URI.create("jrt:/"));
+        } catch (RuntimeException e) {
+            jrt = null;
+        }
+        if (jrt != null) {
+            Path base = jrt.getPath("/modules/java.base");
+            copyTree(base, base, zos);
+        } else {
+            Path rt = Paths.get(System.getProperty("java.home"), "lib", "rt.jar");
+            try (FileSystem zip = FileSystems.newFileSystem(rt, (ClassLoader) null)) {
+                Path root = zip.getPath("/");
+                copyTree(root, root, zos);
+            }
+        }
+    }
+
+    private static void copyTree(Path root, Path dir, ZipOutputStream zos) throws IOException {
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir)) {
+            for (Path p : ds) {
+                if (Files.isDirectory(p)) {
+                    copyTree(root, p, zos);
+                    continue;
+                }
+                String name = root.relativize(p).toString().replace('\\', '/');
+                if (!name.endsWith(".class") || name.equals("module-info.class")) {
+                    continue;
+                }
+                zos.putNextEntry(new ZipEntry(name));
+                try (InputStream in = Files.newInputStream(p)) {
+                    byte[] buf = new byte[8192];
+                    int n;
+                    while ((n = in.read(buf)) > 0) {
+                        zos.write(buf, 0, n);
+                    }
+                }
+                zos.closeEntry();
+            }
+        }
+    }
+
+    static final class NullOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+
+package com.sun.tdk.signaturetest.bench;
+
+import com.sun.tdk.apicover.RefCounter;
+import com.sun.tdk.apicover.markup.Adapter;
+import com.sun.tdk.signaturetest.classpath.ClasspathImpl;
+import com.sun.tdk.signaturetest.core.ClassHierarchy;
+import com.sun.tdk.signaturetest.core.ClassHierarchyImpl;
+import com.sun.tdk.signaturetest.core.MemberCollectionBuilder;
+import com.sun.tdk.signaturetest.loaders.BinaryClassDescrLoader;
+import com.sun.tdk.signaturetest.model.ClassDescription;
+import com.sun.tdk.signaturetest.model.MemberDescription;
+import com.sun.tdk.signaturetest.sigfile.FileManager;
+import com.sun.tdk.signaturetest.sigfile.MultipleFileReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RefCounter#addRef} with the API taken from the fixture sigfile and
+ * the calls made by classes of {@link Fixtures#TS_PACKAGE}, the same way
+ * APICover feeds it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Thread)
+public class RefCounterBenchmark {
+
+    private RefCounter refCounter;
+    private final List<MemberDescription> calls = new ArrayList<>();
+
+    @Setup(Level.Iteration)
+    public void setup() throws IOException, ClassNotFoundException {
+        Fixtures.resetContext();
+        FileManager f = new FileManager();
+        new Adapter(f);
+        refCounter = new RefCounter();
+
+        try (MultipleFileReader in = new MultipleFileReader(Fixtures.nullWriter(),
+                MultipleFileReader.CLASSPATH_MODE, f)) {
+            if (!in.readSignatureFile("", Fixtures.sigfile())) {
+                throw new IOException("Can't read " + Fixtures.sigfile());
+            }
+            ClassHierarchy apiHierarchy = new ClassHierarchyImpl(in, ClassHierarchy.ALL_PUBLIC);
+            MemberCollectionBuilder b = new MemberCollectionBuilder(BuilderBenchmark.NO_LOG);
+            ClassDescription cd;
+            while ((cd = in.nextClass()) != null) {
+                cd.setHierarchy(apiHierarchy);
+                b.createMembers(cd, true, false, true);
+                refCounter.addClass(cd);
+                refCounter.addTSClass(cd, true);
+            }
+        }
+
+        ClasspathImpl cp = new ClasspathImpl(Fixtures.classpath());
+        try {
+            BinaryClassDescrLoader tsLoader = new BinaryClassDescrLoader(cp, 4096);
+            tsLoader.setIgnoreAnnotations(true);
+            ClassHierarchy tsHierarchy = new ClassHierarchyImpl(tsLoader, ClassHierarchy.ALL_PUBLIC);
+            calls.clear();
+            for (String name : Fixtures.classNames(Fixtures.TS_PACKAGE)) {
+                refCounter.addTSClass(tsHierarchy.load(name), false);
+                calls.addAll(tsLoader.loadCalls(name));
+            }
+        } finally {
+            cp.close();
+        }
+    }
+
+    @Benchmark
+    public RefCounter addRef() {
+        for (MemberDescription md : calls) {
+            refCounter.addRef(md);
+        }
+        return refCounter;
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+
+package com.sun.tdk.signaturetest.bench;
+
+import com.sun.tdk.signaturetest.core.ClassHierarchy;
+import com.sun.tdk.signaturetest.core.ClassHierarchyImpl;
+import com.sun.tdk.signaturetest.core.MemberCollectionBuilder;
+import com.sun.tdk.signaturetest.model.ClassDescription;
+import com.sun.tdk.signaturetest.sigfile.FileManager;
+import com.sun.tdk.signaturetest.sigfile.MultipleFileReader;
+import com.sun.tdk.signaturetest.sigfile.Writer;
+import com.sun.tdk.signaturetest.util.ChannelWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signature file reading through {@link MultipleFileReader} (F43Reader) and
+ * writing through the default format writer (F43Writer).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SigFileBenchmark {
+
+    private String sigfile;
+    private List<ClassDescription> classes;
+
+    @Setup
+    public void setup() throws IOException, ClassNotFoundException {
+        sigfile = Fixtures.sigfile();
+        Fixtures.resetContext();
+        classes = new ArrayList<>();
+        // the writer prints built members, prepare them the way Merge does
+        try (MultipleFileReader in = read()) {
+            ClassHierarchy ch = new ClassHierarchyImpl(in, ClassHierarchy.ALL_PUBLIC);
+            MemberCollectionBuilder builder = new MemberCollectionBuilder(BuilderBenchmark.NO_LOG);
+            ClassDescription c;
+            while ((c = in.nextClass()) != null) {
+                c.setHierarchy(ch);
+                builder.createMembers(c, false, true, false);
+                classes.add(c);
+            }
+        }
+    }
+
+    private MultipleFileReader read() throws IOException {
+        MultipleFileReader in = new MultipleFileReader(Fixtures.nullWriter(),
+                MultipleFileReader.CLASSPATH_MODE, new FileManager());
+        if (!in.readSignatureFile("", sigfile)) {
+            throw new IOException("Can't read " + sigfile);
+        }
+        return in;
+    }
+
+    @Benchmark
+    public void read(Blackhole bh) throws IOException {
+        try (MultipleFileReader in = read()) {
+            ClassDescription c;
+            while ((c = in.nextClass()) != null) {
+                bh.consume(c);
+            }
+        }
+    }
+
+    @Benchmark
+    public void write() {
+        try (Writer writer = new FileManager().getDefaultFormat().getWriter()) {
+            // the way FileManager.openWriter() encodes, minus the file
+            writer.init(new PrintWriter(new ChannelWriter(
+                    Channels.newChannel(new Fixtures.NullOutputStream()))));
+            writer.setApiVersion("bench");
+            writer.writeHeader();
+            for (ClassDescription c : classes) {
+                writer.write(c);
+            }
+        }
+    }
+}
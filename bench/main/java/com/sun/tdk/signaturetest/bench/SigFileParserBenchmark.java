@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.tdk.signaturetest.bench;
+
+import com.sun.tdk.signaturetest.model.ClassDescription;
+import com.sun.tdk.signaturetest.model.MemberType;
+import com.sun.tdk.signaturetest.sigfile.FileManager;
+import com.sun.tdk.signaturetest.sigfile.MultipleFileReader;
+import com.sun.tdk.signaturetest.sigfile.f43.F43Parser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading of a JDK-sized signature file, all of {@code java.*}. {@code read}
+ * goes through {@link MultipleFileReader} like Test and Merge do,
+ * {@code parse} only runs the F43 member parser over the lines split in
+ * advance.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SigFileParserBenchmark {
+
+    private String sigfile;
+    private final List<String> headers = new ArrayList<>();
+    private final List<List<String>> bodies = new ArrayList<>();
+
+    @Setup
+    public void setup() throws IOException {
+        sigfile = Fixtures.sigfile(Fixtures.JDK_PACKAGE);
+        Fixtures.resetContext();
+        // class blocks as SignatureClassLoader passes them to the parser
+        for (String line : Files.readAllLines(Paths.get(sigfile), StandardCharsets.UTF_8)) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (MemberType.getItemType(line) == MemberType.CLASS) {
+                headers.add(line);
+                bodies.add(new ArrayList<String>());
+            } else if (!bodies.isEmpty()) {
+                bodies.get(bodies.size() - 1).add(line);
+            }
+        }
+    }
+
+    @Benchmark
+    public void read(Blackhole bh) throws IOException {
+        try (MultipleFileReader in = new MultipleFileReader(Fixtures.nullWriter(),
+                MultipleFileReader.CLASSPATH_MODE, new FileManager())) {
+            if (!in.readSignatureFile("", sigfile)) {
+                throw new IOException("Can't read " + sigfile);
+            }
+            ClassDescription c;
+            while ((c = in.nextClass()) != null) {
+                bh.consume(c);
+            }
+        }
+    }
+
+    @Benchmark
+    public void parse(Blackhole bh) {
+        F43Parser parser = new F43Parser();
+        for (int i = 0; i < headers.size(); i++) {
+            bh.consume(parser.parseClassDescription(headers.get(i), bodies.get(i)));
+        }
+    }
+}
@@ -28,7 +28,6 @@ import com.sun.tck.cldc.lib.Status;
 import com.sun.tck.j2me.services.messagingService.J2MEDistributedTest;
 import com.sun.tdk.signaturetest.remote.RemoteLoadManager;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
@@ -62,7 +61,7 @@ public class SigtestDistrClient extends J2MEDistributedTest {
 
         //This initiates "dialog" with server side
         try {
-            send("SigtestDistrServer", new String[]{"requestForClassName"});
+            send("SigtestDistrServer", new String[]{"ready"});
             System.out.println("Request Sent");
 
         } catch (Exception e) {
@@ -92,19 +91,20 @@ public class SigtestDistrClient extends J2MEDistributedTest {
 
     public void handleMessage(final String from, final String[] args, byte[] bytes) {
         int length = args.length;
-        if ((2 < length) && args[2] != null && args[2].startsWith("className")) {
+        if ((2 < length) && args[2] != null && args[2].startsWith("request")) {
             try {
                 try {
                     AccessController.doPrivileged(new PrivilegedExceptionAction() {
-                        public Object run() {
-                            send(from, new String[]{"classLoaded", args[3]}, loadClassDescription(args[3]));
+                        public Object run() throws IOException {
+                            send(from, new String[]{"response"}, RemoteLoadManager.handleRequest(fromHex(args[3])));
                             return null;
                         }
                     });
                 } catch (PrivilegedActionException ex) {
                     throw ex.getException();
                 }
-            } catch (IOException e) {
+            } catch (Exception e) {
+                e.printStackTrace();
             }
         } else if (2 >= length) {
             if (args[0] != null && args[0].startsWith("finish")) {
@@ -117,16 +117,14 @@ public class SigtestDistrClient extends J2MEDistributedTest {
     }
 
     /**
-     * Loads class description using SigTest's ReflClassDescriptionLoader
-     * remote.jar containing this loader should be in classpath when starting
-     * agent
+     * Decodes the request sent by server as text
      */
-    private byte[] loadClassDescription(String className) {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        RemoteLoadManager.writeClassDescription(className, out);
-
-        byte[] array = out.toByteArray();
-        return array;
+    private static byte[] fromHex(String s) {
+        byte[] data = new byte[s.length() / 2];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) Integer.parseInt(s.substring(2 * i, 2 * i + 2), 16);
+        }
+        return data;
     }
 
     private Monitor monitor = new Monitor();
@@ -29,23 +29,20 @@ import com.sun.tck.midp.lib.DistributedTest;
 import java.io.PrintWriter;
 
 import com.sun.javatest.Status;
-import com.sun.tdk.signaturetest.model.ClassDescription;
 import com.sun.tdk.signaturetest.SignatureTest;
-import com.sun.tdk.signaturetest.core.ClassDescriptionLoader;
+import com.sun.tdk.signaturetest.loaders.RemoteClassDescrLoader;
 
-import java.io.ByteArrayInputStream;
-import java.io.File;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.util.HashMap;
 
 /**
  * @author Sergey Borodin
  * <p/>
  * <p/>
- * Server part of distributed test. Invokes SigTest and set custom
- * classDescriptionLoader for it, which constructs class descriptions on client
- * side of distributed test
+ * Server part of distributed test. Invokes SigTest and set
+ * RemoteClassDescrLoader for it, which constructs class descriptions on
+ * client side of distributed test. Each message carries a request for many
+ * classes (or, with -RemotePrefetch, for whole packages), hex encoded, and
+ * the reply carries the descriptions of all of them.
  */
 public class SigtestDistrServer extends DistributedTest {
 
@@ -53,7 +50,7 @@ public class SigtestDistrServer extends DistributedTest {
         //IMPORTANT: you should invoke super constructor with unique name for each
         //test, cause ME-Framework use this as test id in message exchange
         super("SigtestDistrServer");
-        loader = new DistrClassDescrLoader();
+        loader = new RemoteClassDescrLoader(new MessageConnection());
     }
 
     public Status run(String[] args, PrintWriter log, PrintWriter ref) {
@@ -86,18 +83,17 @@ public class SigtestDistrServer extends DistributedTest {
     protected void handleMessage(String from, String[] args, byte[] data,
             boolean invokeLegacyHandler) {
         try {
-            if (args[0].startsWith("requestForClassName")
-                    || args[0].startsWith("classLoaded")) {
-                if (args[0].startsWith("classLoaded")) {
-                    response.setNewResponse(args[1], data);
+            if (args[0].startsWith("ready")
+                    || args[0].startsWith("response")) {
+                if (args[0].startsWith("response")) {
+                    exchange.setResponse(data);
                 }
 
-                request.waitForRequest();
+                byte[] request = exchange.waitForRequest();
 
-                if (!request.isFinishREquest()) {
-                    send(from, new String[]{"className",
-                        request.getRequestedClassName()});
-                    request.clean();
+                if (request != null) {
+                    // sent as text, the data of a message only comes from client
+                    send(from, new String[]{"request", toHex(request)});
                 } else {
                     send(from, new String[]{"finish"});
                     terminate();
@@ -108,89 +104,32 @@ public class SigtestDistrServer extends DistributedTest {
         }
     }
 
-    private byte[] classDescr = null;
-    private String newRequest;
-    private boolean sigtestFinished = false;
-    private String classToLoad;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
 
-    private ClassDescriptionLoader loader;
-    private SignatureTest t;
-    private SigtestExecThread sigtestThread;
-
-    private static final Class[] handleXXXArgs = {String.class, String[].class, byte[].class};
-
-    class DistrClassDescrLoader implements ClassDescriptionLoader {
-
-        /**
-         * SigTest use this re-defined classDescriptionLoader to load class
-         * descriptions on client side of test Custom loader set for sigtest
-         * using SigTest.setClassDescrLoader() method
-         */
-        public DistrClassDescrLoader() {
-            //This uses to save time, cause SigTest tries to load same class descriptions
-            //more then one time
-            classDescriptions = new HashMap();
+    private static String toHex(byte[] data) {
+        char[] chars = new char[data.length * 2];
+        for (int i = 0; i < data.length; i++) {
+            chars[2 * i] = HEX[(data[i] >> 4) & 0xF];
+            chars[2 * i + 1] = HEX[data[i] & 0xF];
         }
+        return new String(chars);
+    }
 
-        /**
-         * Invokes by SigTest. Sets new request for message exchange mechanism;
-         * wait while response for new request comes from client and returns it
-         * as a result
-         */
-        public ClassDescription load(String name) throws ClassNotFoundException {
-
-            System.out.println("Try to load " + name);
-
-            if (classDescriptions.containsKey(name)) {
-                return (ClassDescription) classDescriptions.get(name);
-            } else {
-                request.setNewRequest(name);
-
-                response.waitForResponse();
-
-                if (!response.isNewRequest()) {
-                    ByteArrayInputStream bInp = new ByteArrayInputStream(response.getData());
-                    try {
-                        ObjectInputStream oInp = new ObjectInputStream(bInp);
-                        Object obj = oInp.readObject();
-
-                        oInp.close();
-                        classDescr = null;
-
-                        ClassDescription cd;
-
-                        if (obj instanceof ClassDescription) {
-                            System.out.println("ClassDescription");
-                            cd = (ClassDescription) obj;
-                            if (!cd.getQualifiedName().equals(name)) {
-                                throw new Error("Server received wrong description:"
-                                        + "required:" + name + ";" + "received:" + cd.getQualifiedName());
-                            }
-
-                            classDescriptions.put(name, cd);
-
-                            return cd;
-                        } else if (obj instanceof ClassNotFoundException) {
-                            System.out.println("ClassNotFoundException");
-                            throw (ClassNotFoundException) obj;
-                        } else if (obj instanceof RuntimeException) {
-                            System.out.println("RuntimeException");
-                            throw (RuntimeException) obj;
-                        }
-
-                    } catch (IOException e) {
-                        System.out.println(e.toString());
-                    }
-                }
+    private RemoteClassDescrLoader loader;
+    private SignatureTest t;
+    private SigtestExecThread sigtestThread;
 
-                response.clean();
+    /**
+     * SigTest sends its requests through this connection. Invokes by SigTest
+     * thread: passes the request to message handling thread and waits while
+     * response for it comes from client
+     */
+    class MessageConnection implements RemoteClassDescrLoader.Connection {
 
-                return null;
-            }
+        public byte[] send(byte[] request) throws IOException {
+            exchange.setRequest(request);
+            return exchange.waitForResponse();
         }
-
-        private HashMap classDescriptions;
-
     }
 
     class SigtestExecThread extends Thread {
@@ -218,10 +157,9 @@ public class SigtestDistrServer extends DistributedTest {
                 e.printStackTrace();
 
                 sigtestExecStatus = Status.failed(e.getMessage());
-                request.setNewRequest(null);
             }
 
-            request.setNewRequest(null);
+            exchange.finish();
         }
 
         public Status getExecStatus() {
@@ -229,101 +167,62 @@ public class SigtestDistrServer extends DistributedTest {
         }
     }
 
-    private Request request = new Request();
-    private Response response = new Response();
+    private Exchange exchange = new Exchange();
 
     private Status sigtestExecStatus = Status.passed("OK");
 
-    private class Request {
-
-        public Request() {
-            emptyRequest = true;
-        }
-
-        public synchronized void setNewRequest(String className) {
-            emptyRequest = false;
-            this.className = className;
+    /**
+     * Hands requests from SigTest thread to message handling thread and
+     * responses back
+     */
+    private static class Exchange {
 
-            if (className != null) {
-                finishRequest = false;
-            } else {
-                finishRequest = true;
-            }
+        private byte[] request;
+        private byte[] response;
+        private boolean finished;
 
+        public synchronized void setRequest(byte[] request) {
+            this.request = request;
             notifyAll();
-            System.out.println("request notify all");
-        }
-
-        public String getRequestedClassName() {
-            return className;
         }
 
-        public void clean() {
-            emptyRequest = true;
+        public synchronized void finish() {
+            finished = true;
+            notifyAll();
         }
 
-        public synchronized void waitForRequest() {
-            if (emptyRequest) {
+        /**
+         * Returns next request of SigTest, or null when SigTest has finished
+         */
+        public synchronized byte[] waitForRequest() {
+            while (request == null && !finished) {
                 try {
-                    System.out.println("request wait");
                     wait();
                 } catch (InterruptedException e) {
+                    return null;
                 }
             }
+            byte[] r = request;
+            request = null;
+            return r;
         }
 
-        public boolean isFinishREquest() {
-            return finishRequest;
-        }
-
-        private boolean finishRequest;
-        private String className;
-        private boolean emptyRequest;
-    }
-
-    private class Response {
-
-        public Response() {
-        }
-
-        public synchronized void setNewResponse(String className, byte[] data) {
-            this.className = className;
-            this.data = data;
-
-            if (data == null) {
-                isNewRequest = true;
-            } else {
-                isNewRequest = false;
-            }
-
-            System.out.println("response notify all");
+        public synchronized void setResponse(byte[] response) {
+            this.response = response;
             notifyAll();
         }
 
-        public byte[] getData() {
-            return data;
-        }
-
-        public boolean isNewRequest() {
-            return isNewRequest;
-        }
-
-        public void clean() {
-            System.out.println("response clean");
-            data = null;
-            isNewRequest = false;
-        }
-
-        public synchronized void waitForResponse() {
-            try {
-                System.out.println("response wait");
-                wait();
-            } catch (InterruptedException e) {
+        public synchronized byte[] waitForResponse() throws IOException {
+            while (response == null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    throw new IOException("interrupted while waiting for response");
+                }
             }
+            byte[] r = response;
+            response = null;
+            return r;
         }
-
-        private byte[] data;
-        private String className;
-        private boolean isNewRequest;
     }
 }
@@ -31,6 +31,7 @@ import java.util.Iterator;
 import java.util.List;
 
 import com.sun.tdk.signaturetest.core.context.Option;
+import com.sun.tdk.signaturetest.util.BuildStamp;
 import org.apache.maven.plugin.MojoExecutionException;
 
 /**
@@ -63,6 +64,11 @@ public abstract class MBase extends MSuperBase {
      */
     protected String apiVersion;
 
+    /**
+     * @parameter default-value="false"
+     */
+    protected boolean force;
+
     @Override
     protected void dumpMe() {
         dump(MBase.class, this);
@@ -108,6 +114,18 @@ public abstract class MBase extends MSuperBase {
         }
     }
 
+    /**
+     * Creates the up-to-date check of a run writing {@code output}. The
+     * fingerprint covers the arguments and the classes of the classpath.
+     */
+    BuildStamp createStamp(File output, String[] params) {
+        BuildStamp stamp = new BuildStamp(output);
+        stamp.addArg(getClass().getName());
+        stamp.addArgs(params);
+        stamp.addClasspath(pathElements);
+        return stamp;
+    }
+
     protected void checkParams() throws MojoExecutionException {
         // classpath
         if (pathElements == null || pathElements.size() == 0) {
@@ -26,6 +26,9 @@ package com.sun.tdk.signaturetest.mvn;
 
 import com.sun.tdk.signaturetest.Result;
 import com.sun.tdk.signaturetest.Setup;
+import com.sun.tdk.signaturetest.util.BuildStamp;
+import java.io.File;
+import java.io.PrintWriter;
 import java.util.ArrayList;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -46,14 +49,29 @@ public class MSetup extends MBase {
     public void execute() throws MojoExecutionException, MojoFailureException {
         dumpMe();
         checkParams();
-        Setup s = new Setup();
-        System.setProperty(Result.NO_EXIT, "true");
-        s.run(createParams(), new MLogAdapter(getLog()), null);
-        if (negative ? s.isPassed() : !s.isPassed()) {
+        String[] params = createParams();
+        PrintWriter log = new MLogAdapter(getLog());
+        BuildStamp stamp = createStamp(new File(fileName), params);
+        boolean passed;
+        String result;
+        if (!force && stamp.isUpToDate()) {
+            getLog().info("Signature file " + fileName + " is up to date");
+            stamp.replay(log);
+            passed = stamp.isPassed();
+            result = stamp.getResult();
+        } else {
+            Setup s = new Setup();
+            System.setProperty(Result.NO_EXIT, "true");
+            s.run(params, new PrintWriter(stamp.capture(log), true), null);
+            passed = s.isPassed();
+            result = s.toString();
+            stamp.store(passed, result);
+        }
+        if (negative ? passed : !passed) {
             if (failOnError) {
-                throw new MojoExecutionException(s.toString());
+                throw new MojoExecutionException(result);
             } else {
-                getLog().error(s.toString());
+                getLog().error(result);
             }
         }
     }
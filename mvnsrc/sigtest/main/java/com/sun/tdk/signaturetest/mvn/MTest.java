@@ -27,6 +27,9 @@ package com.sun.tdk.signaturetest.mvn;
 import com.sun.tdk.signaturetest.Result;
 import com.sun.tdk.signaturetest.SigTest;
 import com.sun.tdk.signaturetest.SignatureTest;
+import com.sun.tdk.signaturetest.util.BuildStamp;
+import java.io.File;
+import java.io.PrintWriter;
 import java.util.ArrayList;
 
 import com.sun.tdk.signaturetest.core.context.Option;
@@ -58,6 +61,9 @@ import org.apache.maven.plugin.MojoFailureException;
  *   "output" - corresponds to "-out filename" option, specifies report file name
  *   "negative" - inverts result (that is passed status treats as faild and vice versa, default is "false"
  *   "exclude" attribute or nested "exclude" element. Corresponds to -exclude option.
+ *   "force" - runs the test even if the classpath, the signature file and the options
+ *     are the same as for the previous run. Only runs with "out" are checked,
+ *     the stamp of the run is kept next to the report. Default is "false".
  *
  * </pre>
  *
@@ -95,19 +101,40 @@ public class MTest extends MBase {
     public void execute() throws MojoExecutionException, MojoFailureException {
         dumpMe();
         checkParams();
-        SignatureTest s = testFactory();
-        String oldExit = System.setProperty(Result.NO_EXIT, "true");
-        s.run(createParams(), new MLogAdapter(getLog()), null);
-        if (negative ? s.isPassed() : !s.isPassed()) {
+        String[] params = createParams();
+        PrintWriter log = new MLogAdapter(getLog());
+        BuildStamp stamp = null;
+        if (out != null && out.length() > 0) {
+            stamp = createStamp(new File(out), params);
+            stamp.addFile(new File(fileName));
+        }
+        boolean passed;
+        String result;
+        if (stamp != null && !force && stamp.isUpToDate()) {
+            getLog().info("Signature test report " + out + " is up to date");
+            stamp.replay(log);
+            passed = stamp.isPassed();
+            result = stamp.getResult();
+        } else {
+            SignatureTest s = testFactory();
+            String oldExit = System.setProperty(Result.NO_EXIT, "true");
+            s.run(params, stamp == null ? log : new PrintWriter(stamp.capture(log), true), null);
+            passed = s.isPassed();
+            result = s.toString();
+            if (stamp != null) {
+                stamp.store(passed, result);
+            }
+            if (oldExit != null) {
+                System.setProperty(Result.NO_EXIT, oldExit);
+            }
+        }
+        if (negative ? passed : !passed) {
             if (failOnError) {
-                throw new MojoExecutionException(s.toString());
+                throw new MojoExecutionException(result);
             } else {
-                getLog().error(s.toString());
+                getLog().error(result);
             }
         }
-        if (oldExit != null) {
-            System.setProperty(Result.NO_EXIT, oldExit);
-        }
 
     }
 
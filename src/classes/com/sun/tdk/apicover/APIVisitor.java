@@ -27,8 +27,11 @@ package com.sun.tdk.apicover;
 import com.sun.tdk.signaturetest.model.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * APIVisitor is used to go through api.
@@ -45,29 +48,22 @@ class APIVisitor {
     }
 
     private void collectPackages() {
-        List<PackageDescr> packages = new ArrayList<>();
-        packages.add(top);
+        Map<String, PackageDescr> packages = new HashMap<>();
+        packages.put(top.getQualifiedName(), top);
         for (ClassDescription cd : api) {
             String pname = cd.getPackageName();
             addPackage(pname, packages).add(cd);
         }
     }
 
-    private static PackageDescr addPackage(String pname, List<PackageDescr> packages) {
-        PackageDescr newPackage = new PackageDescr(pname);
-        PackageDescr parent = null;
-        for (PackageDescr pd : packages) {
-            if (pd.equals(newPackage)) {
-                return pd;
-            }
-            if (ClassDescription.getPackageName(pname).equals(pd.getQualifiedName())) {
-                parent = pd;
-            }
-        }
-        if (parent == null) {
-            parent = addPackage(ClassDescription.getPackageName(pname), packages);
+    private static PackageDescr addPackage(String pname, Map<String, PackageDescr> packages) {
+        PackageDescr pd = packages.get(pname);
+        if (pd != null) {
+            return pd;
         }
-        packages.add(newPackage);
+        PackageDescr parent = addPackage(ClassDescription.getPackageName(pname), packages);
+        PackageDescr newPackage = new PackageDescr(pname);
+        packages.put(pname, newPackage);
         parent.add(newPackage);
         return newPackage;
     }
@@ -86,23 +82,15 @@ class APIVisitor {
 
     protected void visit(ClassDescription x) {
 
-        // XXX
-        // hand-made sort of members
-        List<MemberDescription> list = new ArrayList<>();
+        // members are sorted by name and args, the sort key is built once per member
+        List<SortKey> keys = new ArrayList<>();
         for (Iterator<MemberDescription> i = x.getMembersIterator(); i.hasNext(); ) {
-            boolean isInserted = false;
-            MemberDescription md = i.next();
-            for (int j = 0; j < list.size(); j++) {
-                if ((list.get(j).getName() + list.get(j).getArgs())
-                        .compareTo(md.getName() + md.getArgs()) > 0) {
-                    list.add(j, md);
-                    isInserted = true;
-                    break;
-                }
-            }
-            if (!isInserted) {
-                list.add(md);
-            }
+            keys.add(new SortKey(i.next()));
+        }
+        Collections.sort(keys);
+        List<MemberDescription> list = new ArrayList<>(keys.size());
+        for (SortKey k : keys) {
+            list.add(k.md);
         }
         for (MemberDescription md : list) {
             if (md instanceof ConstructorDescr) {
@@ -125,4 +113,19 @@ class APIVisitor {
 
     protected void visit(MemberDescription x) {
     }
+
+    private static class SortKey implements Comparable<SortKey> {
+
+        final String key;
+        final MemberDescription md;
+
+        SortKey(MemberDescription md) {
+            this.key = md.getName() + md.getArgs();
+            this.md = md;
+        }
+
+        public int compareTo(SortKey o) {
+            return key.compareTo(o.key);
+        }
+    }
 }
@@ -62,7 +62,9 @@ public class ApicovOptions extends Options {
             Option.DEBUG,
             Option.VERSION,
             Option.HELP,
-            Option.STRUCTURE
+            Option.STRUCTURE,
+            Option.STATS,
+            Option.STATS_FILE
     );
 
     private final BaseOptions bo = AppContext.getContext().getBean(BaseOptions.class);
@@ -67,6 +67,7 @@ public class Main implements Log {
     protected String signatureFile;
     final RefCounter refCounter = new RefCounter();
     ReportGenerator reporter;
+    private boolean failed;
     String ts;
     private final PackageGroup packagesTS = new PackageGroup(true);
     private final PackageGroup excludedPackagesTS = new PackageGroup(true);
@@ -96,7 +97,10 @@ public class Main implements Log {
      */
     public void run(String[] args, PrintWriter log, PrintWriter ref) {
         this.log = log;
+        debug = false;
         reporter = ReportGenerator.createReportGenerator(refCounter, log);
+        Stats stats = AppContext.getContext().getBean(Stats.class);
+        stats.begin("APICover");
         try {
             if (parseParameters(args)) {
                 check();
@@ -108,6 +112,7 @@ public class Main implements Log {
             if (classpath != null) {
                 classpath.close();
             }
+            stats.end(log);
         }
     }
 
@@ -146,6 +151,7 @@ public class Main implements Log {
         } catch (CommandLineParserException e) {
             error(e.getMessage());
         }
+        AppContext.getContext().getBean(Stats.class).configure(ao.isSet(Option.STATS), ao.getValue(Option.STATS_FILE));
 
         if (ao.getValue(Option.API) == null && ao.getValue(Option.FILTERSIG) == null) {
             error(i18n.getString("Main.error.option.required", Option.API.getKey()));
@@ -325,6 +331,7 @@ public class Main implements Log {
                 nl + i18n.getString("Main.usage.format", Option.FORMAT) +
                 nl + i18n.getString("Main.usage.report", Option.REPORT) +
                 nl + i18n.getString("Main.usage.debug", Option.DEBUG) +
+                nl + i18n.getString("Main.usage.stats", new Object[]{Option.STATS.getKey(), Option.STATS_FILE.getKey()}) +
                 nl + i18n.getString("Main.usage.help", Option.HELP) +
                 nl + i18n.getString("Main.usage.version", Option.VERSION) +
                 nl + i18n.getString("Main.usage.end");
@@ -415,7 +422,12 @@ public class Main implements Log {
                     System.err.println(i18n.getString("Main.warning.ts.empty", ts));
                 }
 
-                reporter.out();
+                Stats.Span span = AppContext.getContext().getBean(Stats.class).start(Stats.Phase.REPORT);
+                try {
+                    reporter.out();
+                } finally {
+                    span.end();
+                }
             }
 
         } catch (Throwable e) {
@@ -428,7 +440,15 @@ public class Main implements Log {
         return ao.getValue(Option.API) == null;
     }
 
+    /**
+     * Returns false if an error was reported during the run.
+     */
+    public boolean isPassed() {
+        return !failed;
+    }
+
     private void error(String s) {
+        failed = true;
         log.println(s);
         if (!Boolean.parseBoolean(System.getProperty(Result.NO_EXIT))) {
             System.exit(1);
@@ -32,17 +32,6 @@ import com.sun.tdk.signaturetest.model.MemberDescription;
 import com.sun.tdk.signaturetest.model.Modifier;
 import com.sun.tdk.signaturetest.model.PackageDescr;
 import com.sun.tdk.signaturetest.util.I18NResourceBundle;
-import com.sun.tdk.signaturetest.util.SwissKnife;
-import org.xml.sax.SAXException;
-import org.xml.sax.helpers.AttributesImpl;
-
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Result;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.sax.SAXTransformerFactory;
-import javax.xml.transform.sax.TransformerHandler;
-import javax.xml.transform.stream.StreamResult;
 import java.io.*;
 import java.util.*;
 
@@ -72,6 +61,7 @@ public abstract class ReportGenerator extends APIVisitor {
     Set<EXLUDE_MODE> excludeMode = EnumSet.noneOf(EXLUDE_MODE.class);
     Map<String, String[]> config;
     Map<String, Field> results = new HashMap<>();
+    Map<ClassDescription, Field> classResults = new IdentityHashMap<>();
     Collection<String> xList = new ArrayList<>();
     protected PrintWriter pw;
 
@@ -178,6 +168,7 @@ public abstract class ReportGenerator extends APIVisitor {
         newReportGenerator.fieldMode = this.fieldMode;
         newReportGenerator.pw = this.pw;
         newReportGenerator.results = this.results;
+        newReportGenerator.classResults = this.classResults;
         newReportGenerator.top = this.top;
         newReportGenerator.xList = this.xList;
         newReportGenerator.setLog(log);
@@ -270,6 +261,7 @@ public abstract class ReportGenerator extends APIVisitor {
 
     private void filter() {
         results.clear();
+        classResults.clear();
         top = new PackageDescr("");
         APIVisitor calc = new APIVisitor() {
             protected void visit(ClassDescription cd) {
@@ -314,7 +306,7 @@ public abstract class ReportGenerator extends APIVisitor {
                         tested++;
                     }
                 }
-                results.put(cd.toString(), new Field(members, tested));
+                classResults.put(cd, new Field(members, tested));
             }
 
             protected void visit(PackageDescr pd) {
@@ -325,17 +317,19 @@ public abstract class ReportGenerator extends APIVisitor {
                 for (Object o : pd.getDeclaredClasses()) {
                     ClassDescription cd = (ClassDescription) o;
                     visit(cd);
-                    members += results.get(cd.toString()).members;
-                    tested += results.get(cd.toString()).tested;
+                    Field f = classResults.get(cd);
+                    members += f.members;
+                    tested += f.tested;
                     classes++;
                 }
 
                 for (Object o : pd.getDeclaredPackages()) {
                     PackageDescr sub = (PackageDescr) o;
                     visit(sub);
-                    members += results.get(sub.toString()).members;
-                    tested += results.get(sub.toString()).tested;
-                    classes += results.get(sub.toString()).classes;
+                    Field f = results.get(sub.toString());
+                    members += f.members;
+                    tested += f.tested;
+                    classes += f.classes;
                 }
                 results.put(pd.toString(), new Field(classes, members, tested));
             }
@@ -377,12 +371,23 @@ public abstract class ReportGenerator extends APIVisitor {
             printHeader(null);
             print();
         } else {
-            List<ClassDescription> allApi = new ArrayList<>(refCounter.getClasses());
+            // one pass over the API splits it between the visible sections
+            Map<Structure.Section, List<ClassDescription>> sectionApi = new IdentityHashMap<>();
+            for (ClassDescription cd : refCounter.getClasses()) {
+                for (Structure.Section s : structure.getSections(cd.getQualifiedName())) {
+                    List<ClassDescription> l = sectionApi.get(s);
+                    if (l == null) {
+                        l = new ArrayList<>();
+                        sectionApi.put(s, l);
+                    }
+                    l.add(cd);
+                }
+            }
             printHeader(structure.getTitle());
             for (Structure.Section s : structure.getSections()) {
                 if (!s.isHidden()) {
-                    api = filterRefs(s, allApi);
-                    if (!api.isEmpty()) {
+                    api = sectionApi.remove(s);
+                    if (api != null) {
                         filter();
                         if (s.getTitle() != null) {
                             printHeader(s.getTitle());
@@ -396,19 +401,6 @@ public abstract class ReportGenerator extends APIVisitor {
         close();
 
     }
-
-    private static List<ClassDescription> filterRefs(Structure.Section section, List<ClassDescription> allApi) {
-        List<ClassDescription> res = new ArrayList<>();
-        for (ClassDescription cd : allApi) {
-            for (String pkg : section.getPkgInclude()) {
-                if (cd.getQualifiedName().startsWith(pkg)) {
-                    res.add(cd);
-                    break;
-                }
-            }
-        }
-        return res;
-    }
 }
 
 class ReportPlain extends ReportGenerator {
@@ -460,15 +452,8 @@ class ReportPlain extends ReportGenerator {
         println();
 
         tab(p0).append(i18n.getString("ReportPlain.report.Overall"));
-        int members = 0;
-        int tested = 0;
-        int classes = 0;
-        for (ClassDescription cd : api) {
-            members += results.get(cd.toString()).members;
-            tested += results.get(cd.toString()).tested;
-            classes++;
-        }
-        Field all = new Field(classes, members, tested);
+        // the top package sums up all the classes of the report
+        Field all = results.get(top.toString());
         tab(p3).append(all.classes);
         tab(p4).append(all.members);
         tab(p5).append(all.tested);
@@ -568,11 +553,12 @@ class ReportPlain extends ReportGenerator {
             tab(p7, '-');
             println();
         }
-        int members = results.get(pd.toString()).members;
-        int tested = results.get(pd.toString()).tested;
-        String percent = results.get(pd.toString()).getPercent();
+        Field f = results.get(pd.toString());
+        int members = f.members;
+        int tested = f.tested;
+        String percent = f.getPercent();
         tab(p0).append(pd.getQualifiedName());
-        tab(p3).append(results.get(pd.toString()).classes);
+        tab(p3).append(f.classes);
         tab(p4).append(members);
         tab(p5).append(tested);
 
@@ -596,9 +582,10 @@ class ReportPlain extends ReportGenerator {
         }
 
         tab(p1).append(classRepr(cd));
-        int members = results.get(cd.toString()).members;
-        int tested = results.get(cd.toString()).tested;
-        String percent = results.get(cd.toString()).getPercent();
+        Field f = classResults.get(cd);
+        int members = f.members;
+        int tested = f.tested;
+        String percent = f.getPercent();
         tab(p4).append(members);
         tab(p5).append(tested);
         if (members != 0) {
@@ -684,8 +671,13 @@ interface XC {
 
 class ReportXML extends ReportGenerator {
 
-    TransformerHandler ser;
     final Erasurator erasurator = new Erasurator();
+    // the report is written directly to pw, laid out the way an indenting
+    // identity transformer would: 4 spaces per level, empty elements closed with "/>"
+    private static final int INDENT = 4;
+    private int depth;
+    // the last start tag still takes attributes and is not closed yet
+    private boolean tagOpen;
 
     public ReportXML(RefCounter reporter) {
         super(reporter);
@@ -696,10 +688,9 @@ class ReportXML extends ReportGenerator {
         for (Map.Entry<String, String[]> stringEntry : config.entrySet()) {
             for (String value : stringEntry.getValue()) {
                 // XXX to think about this repr
-                AttributesImpl atts = new AttributesImpl();
-                atts.addAttribute("", "", XC.HEAD_PROPERTY_NAME, "", stringEntry.getKey());
-                atts.addAttribute("", "", XC.HEAD_PROPERTY_VALUE, "", value);
-                startElement(XC.HEAD_PROPERTY, atts);
+                startElement(XC.HEAD_PROPERTY);
+                attribute(XC.HEAD_PROPERTY_NAME, stringEntry.getKey());
+                attribute(XC.HEAD_PROPERTY_VALUE, value);
                 endElement(XC.HEAD_PROPERTY);
             }
         }
@@ -718,31 +709,15 @@ class ReportXML extends ReportGenerator {
 
     @Override
     public void print() {
-        SAXTransformerFactory stf = (SAXTransformerFactory) TransformerFactory.newInstance();
-        stf.setAttribute("indent-number", 4);
-        Properties outputProps = new Properties();
-        Result result;
-        outputProps.put(OutputKeys.INDENT, "yes");
-        outputProps.put(OutputKeys.ENCODING, "UTF-8");
-        try {
-            ser = stf.newTransformerHandler();
-            ser.getTransformer().setOutputProperties(outputProps);
-            result = new StreamResult(pw);
-            ser.setResult(result);
-            ser.startDocument();
-            startElement(XC.REPORT);
-            printHead();
-            visit(api);
-            endElement(XC.REPORT);
-            ser.endDocument();
-
-
-            /////////////////////
-            //ser = stf.newTransformerHandler(new StreamSource(new File("pp.xsl")));
-            //ser.getTransformer().transform(new StreamSource("out.xml"), new StreamResult(System.out));
-        } catch (TransformerException | SAXException ex) {
-            SwissKnife.reportThrowable(ex);
-        }
+        pw.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+        depth = 0;
+        tagOpen = false;
+        startElement(XC.REPORT);
+        printHead();
+        visit(api);
+        endElement(XC.REPORT);
+        pw.println();
+        pw.flush();
     }
 
     @Override
@@ -754,33 +729,33 @@ class ReportXML extends ReportGenerator {
 
     @Override
     protected void visit(PackageDescr pd) {
-        AttributesImpl atts = new AttributesImpl();
-        atts.addAttribute("", "", XC.PACKAGE_NAME, "", pd.getName());
-        atts.addAttribute("", "", XC.PACKAGE_QNAME, "", pd.getQualifiedName());
-        atts.addAttribute("", "", XC.PACKAGE_MEMBERS, "", String.valueOf(results.get(pd.toString()).members));
-        atts.addAttribute("", "", XC.PACKAGE_TESTED, "", String.valueOf(results.get(pd.toString()).tested));
-        startElement(XC.PACKAGE, atts);
+        Field f = results.get(pd.toString());
+        startElement(XC.PACKAGE);
+        attribute(XC.PACKAGE_NAME, pd.getName());
+        attribute(XC.PACKAGE_QNAME, pd.getQualifiedName());
+        attribute(XC.PACKAGE_MEMBERS, String.valueOf(f.members));
+        attribute(XC.PACKAGE_TESTED, String.valueOf(f.tested));
         super.visit(pd);
         endElement(XC.PACKAGE);
     }
 
     @Override
     protected void visit(ClassDescription cd) {
-        AttributesImpl atts = new AttributesImpl();
-        atts.addAttribute("", "", XC.CLASS_NAME, "", constructClassName(cd));
+        startElement(XC.CLASS);
+        attribute(XC.CLASS_NAME, constructClassName(cd));
         if (cd.getTypeParameters() != null) {
-            atts.addAttribute("", "", XC.CLASS_TYPEARGS, "", cd.getTypeParameters());
+            attribute(XC.CLASS_TYPEARGS, cd.getTypeParameters());
         }
         String[] modifiers = Modifier.toString(cd.getMemberType(), cd.getModifiers(), false).split(" ");
         for (String modifier : modifiers) {
             // XXX should be rewitten
             if (!modifier.startsWith("!") && !modifier.startsWith("acc_")) {
-                atts.addAttribute("", "", modifier, "", "true");
+                attribute(modifier, "true");
             }
         }
-        atts.addAttribute("", "", XC.CLASS_MEMBERS, "", String.valueOf(results.get(cd.toString()).members));
-        atts.addAttribute("", "", XC.CLASS_TESTED, "", String.valueOf(results.get(cd.toString()).tested));
-        startElement(XC.CLASS, atts);
+        Field f = classResults.get(cd);
+        attribute(XC.CLASS_MEMBERS, String.valueOf(f.members));
+        attribute(XC.CLASS_TESTED, String.valueOf(f.tested));
         erasurator.parseTypeParameters(cd);
         super.visit(cd);
         endElement(XC.CLASS);
@@ -828,54 +803,88 @@ class ReportXML extends ReportGenerator {
         String vmsig = md.isField() ? convertTypeToVM(md.getType())
                 : md.isConstructor() ? convertArgsToVM(md.getArgs())
                 : /* meth */ convertArgsToVM(md.getArgs()) + convertTypeToVM(md.getType());
-        AttributesImpl atts = new AttributesImpl();
-        atts.addAttribute("", "", XC.MEMBER_NAME, "", md.getName());
-        atts.addAttribute("", "", XC.MEMBER_VMSIG, "", vmsig);
-        atts.addAttribute("", "", XC.MEMBER_SIG, "", sig);
+        startElement(type);
+        attribute(XC.MEMBER_NAME, md.getName());
+        attribute(XC.MEMBER_VMSIG, vmsig);
+        attribute(XC.MEMBER_SIG, sig);
 
         if (md.isMethod()) {
-            atts.addAttribute("", "", XC.MEMBER_TYPE, "", md.getType());
+            attribute(XC.MEMBER_TYPE, md.getType());
         }
 
         String[] modifiers = Modifier.toString(md.getMemberType(), md.getModifiers(), false).split(" ");
         for (String modifier : modifiers) {
             // XXX should be rewitten
             if (!modifier.startsWith("!") && !modifier.startsWith("acc_")) {
-                atts.addAttribute("", "", modifier, "", "true");
+                attribute(modifier, "true");
             }
         }
-        atts.addAttribute("", "", XC.MEMBER_TESTED, "", coverCount > 0 ? "1" : "0");
-        atts.addAttribute("", "", XC.MEMBER_REFCOUNT, "", String.valueOf(coverCount));
-        startElement(type, atts);
+        attribute(XC.MEMBER_TESTED, coverCount > 0 ? "1" : "0");
+        attribute(XC.MEMBER_REFCOUNT, String.valueOf(coverCount));
         endElement(type);
     }
 
-    private void startElement(String name, AttributesImpl attrs) {
-        try {
-            ser.startElement("", "", name, attrs);
-        } catch (SAXException e) {
-            SwissKnife.reportThrowable(e);
+    private void startElement(String name) {
+        if (tagOpen) {
+            pw.write('>');
+        }
+        if (depth > 0) {
+            newLine();
         }
+        pw.write('<');
+        pw.write(name);
+        tagOpen = true;
+        depth++;
     }
 
-    private void startElement(String name, String... attrs) {
-        AttributesImpl attrImpl = new AttributesImpl();
-        assert attrs.length % 2 == 0;
-        for (int i = 0; i < attrs.length; i += 2) {
-            attrImpl.addAttribute("", "'", attrs[i], "", attrs[i + 1]);
-        }
-        try {
-            ser.startElement("", "", name, attrImpl);
-        } catch (SAXException e) {
-            SwissKnife.reportThrowable(e);
+    private void attribute(String name, String value) {
+        assert tagOpen;
+        pw.write(' ');
+        pw.write(name);
+        pw.write("=\"");
+        for (int i = 0, len = value.length(); i < len; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&':
+                    pw.write("&amp;");
+                    break;
+                case '<':
+                    pw.write("&lt;");
+                    break;
+                case '>':
+                    pw.write("&gt;");
+                    break;
+                case '"':
+                    pw.write("&quot;");
+                    break;
+                default:
+                    if (c < ' ') {
+                        pw.write("&#" + (int) c + ';');
+                    } else {
+                        pw.write(c);
+                    }
+            }
         }
+        pw.write('"');
     }
 
     private void endElement(String name) {
-        try {
-            ser.endElement("", "", name);
-        } catch (SAXException e) {
-            SwissKnife.reportThrowable(e);
+        depth--;
+        if (tagOpen) {
+            pw.write("/>");
+            tagOpen = false;
+        } else {
+            newLine();
+            pw.write("</");
+            pw.write(name);
+            pw.write('>');
+        }
+    }
+
+    private void newLine() {
+        pw.println();
+        for (int i = depth * INDENT; i > 0; i--) {
+            pw.write(' ');
         }
     }
 }
@@ -41,7 +41,9 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Structure for a report
@@ -54,6 +56,8 @@ public class Structure {
     private boolean active = false;
     private List<Section> sections;
     private String title = null;
+    // include prefix -> visible sections including it
+    private final Map<String, List<Section>> prefixIndex = new HashMap<>();
 
     public Structure() throws IOException, SAXException, ParserConfigurationException {
         init();
@@ -79,6 +83,30 @@ public class Structure {
         }
     }
 
+    /**
+     * Returns the visible sections which include the given class. Include
+     * prefixes always end with a dot, so only the prefixes of the name up to
+     * each of its dots are looked up in the index.
+     */
+    public List<Section> getSections(String qualifiedName) {
+        List<Section> res = Collections.emptyList();
+        for (int pos = qualifiedName.indexOf('.'); pos >= 0; pos = qualifiedName.indexOf('.', pos + 1)) {
+            List<Section> secs = prefixIndex.get(qualifiedName.substring(0, pos + 1));
+            if (secs == null) {
+                continue;
+            }
+            for (Section s : secs) {
+                if (!res.contains(s)) {
+                    if (res.isEmpty()) {
+                        res = new ArrayList<>(secs.size());
+                    }
+                    res.add(s);
+                }
+            }
+        }
+        return res;
+    }
+
     private void init() throws ParserConfigurationException, IOException, SAXException {
         String strFile;
         if (ao.getValue(Option.STRUCTURE) != null) {
@@ -134,6 +162,18 @@ public class Structure {
                 }
 
                 sections.add(sec);
+                if (!sec.hidden) {
+                    for (String pkg : sec.pkgInclude) {
+                        List<Section> secs = prefixIndex.get(pkg);
+                        if (secs == null) {
+                            secs = new ArrayList<>(1);
+                            prefixIndex.put(pkg, secs);
+                        }
+                        if (!secs.contains(sec)) {
+                            secs.add(sec);
+                        }
+                    }
+                }
             }
 
         }
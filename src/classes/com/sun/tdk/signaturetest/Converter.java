@@ -36,7 +36,6 @@ import com.sun.tdk.signaturetest.util.I18NResourceBundle;
 import com.sun.tdk.signaturetest.util.OptionInfo;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 
 /**
  * @author Roman Makarchuk
@@ -79,9 +78,7 @@ public class Converter extends Result {
         //write header to the signature file
 
         try (Writer writer = newFormat.getWriter();
-             OutputStream os = new FileOutputStream(newFileName);
-             OutputStreamWriter w = new OutputStreamWriter(os, StandardCharsets.UTF_8);
-             PrintWriter pw = new PrintWriter(w)) {
+             PrintWriter pw = FileManager.openWriter(newFileName)) {
             writer.init(pw);
 
             writer.setApiVersion(reader.getApiVersion());
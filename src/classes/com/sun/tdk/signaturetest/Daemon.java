@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.tdk.signaturetest;
+
+import com.sun.tdk.signaturetest.core.AppContext;
+import com.sun.tdk.signaturetest.util.BatchFileParser;
+import com.sun.tdk.signaturetest.util.CommandLineParserException;
+import com.sun.tdk.signaturetest.util.I18NResourceBundle;
+import com.sun.tdk.signaturetest.util.InputCache;
+import com.sun.tdk.signaturetest.util.SwissKnife;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.EnumSet;
+
+/**
+ * Keeps a JVM with warm code and caches running between SigTest
+ * invocations. The daemon listens on a loopback port and runs the command
+ * lines sent by {@link DaemonClient} as {@link Main} would run them, with the
+ * output sent back to the client. Requests are processed one at a time, each
+ * in a fresh {@link AppContext}; jar files and signature files are shared
+ * between requests through an {@link InputCache}.
+ * <p>
+ * The port and a random access token are written to the port file, readable
+ * by the owner only. Requests must be sent from the directory the daemon was
+ * started in, as relative paths are resolved by the daemon.
+ *
+ * @see DaemonClient
+ */
+public class Daemon {
+
+    static final String CACHESIZE_OPTION = "-CacheSize";
+    static final String COMMAND_STOP = "Stop";
+    static final String COMMAND_APICOVER = "APICover";
+
+    private static final I18NResourceBundle i18n = I18NResourceBundle.getBundleForClass(Daemon.class);
+    private static final long DEFAULT_CACHE_MB = 256;
+    // a client which does not send its request in time is dropped, the
+    // requests of the others are queued behind it
+    private static final int REQUEST_TIMEOUT_MILLIS = 30000;
+
+    private final String token;
+    private final String workDir;
+    private boolean stopped;
+
+    Daemon(String token) {
+        this.token = token;
+        this.workDir = new File("").getAbsolutePath();
+    }
+
+    public static void main(String[] args) {
+        String portFile = DaemonClient.defaultPortFile();
+        long cacheMb = DEFAULT_CACHE_MB;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (DaemonClient.PORTFILE_OPTION.equalsIgnoreCase(args[i]) && i + 1 < args.length) {
+                    portFile = args[++i];
+                } else if (CACHESIZE_OPTION.equalsIgnoreCase(args[i]) && i + 1 < args.length) {
+                    cacheMb = Long.parseLong(args[++i]);
+                } else {
+                    usage();
+                    System.exit(1);
+                }
+            }
+        } catch (NumberFormatException e) {
+            usage();
+            System.exit(1);
+        }
+
+        System.setProperty(Result.NO_EXIT, "true");
+        if (cacheMb > 0) {
+            InputCache.setShared(new InputCache(cacheMb * 1024 * 1024));
+        }
+
+        byte[] rnd = new byte[16];
+        new SecureRandom().nextBytes(rnd);
+        StringBuilder sb = new StringBuilder();
+        for (byte b : rnd) {
+            sb.append(String.format("%02x", b & 0xff));
+        }
+        Daemon d = new Daemon(sb.toString());
+
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            File pf = new File(portFile);
+            d.writePortFile(pf, server.getLocalPort());
+            pf.deleteOnExit();
+            System.err.println(i18n.getString("Daemon.message.started",
+                    new Object[]{Integer.toString(server.getLocalPort()), pf.getPath()}));
+            d.serve(server);
+        } catch (IOException e) {
+            System.err.println(i18n.getString("Daemon.error.io", e));
+            System.exit(1);
+        }
+    }
+
+    private static void usage() {
+        System.err.println(i18n.getString("Daemon.usage",
+                new Object[]{DaemonClient.PORTFILE_OPTION, CACHESIZE_OPTION, DaemonClient.defaultPortFile(),
+                        Long.toString(DEFAULT_CACHE_MB)}));
+    }
+
+    private void writePortFile(File pf, int port) throws IOException {
+        Files.deleteIfExists(pf.toPath());
+        try {
+            Files.createFile(pf.toPath(), PosixFilePermissions.asFileAttribute(
+                    EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE)));
+        } catch (UnsupportedOperationException e) {
+            Files.createFile(pf.toPath());
+            pf.setReadable(false, false);
+            pf.setReadable(true, true);
+        }
+        try (PrintWriter pw = new PrintWriter(new OutputStreamWriter(new FileOutputStream(pf), StandardCharsets.UTF_8))) {
+            pw.println(port);
+            pw.println(token);
+        }
+    }
+
+    private void serve(ServerSocket server) throws IOException {
+        while (!stopped) {
+            try (Socket s = server.accept()) {
+                s.setSoTimeout(REQUEST_TIMEOUT_MILLIS);
+                handle(s);
+            } catch (IOException e) {
+                System.err.println(i18n.getString("Daemon.error.io", e));
+            }
+        }
+    }
+
+    private void handle(Socket s) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+
+        // the token is compared in constant time, so its prefix can't be guessed from the reply time
+        if (in.readInt() != DaemonClient.PROTOCOL_VERSION
+                || !MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8), in.readUTF().getBytes(StandardCharsets.UTF_8))) {
+            return;
+        }
+        String dir = in.readUTF();
+        String[] args = new String[in.readInt()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = in.readUTF();
+        }
+
+        OutputStream frames = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public synchronized void write(byte[] b, int off, int len) throws IOException {
+                out.writeByte(DaemonClient.FRAME_OUT);
+                out.writeInt(len);
+                out.write(b, off, len);
+            }
+
+            @Override
+            public synchronized void flush() throws IOException {
+                out.flush();
+            }
+        };
+        PrintStream ps = new PrintStream(frames, true, "UTF-8");
+        PrintWriter log = new PrintWriter(new OutputStreamWriter(ps, StandardCharsets.UTF_8), true);
+
+        int code;
+        if (!workDir.equals(dir)) {
+            log.println(i18n.getString("Daemon.error.workdir", new Object[]{workDir, dir}));
+            code = DaemonClient.EXIT_ERROR;
+        } else if (args.length == 1 && COMMAND_STOP.equalsIgnoreCase(args[0])) {
+            log.println(i18n.getString("Daemon.message.stopped"));
+            stopped = true;
+            code = 0;
+        } else {
+            code = run(args, ps, log);
+        }
+
+        log.flush();
+        ps.flush();
+        out.writeByte(DaemonClient.FRAME_EXIT);
+        out.writeInt(code);
+        out.flush();
+    }
+
+    /**
+     * Runs the command line in a fresh context with the standard streams
+     * redirected to {@code ps}.
+     */
+    private int run(String[] args, PrintStream ps, PrintWriter log) {
+        PrintStream sysOut = System.out;
+        PrintStream sysErr = System.err;
+        System.setOut(ps);
+        System.setErr(ps);
+        try {
+            AppContext.getContext().clean();
+            SigTest.resetStaticState();
+            args = BatchFileParser.processParameters(args);
+            if (args.length == 0) {
+                log.println(i18n.getString("Daemon.error.nocommand"));
+                return DaemonClient.EXIT_ERROR;
+            }
+            String command = args[0];
+            String[] toolArgs = Arrays.copyOfRange(args, 1, args.length);
+
+            Result r;
+            if (command.equalsIgnoreCase(Main.COMMAND_SETUP)) {
+                Setup t = new Setup();
+                t.run(toolArgs, log, null);
+                r = t;
+            } else if (command.equalsIgnoreCase(Main.COMMAND_TEST)
+                    || command.equalsIgnoreCase(Main.COMMAND_TEST_ALT)) {
+                SignatureTest t = SignatureTest.getInstance();
+                t.run(toolArgs, log, null);
+                r = t;
+            } else if (command.equalsIgnoreCase(Main.COMMAND_MERGE)) {
+                Merge t = Merge.getInstance();
+                t.run(toolArgs, log, null);
+                r = t;
+            } else if (command.equalsIgnoreCase(Main.COMMAND_SETUP_AND_TEST)) {
+                SetupAndTest t = new SetupAndTest();
+                t.run(toolArgs, log, null);
+                r = t;
+            } else if (command.equalsIgnoreCase(Main.COMMAND_MOD_SETUP)) {
+                ModSetup t = new ModSetup();
+                t.run(toolArgs, log, null);
+                r = t;
+            } else if (command.equalsIgnoreCase(Main.COMMAND_MOD_TEST)) {
+                ModTest t = new ModTest();
+                t.run(toolArgs, log, null);
+                r = t;
+            } else if (command.equalsIgnoreCase(COMMAND_APICOVER)) {
+                return runAPICover(toolArgs, log);
+            } else {
+                log.println(i18n.getString("Daemon.error.unknowncommand", command));
+                return DaemonClient.EXIT_ERROR;
+            }
+            log.println(r.toString());
+            return r.getExitCode();
+        } catch (CommandLineParserException e) {
+            log.println(e.getMessage());
+            return DaemonClient.EXIT_ERROR;
+        } catch (Throwable t) {
+            SwissKnife.reportThrowable(t, log);
+            return DaemonClient.EXIT_ERROR;
+        } finally {
+            log.flush();
+            System.setOut(sysOut);
+            System.setErr(sysErr);
+        }
+    }
+
+    /**
+     * APICover is packaged separately and is loaded by name.
+     */
+    private static int runAPICover(String[] args, PrintWriter log) throws ReflectiveOperationException {
+        Class<?> c = Class.forName("com.sun.tdk.apicover.Main");
+        Object main = c.getDeclaredConstructor().newInstance();
+        Method run = c.getMethod("run", String[].class, PrintWriter.class, PrintWriter.class);
+        run.invoke(main, args, log, null);
+        Boolean passed = (Boolean) c.getMethod("isPassed").invoke(main);
+        return passed ? 0 : 1;
+    }
+}
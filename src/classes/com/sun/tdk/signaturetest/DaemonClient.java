@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.tdk.signaturetest;
+
+import com.sun.tdk.signaturetest.util.I18NResourceBundle;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Thin client of {@link Daemon}. Sends its command line, which is the same
+ * as for {@link Main} or {@code Stop} to shut the daemon down, prints the
+ * output of the run and exits with its status. Does nothing else, so that
+ * its own start up is cheap.
+ *
+ * <pre>
+ * java -cp sigtestdev.jar com.sun.tdk.signaturetest.DaemonClient [-PortFile file] Test -static ...
+ * </pre>
+ */
+public class DaemonClient {
+
+    static final String PORTFILE_OPTION = "-PortFile";
+    static final String DEFAULT_PORTFILE = ".sigtest-daemon";
+    static final int PROTOCOL_VERSION = 1;
+    static final int FRAME_OUT = 1;
+    static final int FRAME_EXIT = 2;
+    static final int EXIT_ERROR = 98;
+
+    private static final I18NResourceBundle i18n = I18NResourceBundle.getBundleForClass(DaemonClient.class);
+
+    public static void main(String[] args) {
+        String portFile = defaultPortFile();
+        int first = 0;
+        if (args.length > 1 && PORTFILE_OPTION.equalsIgnoreCase(args[0])) {
+            portFile = args[1];
+            first = 2;
+        }
+
+        int code;
+        try {
+            code = run(new File(portFile), args, first);
+        } catch (IOException e) {
+            System.err.println(i18n.getString("DaemonClient.error.connect", new Object[]{portFile, e}));
+            code = EXIT_ERROR;
+        }
+        System.exit(code);
+    }
+
+    static String defaultPortFile() {
+        return System.getProperty("user.home") + File.separator + DEFAULT_PORTFILE;
+    }
+
+    private static int run(File portFile, String[] args, int first) throws IOException {
+        int port;
+        String token;
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(new FileInputStream(portFile), StandardCharsets.UTF_8))) {
+            port = Integer.parseInt(r.readLine().trim());
+            token = r.readLine().trim();
+        } catch (NullPointerException | NumberFormatException e) {
+            throw new IOException(portFile.getPath());
+        }
+
+        try (Socket s = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
+            out.writeInt(PROTOCOL_VERSION);
+            out.writeUTF(token);
+            out.writeUTF(new File("").getAbsolutePath());
+            out.writeInt(args.length - first);
+            for (int i = first; i < args.length; i++) {
+                out.writeUTF(args[i]);
+            }
+            out.flush();
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+            byte[] buf = new byte[8192];
+            while (true) {
+                int frame = in.readByte();
+                int n = in.readInt();
+                if (frame == FRAME_EXIT) {
+                    System.out.flush();
+                    return n;
+                }
+                while (n > 0) {
+                    int len = Math.min(n, buf.length);
+                    in.readFully(buf, 0, len);
+                    System.out.write(buf, 0, len);
+                    n -= len;
+                }
+            }
+        }
+    }
+}
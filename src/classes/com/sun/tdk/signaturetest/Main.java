@@ -33,13 +33,13 @@ import com.sun.tdk.signaturetest.util.SwissKnife;
 public class Main {
 
     // Command line options
-    private static final String COMMAND_MOD_SETUP = "Mod_Setup";
-    private static final String COMMAND_MOD_TEST = "Mod_Test";
-    private static final String COMMAND_SETUP = "Setup";
-    private static final String COMMAND_TEST = "Test";
-    private static final String COMMAND_TEST_ALT = "SignatureTest";
-    private static final String COMMAND_SETUP_AND_TEST = "SetupAndTest";
-    private static final String COMMAND_MERGE = "Merge";
+    static final String COMMAND_MOD_SETUP = "Mod_Setup";
+    static final String COMMAND_MOD_TEST = "Mod_Test";
+    static final String COMMAND_SETUP = "Setup";
+    static final String COMMAND_TEST = "Test";
+    static final String COMMAND_TEST_ALT = "SignatureTest";
+    static final String COMMAND_SETUP_AND_TEST = "SetupAndTest";
+    static final String COMMAND_MERGE = "Merge";
     private static final String COMMAND_HELP = "-help";
 
     private static final I18NResourceBundle i18n
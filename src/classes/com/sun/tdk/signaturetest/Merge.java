@@ -31,14 +31,15 @@ import com.sun.tdk.signaturetest.core.context.Option;
 import com.sun.tdk.signaturetest.loaders.VirtualClassDescriptionLoader;
 import com.sun.tdk.signaturetest.merge.JSR68Merger;
 import com.sun.tdk.signaturetest.merge.MergedSigFile;
-import com.sun.tdk.signaturetest.model.ClassDescription;
+import com.sun.tdk.signaturetest.model.*;
 import com.sun.tdk.signaturetest.sigfile.*;
 import com.sun.tdk.signaturetest.sigfile.Writer;
+import com.sun.tdk.signaturetest.sigfile.f40.F40Writer;
 import com.sun.tdk.signaturetest.util.*;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
-import java.util.Iterator;
+import java.util.*;
+import java.util.concurrent.Callable;
 
 public class Merge extends SigTest {
 
@@ -100,6 +101,11 @@ public class Merge extends SigTest {
             if (mo.getValue(Option.WRITE) != null) {
                 checkValidWriteFile();
             }
+            try {
+                Parallel.getThreads(mo.getValue(Option.THREADS));
+            } catch (NumberFormatException e) {
+                throw new CommandLineParserException(i18n.getString("SigTest.error.arg.invalid", Option.THREADS.getKey()));
+            }
         } catch (CommandLineParserException e) {
             getLog().println(e.getMessage());
             return failed(e.getMessage());
@@ -139,9 +145,62 @@ public class Merge extends SigTest {
     public void decodeOptions(String optionName, String[] args) throws CommandLineParserException {
         MergeOptions mo = AppContext.getContext().getBean(MergeOptions.class);
         mo.readOptions(optionName, args);
+        if (Option.THREADS.accept(optionName)) {
+            // signature file readers take the number of threads from the base options
+            AppContext.getContext().getBean(BaseOptions.class).readOptions(optionName, args);
+        }
     }
 
     void perform() {
+        VirtualClassDescriptionLoader result = merge();
+        if (result != null) {
+            write(result);
+        }
+        printErrors();
+    }
+
+    /**
+     * Merges the signature files given by {@code args} for
+     * {@link SignatureTest}. The result is written to a file only if
+     * {@code -Write} is given; the returned classes have the same shape as
+     * if they were read back from the merged signature file.
+     *
+     * @return the merged classes or null if the merge failed
+     */
+    VirtualClassDescriptionLoader mergeClasses(String[] args, PrintWriter pw) {
+
+        setLog(pw);
+
+        if (!parseParameters(args)) {
+            return null;
+        }
+
+        MergeOptions mo = AppContext.getContext().getBean(MergeOptions.class);
+        VirtualClassDescriptionLoader result = merge();
+        Writer writer = null;
+        if (result != null) {
+            if (mo.getValue(Option.WRITE) != null) {
+                write(result);
+            }
+            writer = getFileManager().getWriter(result.getSupportedFeatures());
+            if (isPassed() && !(writer instanceof F40Writer)) {
+                failed("Could not find a writer for given sigtest file formats.");
+            }
+        }
+        printErrors();
+        getLog().flush();
+
+        if (!isPassed()) {
+            return null;
+        }
+
+        for (Iterator<ClassDescription> i = result.getClassIterator(); i.hasNext(); ) {
+            detach(i.next(), (F40Writer) writer);
+        }
+        return result;
+    }
+
+    private VirtualClassDescriptionLoader merge() {
 
         String msg;
         MergeOptions mo = AppContext.getContext().getBean(MergeOptions.class);
@@ -151,47 +210,46 @@ public class Merge extends SigTest {
             testURL = "";
         }
 
-        MergedSigFile[] files = new MergedSigFile[mo.getValues(Option.FILES).size()];
+        // the input files are independent, so they are read and prepared concurrently
+        final String url = testURL;
+        final FileManager fm = getFileManager();
+        List<Callable<PreparedFile>> tasks = new ArrayList<>();
+        for (final String sigFiles : mo.getValues(Option.FILES)) {
+            tasks.add(new Callable<PreparedFile>() {
+                public PreparedFile call() {
+                    return prepare(url, sigFiles, fm);
+                }
+            });
+        }
+        int threads = Parallel.getThreads(mo.getValue(Option.THREADS));
+        List<PreparedFile> prepared = Parallel.invokeAll(threads, tasks);
+
+        MergedSigFile[] files = new MergedSigFile[prepared.size()];
         PrintWriter log = new PrintWriter(System.out);
         FeaturesHolder fh = new FeaturesHolder();
-        for (int i = 0; i < mo.getValues(Option.FILES).size(); i++) {
-            String sigFiles = mo.getValues(Option.FILES).get(i);
-            MultipleFileReader in = new MultipleFileReader(log, MultipleFileReader.CLASSPATH_MODE, getFileManager());
-            if (!in.readSignatureFiles(testURL, sigFiles)) {
-                msg = i18n.getString("SignatureTest.error.sigfile.invalid", sigFiles);
-                in.close();
+        for (int i = 0; i < files.length; i++) {
+            PreparedFile pf = prepared.get(i);
+            log.print(pf.log);
+            if (!pf.valid) {
+                msg = i18n.getString("SignatureTest.error.sigfile.invalid", pf.sigFiles);
                 error(msg);
             }
-            files[i] = new MergedSigFile(in, this);
+            files[i] = pf.file;
             if (i == 0) {
-                fh.setFeatures(in.getSupportedFeatures());
+                fh.setFeatures(pf.features);
             } else {
-                fh.retainFeatures(in.getSupportedFeatures());
-            }
-
-            // why do we need to build members here ????
-            MemberCollectionBuilder builder = new MemberCollectionBuilder(new SilentLog());
-
-            for (ClassDescription c : files[i].getClassSet().values()) {
-                c.setHierarchy(files[i].getClassHierarchy());
-                try {
-                    if (in.isFeatureSupported(FeaturesHolder.BuildMembers)) {
-                        builder.createMembers(c, true, true, false);
-                    }
-                    normalizer.normThrows(c, true);
-                } catch (ClassNotFoundException e) {
-                    //storeError(i18n.getString("Setup.error.message.classnotfound", e.getMessage()));
-                }
+                fh.retainFeatures(pf.features);
             }
         }
 
         JSR68Merger merger = new JSR68Merger(this, this, fh);
+        merger.setThreads(threads);
         VirtualClassDescriptionLoader result = merger.merge(files);
 
         if (!isPassed()) {
-            printErrors();
-            return;
+            return null;
         }
+        result.setFeatures(merger.getSupportedFeatures());
 
         ClassHierarchy ch = new ClassHierarchyImpl(result, ClassHierarchy.ALL_PUBLIC);
         for (Iterator<ClassDescription> i = result.getClassIterator(); i.hasNext(); ) {
@@ -208,15 +266,68 @@ public class Merge extends SigTest {
                 storeError(i18n.getString("Merge.warning.message.classnotfound", e.getMessage()), null);
             }
         }
+        return result;
+    }
+
+    /**
+     * Reads one input and builds the members of its classes. Messages of the
+     * reader are kept to be printed in the order of the inputs.
+     */
+    private PreparedFile prepare(String testURL, String sigFiles, FileManager fm) {
+
+        PreparedFile pf = new PreparedFile(sigFiles);
+        StringWriter sw = new StringWriter();
+        PrintWriter log = new PrintWriter(sw);
+        MultipleFileReader in = new MultipleFileReader(log, MultipleFileReader.CLASSPATH_MODE, fm);
+        if (!in.readSignatureFiles(testURL, sigFiles)) {
+            pf.valid = false;
+            in.close();
+        }
+        pf.file = new MergedSigFile(in, this);
+        pf.features = in.getSupportedFeatures();
+
+        // why do we need to build members here ????
+        MemberCollectionBuilder builder = new MemberCollectionBuilder(new SilentLog());
+        ThrowsNormalizer normalizer = new ThrowsNormalizer();
+
+        for (ClassDescription c : pf.file.getClassSet().values()) {
+            c.setHierarchy(pf.file.getClassHierarchy());
+            try {
+                if (in.isFeatureSupported(FeaturesHolder.BuildMembers)) {
+                    builder.createMembers(c, true, true, false);
+                }
+                normalizer.normThrows(c, true);
+            } catch (ClassNotFoundException e) {
+                //storeError(i18n.getString("Setup.error.message.classnotfound", e.getMessage()));
+            }
+        }
+        log.flush();
+        pf.log = sw.toString();
+        return pf;
+    }
+
+    private static class PreparedFile {
+
+        final String sigFiles;
+        boolean valid = true;
+        MergedSigFile file;
+        Set<FeaturesHolder.Feature> features;
+        String log;
+
+        PreparedFile(String sigFiles) {
+            this.sigFiles = sigFiles;
+        }
+    }
+
+    private void write(VirtualClassDescriptionLoader result) {
 
+        MergeOptions mo = AppContext.getContext().getBean(MergeOptions.class);
         Writer writer = null;
-        FileOutputStream fos = null;
-        OutputStreamWriter osw = null;
         PrintWriter pw = null;
 
         try {
             //write header to the signature file
-            writer = getFileManager().getWriter(merger.getSupportedFeatures());
+            writer = getFileManager().getWriter(result.getSupportedFeatures());
             if (writer == null) {
                 failed("Could not find a writer for given sigtest file formats.");
                 return;
@@ -224,14 +335,12 @@ public class Merge extends SigTest {
 
             writer.setApiVersion("");
             if (mo.getValue(Option.WRITE) != null) {
-                fos = new FileOutputStream(mo.getValue(Option.WRITE));
-                osw = new OutputStreamWriter(fos, StandardCharsets.UTF_8);
-                pw = new PrintWriter(osw);
+                pw = FileManager.openWriter(mo.getValue(Option.WRITE));
             } else {
                 pw = new PrintWriter(System.out);
             }
             writer.init(pw);
-            for (Format.Feature f : merger.getSupportedFeatures()) {
+            for (Format.Feature f : result.getSupportedFeatures()) {
                 if (f != FeaturesHolder.CopyRight) // don't put copyright int merged file
                 {
                     writer.addFeature(f);
@@ -253,23 +362,64 @@ public class Merge extends SigTest {
             if (writer != null) {
                 writer.close();
             }
-            try {
-                if (fos != null) {
-                    fos.close();
-                }
-                if (osw != null) {
-                    osw.close();
-                }
-            } catch (IOException ex) {
-                SwissKnife.reportThrowable(ex);
-            }
             if (pw != null) {
                 pw.close();
             }
         }
-        printErrors();
     }
 
+    /**
+     * Leaves only the members the signature file would contain, as
+     * declared members in the written order, and drops the built member
+     * collection and hierarchy.
+     */
+    private static void detach(ClassDescription c, F40Writer writer) {
+
+        // hiders are written as they are computed from the current members
+        Set<String> hiders = c.getInternalFields();
+        c.setInternalFields(hiders.isEmpty() ? null : hiders);
+        hiders = c.getInternalClasses();
+        c.setInternalClasses(hiders.isEmpty() ? null : hiders);
+
+        List<ConstructorDescr> ctors = new ArrayList<>();
+        List<MethodDescr> methods = new ArrayList<>();
+        List<FieldDescr> fields = new ArrayList<>();
+        List<InnerDescr> nested = new ArrayList<>();
+        List<SuperInterface> interfaces = new ArrayList<>();
+        List<PermittedSubClass> permitted = new ArrayList<>();
+        SuperClass superClass = null;
+
+        for (MemberDescription m : writer.getWrittenMembers(c)) {
+            MemberType mt = m.getMemberType();
+            if (mt == MemberType.METHOD) {
+                methods.add((MethodDescr) m);
+            } else if (mt == MemberType.FIELD) {
+                fields.add((FieldDescr) m);
+            } else if (mt == MemberType.CONSTRUCTOR) {
+                ctors.add((ConstructorDescr) m);
+            } else if (mt == MemberType.INNER) {
+                nested.add((InnerDescr) m);
+            } else if (mt == MemberType.SUPERCLASS) {
+                superClass = (SuperClass) m;
+            } else if (mt == MemberType.SUPERINTERFACE) {
+                interfaces.add((SuperInterface) m);
+            } else if (mt == MemberType.PERMITTEDSUBCLASS) {
+                permitted.add((PermittedSubClass) m);
+            }
+        }
+
+        c.setConstructors(ctors.toArray(ConstructorDescr.EMPTY_ARRAY));
+        c.setMethods(methods.toArray(MethodDescr.EMPTY_ARRAY));
+        c.setFields(fields.toArray(FieldDescr.EMPTY_ARRAY));
+        c.setNestedClasses(nested.toArray(InnerDescr.EMPTY_ARRAY));
+        c.setInterfaces(interfaces.toArray(SuperInterface.EMPTY_ARRAY));
+        c.setPermittedSubclasses(permitted.toArray(PermittedSubClass.EMPTY_ARRAY));
+        c.setSuperClass(superClass);
+        c.setMembers(null);
+        c.setHierarchy(null);
+    }
+
+
     /**
      * Prints help text.
      */
@@ -281,6 +431,7 @@ public class Merge extends SigTest {
                 nl + i18n.getString("Merge.usage.files", Option.FILES.getKey()) +
                 nl + i18n.getString("Merge.usage.write", Option.WRITE.getKey()) +
                 nl + i18n.getString("Merge.usage.binary", Option.BINARY.getKey()) +
+                nl + i18n.getString("Merge.usage.threads", Option.THREADS.getKey()) +
                 nl + i18n.getString("Sigtest.usage.delimiter") +
                 nl + i18n.getString("SetupAndTest.helpusage.version", Option.VERSION.getKey()) +
                 nl + i18n.getString("Setup.usage.help", Option.HELP.getKey()) +
@@ -40,7 +40,6 @@ import com.sun.tdk.signaturetest.util.SwissKnife;
 
 import java.io.*;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
@@ -209,8 +208,7 @@ public class ModSetup extends ModBase {
         }
 
         try (Writer w = getFileManager().getDefaultFormat().getWriter();
-             FileOutputStream fos = new FileOutputStream(FileManager.getURL(mo.getValue(Option.TEST_URL), mo.getValue(Option.FILE_NAME)).getFile());
-             OutputStreamWriter osw = new OutputStreamWriter(fos, StandardCharsets.UTF_8)) {
+             PrintWriter out = FileManager.openWriter(FileManager.getURL(mo.getValue(Option.TEST_URL), mo.getValue(Option.FILE_NAME)).getFile())) {
 
             if (w instanceof ModWriter) {
                 writer = (ModWriter) w;
@@ -218,7 +216,7 @@ public class ModSetup extends ModBase {
                 throw new IllegalStateException();
             }
 
-            writer.init(new PrintWriter(osw));
+            writer.init(out);
             writer.addFeature(FeaturesHolder.ConstInfo);
             writer.addFeature(FeaturesHolder.TigerInfo);
             writer.addFeature(FeaturesHolder.ModuleInfo);
@@ -348,7 +348,8 @@ public class ModTest extends ModBase {
         if (mo.getValue(Option.TEST_URL) != null) {
             testUrl = mo.getValue(Option.TEST_URL);
         }
-        in.readSignatureFile(testUrl, mo.getValue(Option.FILE_NAME));
+        // module checks need no class descriptions
+        in.readElements(testUrl, mo.getValue(Option.FILE_NAME));
 
         Map<String, ModuleDescription> modules = new HashMap<>();
         List<Elem> docs = in.getElements();
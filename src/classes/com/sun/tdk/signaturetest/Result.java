@@ -100,6 +100,13 @@ public class Result {
         return reason;
     }
 
+    /**
+     * Returns the process exit code matching this result.
+     */
+    public int getExitCode() {
+        return exitCodes[type];
+    }
+
     protected boolean exit() {
         if (System.err != null) {
             System.err.println(toString());
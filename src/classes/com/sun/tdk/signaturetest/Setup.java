@@ -29,6 +29,7 @@ import com.sun.tdk.signaturetest.classpath.ClasspathImpl;
 import com.sun.tdk.signaturetest.core.*;
 import com.sun.tdk.signaturetest.core.context.BaseOptions;
 import com.sun.tdk.signaturetest.core.context.Option;
+import com.sun.tdk.signaturetest.loaders.BulkLoading;
 import com.sun.tdk.signaturetest.model.ClassDescription;
 import com.sun.tdk.signaturetest.model.MemberDescription;
 import com.sun.tdk.signaturetest.model.MemberType;
@@ -42,12 +43,13 @@ import com.sun.tdk.signaturetest.util.CommandLineParser;
 import com.sun.tdk.signaturetest.util.CommandLineParserException;
 import com.sun.tdk.signaturetest.util.I18NResourceBundle;
 import com.sun.tdk.signaturetest.util.OptionInfo;
+import com.sun.tdk.signaturetest.util.Parallel;
+import com.sun.tdk.signaturetest.util.Stats;
 import com.sun.tdk.signaturetest.util.SwissKnife;
 
 import java.io.*;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
@@ -134,10 +136,20 @@ public class Setup extends SigTest {
         excludedClassesNumber = 0;
 
         MemberType.setMode(false);
+        getStats().begin(getComponentName());
 
-        if (parseParameters(args)) {
-            afterParseParameters();
-            create(signatureFile);
+        boolean parsed = false;
+        try {
+            parsed = parseParameters(args);
+            if (parsed) {
+                afterParseParameters();
+                create(signatureFile);
+            }
+        } finally {
+            // a failed run must not leave the collection on for the next one
+            getStats().end(getLog());
+        }
+        if (parsed) {
             getLog().flush();
         } else if (args.length > 0 && Option.VERSION.accept(args[0])) {
             pw.println(Version.getVersionInfo());
@@ -190,6 +202,7 @@ public class Setup extends SigTest {
         if (!processHelpOptions()) {
             return false;
         }
+        initStats();
 
         // since 2.1 - static mode by default
         if (!parser.isOptionSpecified(XREFLECTION_OPTION)) {
@@ -293,6 +306,8 @@ public class Setup extends SigTest {
                 nl + i18n.getString("Sigtest.usage.delimiter") +
                 nl + i18n.getString("Setup.usage.verbose", new Object[]{VERBOSE_OPTION, NOWARN}) +
                 nl + i18n.getString("Setup.usage.debug", Option.DEBUG) +
+                nl + i18n.getString("Setup.usage.stats", new Object[]{Option.STATS.getKey(), Option.STATS_FILE.getKey()}) +
+                nl + i18n.getString("Setup.usage.threads", Option.THREADS.getKey()) +
                 nl + i18n.getString("Sigtest.usage.delimiter") +
                 nl + i18n.getString("Setup.helpusage.version", Option.VERSION) +
                 nl + i18n.getString("Setup.usage.help", Option.HELP) +
@@ -368,9 +383,7 @@ public class Setup extends SigTest {
                 ClassSet closedSetOfClasses = new ClassSet(testableHierarchy, true);
 
                 // add all classes including non-accessible
-                for (String name : packageClasses) {
-                    closedSetOfClasses.addClass(name);
-                }
+                closedSetOfClasses.addClasses(packageClasses);
                 // remove not accessible classes
 
                 Set<String> invisibleClasses = new HashSet<>();
@@ -383,21 +396,22 @@ public class Setup extends SigTest {
                     }
                 }
 
-                for (String invisibleClass : invisibleClasses) {
-                    closedSetOfClasses.removeClass(invisibleClass);
-                }
+                closedSetOfClasses.removeClasses(invisibleClasses);
 
                 sortedClasses = sortClasses(closedSetOfClasses.getClasses());
             } else {
                 sortedClasses = sortClasses(packageClasses);
             }
 
+            if (testableLoader instanceof BulkLoading) {
+                ((BulkLoading) testableLoader).preload(sortedClasses, Parallel.getThreads(bo.getValue(Option.THREADS)));
+            }
+
             try (Writer writer = getFileManager().getDefaultFormat().getWriter();
-                 FileOutputStream fos = new FileOutputStream(sigFile.getFile());
-                 OutputStreamWriter osw = new OutputStreamWriter(fos, StandardCharsets.UTF_8)) {
+                 PrintWriter out = FileManager.openWriter(sigFile.getFile())) {
                 //write header to the signature file
 
-                writer.init(new PrintWriter(osw));
+                writer.init(out);
 
                 writer.setApiVersion(apiVersion);
                 if (isConstantValuesTracked()) {
@@ -464,7 +478,12 @@ public class Setup extends SigTest {
 
                     Filter f = PluginAPI.BEFORE_WRITE.getFilter();
                     if (f == null || f.accept(c)) {
-                        writer.write(c);
+                        Stats.Span span = getStats().start(Stats.Phase.SIGFILE_WRITE);
+                        try {
+                            writer.write(c);
+                        } finally {
+                            span.end();
+                        }
                     }
                 }
 
@@ -32,6 +32,8 @@ import com.sun.tdk.signaturetest.errors.ErrorFormatter;
 import com.sun.tdk.signaturetest.model.AnnotationItem;
 import com.sun.tdk.signaturetest.model.AnnotationItem.Member;
 import com.sun.tdk.signaturetest.model.ClassDescription;
+import com.sun.tdk.signaturetest.model.FieldDescr;
+import com.sun.tdk.signaturetest.model.MemberType;
 import com.sun.tdk.signaturetest.plugin.*;
 import com.sun.tdk.signaturetest.sigfile.AnnotationParser;
 import com.sun.tdk.signaturetest.sigfile.FileManager;
@@ -39,6 +41,8 @@ import com.sun.tdk.signaturetest.sigfile.Format;
 import com.sun.tdk.signaturetest.util.CommandLineParserException;
 import com.sun.tdk.signaturetest.util.I18NResourceBundle;
 import com.sun.tdk.signaturetest.util.Logger;
+import com.sun.tdk.signaturetest.util.Parallel;
+import com.sun.tdk.signaturetest.util.Stats;
 import com.sun.tdk.signaturetest.util.SwissKnife;
 
 import java.io.PrintWriter;
@@ -130,7 +134,7 @@ public abstract class SigTest extends Result implements PluginAPI, Log {
     public static boolean isConstantValuesTracked = true;
     public final static int DefaultCacheSize = 1024;
     /**
-     * <b>BinaryClassDescrLoader</b> may cache up to {@code cacheSize}
+     * The class description loader may cache up to {@code cacheSize}
      * classes being loaded.
      */
     protected int cacheSize = DefaultCacheSize;
@@ -164,11 +168,25 @@ public abstract class SigTest extends Result implements PluginAPI, Log {
         }
     }
 
+    private static final boolean isTigerFeaturesTrackedByDefault = isTigerFeaturesTracked;
+
     /**
      * Enable diagnostics for inherited class members.
      */
     protected boolean isVerbose = false;
     static boolean Xverbose = false;
+
+    /**
+     * Restores the static settings that options of a previous run in the
+     * same JVM could change.
+     */
+    static void resetStaticState() {
+        isTigerFeaturesTracked = isTigerFeaturesTrackedByDefault;
+        isConstantValuesTracked = true;
+        Xverbose = false;
+        FieldDescr.setConstantValuesTracked(true);
+        MemberType.resetMode();
+    }
     protected ClassHierarchy testableHierarchy;
     protected final Set<String> errorMessages = new HashSet<>();
     private ClassDescriptionLoader loader;
@@ -231,6 +249,22 @@ public abstract class SigTest extends Result implements PluginAPI, Log {
         return AppContext.getContext().getLogWriter();
     }
 
+    /**
+     * Returns the timing and counters of the current run.
+     */
+    protected Stats getStats() {
+        return AppContext.getContext().getBean(Stats.class);
+    }
+
+    /**
+     * Enables statistics if requested by {@code -Stats} or
+     * {@code -StatsFile}. Called once the options are parsed.
+     */
+    protected void initStats() {
+        BaseOptions bo = AppContext.getContext().getBean(BaseOptions.class);
+        getStats().configure(bo.isSet(Option.STATS), bo.getValue(Option.STATS_FILE));
+    }
+
     protected void decodeCommonOptions(String optionName, String[] args) throws CommandLineParserException {
 
         BaseOptions bo = AppContext.getContext().getBean(BaseOptions.class);
@@ -251,6 +285,13 @@ public abstract class SigTest extends Result implements PluginAPI, Log {
                     throw new CommandLineParserException(i18n.getString("SigTest.error.no.module.support"));
                 }
             }
+            if (Option.THREADS.accept(optionName)) {
+                try {
+                    Parallel.getThreads(args[0]);
+                } catch (NumberFormatException ex) {
+                    throw new CommandLineParserException(i18n.getString("SigTest.error.arg.invalid", optionName));
+                }
+            }
 
             return;
         }
@@ -375,7 +416,8 @@ public abstract class SigTest extends Result implements PluginAPI, Log {
             //  reflection mode
 
             if (isJava8) {
-                loader = getLoader("com.sun.tdk.signaturetest.loaders.J8RefLoader", new Class[]{}, new Object[]{}, getLog());
+                loader = getLoader("com.sun.tdk.signaturetest.loaders.J8RefLoader", new Class[]{Integer.class},
+                        new Object[]{cacheSize}, getLog());
                 if (loader != null) {
                     return loader;
                 }
@@ -383,7 +425,8 @@ public abstract class SigTest extends Result implements PluginAPI, Log {
 
             if (isTigerFeaturesTracked) {
 
-                loader = getLoader("com.sun.tdk.signaturetest.loaders.TigerRefgClassDescrLoader", new Class[]{}, new Object[]{}, getLog());
+                loader = getLoader("com.sun.tdk.signaturetest.loaders.TigerRefgClassDescrLoader", new Class[]{Integer.class},
+                        new Object[]{cacheSize}, getLog());
                 if (loader != null) {
                     return loader;
                 }
@@ -545,6 +588,9 @@ public abstract class SigTest extends Result implements PluginAPI, Log {
     }
 
     protected AnnotationItem[] unpackContainerAnnotations(AnnotationItem[] annotations, ClassHierarchy ch) {
+        if (annotations.length == 0) {
+            return annotations;
+        }
         List<AnnotationItem> unpackedAnnotations = new ArrayList<>();
         List<AnnotationItem> toRemove = new ArrayList<>();
         AnnotationParser ap = new AnnotationParser();
@@ -31,7 +31,10 @@ import com.sun.tdk.signaturetest.core.context.BaseOptions;
 import com.sun.tdk.signaturetest.core.context.Option;
 import com.sun.tdk.signaturetest.core.context.TestOptions;
 import com.sun.tdk.signaturetest.errors.*;
+import com.sun.tdk.signaturetest.loaders.BulkLoading;
 import com.sun.tdk.signaturetest.loaders.LoadingHints;
+import com.sun.tdk.signaturetest.loaders.RemoteClassDescrLoader;
+import com.sun.tdk.signaturetest.loaders.VirtualClassDescriptionLoader;
 import com.sun.tdk.signaturetest.model.*;
 import com.sun.tdk.signaturetest.plugin.Filter;
 import com.sun.tdk.signaturetest.plugin.PluginAPI;
@@ -151,6 +154,10 @@ public class SignatureTest extends SigTest {
     private String outFormat = null;
     private boolean extensibleInterfaces = false;
     private Set<String> orderImportant;
+    // annotations prepared by checkAnnotations(), members are compared by identity
+    private static final int COMPARED_ANNOTATIONS_CACHE_SIZE = 4096;
+    private final Map<MemberDescription, AnnotationItem[]> baseAnnotations = new IdentityHashMap<>();
+    private final Map<MemberDescription, AnnotationItem[]> testAnnotations = new IdentityHashMap<>();
     private static final I18NResourceBundle i18nSt = I18NResourceBundle.getBundleForClass(SignatureTest.class);
 
     /**
@@ -225,11 +232,19 @@ public class SignatureTest extends SigTest {
             exclude = new DefaultExcludeList();
         }
 
-        if (parseParameters(args)) {
-            check();
-            if (logFile) {
-                getLog().println(toString());
+        getStats().begin(getComponentName());
+        boolean parsed = false;
+        try {
+            parsed = parseParameters(args);
+            if (parsed) {
+                check();
             }
+        } finally {
+            // a failed run must not leave the collection on for the next one
+            getStats().end(getLog());
+        }
+        if (parsed && logFile) {
+            getLog().println(toString());
         }
         if (getClasspath() != null) {
             getClasspath().close();
@@ -305,6 +320,7 @@ public class SignatureTest extends SigTest {
         if (!processHelpOptions()) {
             return false;
         }
+        initStats();
 
         packages.addPackages(bo.getValues(Option.PACKAGE));
         purePackages.addPackages(bo.getValues(Option.PURE_PACKAGE));
@@ -342,6 +358,24 @@ public class SignatureTest extends SigTest {
             return error(i18nSt.getString("Setup.error.options.cant_be_used_together", invargs));
         }
 
+        String remote = to.getValue(Option.REMOTE);
+        if (remote != null) {
+            // tested classes are described by RemoteLoadManager at host:port
+            int colon = remote.lastIndexOf(':');
+            int port = -1;
+            try {
+                port = Integer.parseInt(remote.substring(colon + 1));
+            } catch (NumberFormatException e) {
+                if (bo.isSet(Option.DEBUG)) {
+                    SwissKnife.reportThrowable(e);
+                }
+            }
+            if (colon <= 0 || port <= 0 || port > 0xFFFF) {
+                return error(i18nSt.getString("SigTest.error.arg.invalid", Option.REMOTE.getKey()));
+            }
+            setClassDescrLoader(new RemoteClassDescrLoader(RemoteClassDescrLoader.connect(remote.substring(0, colon), port)));
+        }
+
         logFile = false;
         if (logName != null) {
 
@@ -476,6 +510,10 @@ public class SignatureTest extends SigTest {
                 nl + i18nSt.getString("SignatureTest.usage.classcachesize", new Object[]{CLASSCACHESIZE_OPTION, DefaultCacheSize}) +
                 nl + i18nSt.getString("SignatureTest.usage.verbose", new Object[]{VERBOSE_OPTION, NOWARN}) +
                 nl + i18nSt.getString("SignatureTest.usage.debug", Option.DEBUG.getKey()) +
+                nl + i18nSt.getString("SignatureTest.usage.stats", new Object[]{Option.STATS.getKey(), Option.STATS_FILE.getKey()}) +
+                nl + i18nSt.getString("SignatureTest.usage.threads", Option.THREADS.getKey()) +
+                nl + i18nSt.getString("SignatureTest.usage.remote", Option.REMOTE.getKey()) +
+                nl + i18nSt.getString("SignatureTest.usage.remoteprefetch", Option.REMOTE_PREFETCH.getKey()) +
                 nl + i18nSt.getString("SignatureTest.usage.error_all", ERRORALL_OPTION) +
                 nl + i18nSt.getString("Sigtest.usage.delimiter") +
                 nl + i18nSt.getString("SignatureTest.helpusage.version", Option.VERSION.getKey()) +
@@ -533,20 +571,33 @@ public class SignatureTest extends SigTest {
         PrintWriter log = getLog();
         //  Open the specified sigfile and read standard headers.
 
+        VirtualClassDescriptionLoader merged = null;
         if (readMode == MultipleFileReader.MERGE_MODE && sigFileNameList != null && sigFileNameList.contains(File.pathSeparator)) {
             try {
-                if (writeFileName == null) {
+                // the merged classes are checked directly, a file is needed
+                // only if it is requested or has to be updated
+                if (writeFileName == null && updateFileName != null) {
                     File tmpF = File.createTempFile("sigtest", "sig");
                     writeFileName = tmpF.getAbsolutePath();
                     tmpF.deleteOnExit();
                 }
                 Merge m = Merge.getInstance();
-                String[] args = new String[]{"-Files", sigFileNameList, "-Write", writeFileName};
+                List<String> args = new ArrayList<>(Arrays.asList("-Files", sigFileNameList));
+                if (writeFileName != null) {
+                    args.add("-Write");
+                    args.add(writeFileName);
+                }
                 if (BINARY_MODE.equals(mode)) {
-                    args = new String[]{"-Files", sigFileNameList, "-Write", writeFileName, "-Binary"};
+                    args.add("-Binary");
+                }
+                // transformers of a plugin are not expected to be thread-safe
+                String threads = pluginClass != null ? "1" : bo.getValue(Option.THREADS);
+                if (threads != null) {
+                    args.add(Option.THREADS.getKey());
+                    args.add(threads);
                 }
-                m.run(args, log, null);
-                if (!m.isPassed()) {
+                merged = m.mergeClasses(args.toArray(new String[0]), log);
+                if (merged == null) {
                     error(m.getReason());
                     return false;
                 }
@@ -565,6 +616,7 @@ public class SignatureTest extends SigTest {
 
         // apply update file if it was specified
         if (updateFileName != null) {
+            merged = null;
             try {
                 Updater up = new Updater();
                 File res = File.createTempFile("sigtest", "sig");
@@ -582,7 +634,10 @@ public class SignatureTest extends SigTest {
         String linesep = System.getProperty("line.separator");
         boolean result;
 
-        if (sigFileNameList != null) {
+        if (merged != null) {
+            in.readClasses(merged, "");
+            result = true;
+        } else if (sigFileNameList != null) {
             result = in.readSignatureFiles(testURL, sigFileNameList);
         } else {
             result = in.readSignatureFile(testURL, sigFileName);
@@ -614,11 +669,13 @@ public class SignatureTest extends SigTest {
 
             // check that set of classes is transitively closed
             ClassSet closedSet = new ClassSet(signatureClassesHierarchy, true);
+            List<String> classNames = new ArrayList<>();
 
             in.rewind();
             while ((currentClass = in.nextClass()) != null) {
-                closedSet.addClass(currentClass.getQualifiedName());
+                classNames.add(currentClass.getQualifiedName());
             }
+            closedSet.addClasses(classNames);
 
             Set<String> missingClasses = closedSet.getMissingClasses();
             if (!missingClasses.isEmpty() && !allowMissingSuperclasses()) {
@@ -637,6 +694,14 @@ public class SignatureTest extends SigTest {
                 return error(i18nSt.getString("SignatureTest.error.non_transitively_closed_set"));
             }
 
+            ClassDescriptionLoader loader = getClassDescrLoader();
+            if (loader instanceof RemoteClassDescrLoader && to.isSet(Option.REMOTE_PREFETCH)) {
+                prefetchPackages((RemoteClassDescrLoader) loader);
+            }
+            if (loader instanceof BulkLoading && !to.isSet(Option.CHECK_EXCESS_CLASSES_ONLY)) {
+                ((BulkLoading) loader).preload(classNames, Parallel.getThreads(bo.getValue(Option.THREADS)));
+            }
+
             in.rewind();
 
             boolean supportNSC = in.isFeatureSupported(FeaturesHolder.NonStaticConstants);
@@ -677,11 +742,17 @@ public class SignatureTest extends SigTest {
                         }
                     }
 
-                    if (currentClass.isModuleOrPackaheInfo() && isTigerFeaturesTracked) {
-                        verifyMduleOrPackageInfo(currentClass);
-                    } else {
-                        verifyClass(currentClass, supportNSC);
+                    Stats.Span span = getStats().start(Stats.Phase.VERIFY);
+                    try {
+                        if (currentClass.isModuleOrPackaheInfo() && isTigerFeaturesTracked) {
+                            verifyMduleOrPackageInfo(currentClass);
+                        } else {
+                            verifyClass(currentClass, supportNSC);
+                        }
+                    } finally {
+                        span.end();
                     }
+                    getErrorManager().classChecked();
                     if (!isAPICheckMode()) {
                         // save memory
                         currentClass.setMembers(null);
@@ -691,8 +762,6 @@ public class SignatureTest extends SigTest {
 
         } catch (OutOfMemoryError e) {
             msg = i18nSt.getString("SignatureTest.error.sigfile.oome");
-        } catch (StackOverflowError e) {
-            msg = i18nSt.getString("SignatureTest.error.sigfile.soe");
         } catch (VirtualMachineError e) {
             msg = i18nSt.getString("SignatureTest.error.sigfile.vme", e.getMessage());
         } catch (IOException e) {
@@ -730,7 +799,12 @@ public class SignatureTest extends SigTest {
         }
 
         int auxErrorCount = 0;
-        getErrorManager().printErrors();
+        Stats.Span span = getStats().start(Stats.Phase.ERROR_FORMAT);
+        try {
+            getErrorManager().printErrors();
+        } finally {
+            span.end();
+        }
         if (reportWarningAsError) {
             auxErrorCount = errorMessages.size();
             printErrors();
@@ -777,6 +851,29 @@ public class SignatureTest extends SigTest {
                                 ClassDescriptionLoader second) {
     }
 
+    /**
+     * Fetches all the classes of the tested packages in one request. If no
+     * package is given, all the classes the remote side can find are fetched.
+     */
+    private void prefetchPackages(RemoteClassDescrLoader loader) {
+        BaseOptions bo = AppContext.getContext().getBean(BaseOptions.class);
+        List<String> withSubpackages = new ArrayList<>();
+        List<String> withoutSubpackages = new ArrayList<>();
+        if (bo.getValues(Option.PACKAGE) != null) {
+            withSubpackages.addAll(bo.getValues(Option.PACKAGE));
+        }
+        if (bo.getValues(Option.API_INCLUDE) != null) {
+            withSubpackages.addAll(bo.getValues(Option.API_INCLUDE));
+        }
+        if (bo.getValues(Option.PURE_PACKAGE) != null) {
+            withoutSubpackages.addAll(bo.getValues(Option.PURE_PACKAGE));
+        }
+        if (withSubpackages.isEmpty() && withoutSubpackages.isEmpty()) {
+            withSubpackages.add("");
+        }
+        loader.preloadPackages(withSubpackages, withoutSubpackages);
+    }
+
     /**
      * Check if packages being tested do not contain any extra class, which is
      * not described in the {@code signatureFile}. For each extra class
@@ -796,6 +893,7 @@ public class SignatureTest extends SigTest {
                 // Check that class isn't tracked and this class is
                 // accessible in the current tested mode
                 checkAddedClass(name);
+                getErrorManager().classChecked();
             }
         } catch (SecurityException ex) {
             BaseOptions bo = AppContext.getContext().getBean(BaseOptions.class);
@@ -1336,26 +1434,10 @@ public class SignatureTest extends SigTest {
         }
 
         AnnotationItem[] baseAnnotList = base == null ? AnnotationItem.EMPTY_ANNOTATIONITEM_ARRAY
-                : removeUndocumentedAnnotations(base.getAnnoList(), signatureClassesHierarchy);
+                : getComparedAnnotations(base, baseCh, true);
 
         AnnotationItem[] testAnnotList = test == null ? AnnotationItem.EMPTY_ANNOTATIONITEM_ARRAY
-                : removeUndocumentedAnnotations(test.getAnnoList(), testableHierarchy);
-
-        if (baseCh != null) {
-            baseAnnotList = unpackContainerAnnotations(baseAnnotList, baseCh);
-            normalizeArrayParaemeters(baseAnnotList, orderImportant, baseCh);
-        }
-
-        if (testCh != null) {
-            testAnnotList = unpackContainerAnnotations(testAnnotList, testCh);
-            normalizeArrayParaemeters(testAnnotList, orderImportant, testCh);
-        }
-
-        BaseOptions bo = AppContext.getContext().getBean(BaseOptions.class);
-        // RI JSR 308 doesn't support reflection yet
-        if (!bo.isSet(Option.STATIC)) {
-            baseAnnotList = removeExtendedAnnotations(baseAnnotList);
-        }
+                : getComparedAnnotations(test, testCh, false);
 
         if (baseAnnotList.length == 0 && testAnnotList.length == 0) {
             return;
@@ -1392,6 +1474,46 @@ public class SignatureTest extends SigTest {
         }
     }
 
+    /*
+     * Returns the annotations of the member prepared for comparison.
+     * Inherited members are compared once for every subclass, so the result
+     * is kept for the member when it is normalized against a class hierarchy.
+     */
+    private AnnotationItem[] getComparedAnnotations(MemberDescription m, ClassHierarchy ch, boolean isBase) {
+
+        AnnotationItem[] annotations = m.getAnnoList();
+        if (annotations.length == 0) {
+            return annotations;
+        }
+
+        Map<MemberDescription, AnnotationItem[]> cache = isBase ? baseAnnotations : testAnnotations;
+        AnnotationItem[] result = ch == null ? null : cache.get(m);
+        if (result != null) {
+            return result;
+        }
+
+        result = removeUndocumentedAnnotations(annotations, isBase ? signatureClassesHierarchy : testableHierarchy);
+
+        if (ch != null) {
+            result = unpackContainerAnnotations(result, ch);
+            normalizeArrayParaemeters(result, orderImportant, ch);
+        }
+
+        BaseOptions bo = AppContext.getContext().getBean(BaseOptions.class);
+        // RI JSR 308 doesn't support reflection yet
+        if (isBase && !bo.isSet(Option.STATIC)) {
+            result = removeExtendedAnnotations(result);
+        }
+
+        if (ch != null) {
+            if (cache.size() >= COMPARED_ANNOTATIONS_CACHE_SIZE) {
+                cache.clear();
+            }
+            cache.put(m, result);
+        }
+        return result;
+    }
+
     private static AnnotationItem[] removeExtendedAnnotations(AnnotationItem[] baseAnnotList) {
 
         if (baseAnnotList == null) {
@@ -26,12 +26,14 @@ package com.sun.tdk.signaturetest.ant;
 
 import com.sun.tdk.signaturetest.SigTest;
 import com.sun.tdk.signaturetest.core.context.Option;
+import com.sun.tdk.signaturetest.util.BuildStamp;
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.types.DataType;
 import org.apache.tools.ant.types.Path;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -46,6 +48,7 @@ public class ABase extends ASuperBase {
     private final List<AExclude> exclude = new ArrayList<>();
     String fileName;
     private String apiVersion;
+    boolean force = false;
 
     void createBaseParameters(List<String> params) {
         params.add(Option.FILE_NAME.getKey());
@@ -74,6 +77,18 @@ public class ABase extends ASuperBase {
         }
     }
 
+    /**
+     * Creates the up-to-date check of a run writing {@code output}. The
+     * fingerprint covers the arguments and the classes of the classpath.
+     */
+    BuildStamp createStamp(File output, String[] params) {
+        BuildStamp stamp = new BuildStamp(output);
+        stamp.addArg(getClass().getName());
+        stamp.addArgs(params);
+        stamp.addClasspath(Arrays.asList(classpath.list()));
+        return stamp;
+    }
+
     // classpath
     public void setClasspath(Path s) {
         createClasspath().append(s);
@@ -126,6 +141,11 @@ public class ABase extends ASuperBase {
         apiVersion = s;
     }
 
+    // force
+    public void setForce(boolean b) {
+        force = b;
+    }
+
     public static class AExclude extends DataType {
 
         String value;
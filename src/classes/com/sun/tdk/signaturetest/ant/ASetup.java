@@ -26,9 +26,11 @@ package com.sun.tdk.signaturetest.ant;
 
 import com.sun.tdk.signaturetest.Result;
 import com.sun.tdk.signaturetest.Setup;
+import com.sun.tdk.signaturetest.util.BuildStamp;
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Project;
 
+import java.io.File;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 
@@ -57,6 +59,8 @@ import java.util.ArrayList;
  *   "failonerror" - Stop the build process if the command exits with an error. Default is "false".
  *   "apiVersion" -  corresponds to -apiVersion. Set API version for signature file
  *   "nonclosedfile" - Corresponds to -NonClosedFile option, Default is "false".
+ *   "force" - runs setup even if the classpath and the options are the same as
+ *     for the signature file written by the previous run. Default is "false".
  *   "negative" - inverts result (that is passed status treats as failed and vice versa, default is "false"
  *   "exclude" attribute or nested "exclude" element. Corresponds to -exclude option.
  *     package or class, which is not required to be tested
@@ -100,14 +104,29 @@ public class ASetup extends ABase {
 
     public void execute() throws BuildException {
         checkParams();
-        Setup s = new Setup();
-        System.setProperty(Result.NO_EXIT, "true");
-        s.run(createParams(), new PrintWriter(System.out, true), null);
-        if (negative == s.isPassed()) {
+        String[] params = createParams();
+        PrintWriter log = new PrintWriter(System.out, true);
+        BuildStamp stamp = createStamp(new File(fileName), params);
+        boolean passed;
+        String result;
+        if (!force && stamp.isUpToDate()) {
+            getProject().log("Signature file " + fileName + " is up to date", Project.MSG_INFO);
+            stamp.replay(log);
+            passed = stamp.isPassed();
+            result = stamp.getResult();
+        } else {
+            Setup s = new Setup();
+            System.setProperty(Result.NO_EXIT, "true");
+            s.run(params, new PrintWriter(stamp.capture(log), true), null);
+            passed = s.isPassed();
+            result = s.toString();
+            stamp.store(passed, result);
+        }
+        if (negative == passed) {
             if (failOnError) {
-                throw new BuildException(s.toString());
+                throw new BuildException(result);
             } else {
-                getProject().log(s.toString(), Project.MSG_ERR);
+                getProject().log(result, Project.MSG_ERR);
             }
         }
     }
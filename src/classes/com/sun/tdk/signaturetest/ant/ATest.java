@@ -28,9 +28,11 @@ import com.sun.tdk.signaturetest.Result;
 import com.sun.tdk.signaturetest.SigTest;
 import com.sun.tdk.signaturetest.SignatureTest;
 import com.sun.tdk.signaturetest.core.context.Option;
+import com.sun.tdk.signaturetest.util.BuildStamp;
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Project;
 
+import java.io.File;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 
@@ -67,6 +69,9 @@ import java.util.ArrayList;
  *     Default is "false".
  *   "output" - corresponds to "-out filename" option, specifies report file name
  *   "negative" - inverts result (that is passed status treats as failed and vice versa, default is "false"
+ *   "force" - runs the test even if the classpath, the signature file and the options
+ *     are the same as for the previous run. Only runs with "output" are checked,
+ *     the stamp of the run is kept next to the report. Default is "false".
  *   "exclude" attribute or nested "exclude" element. Corresponds to -exclude option.
  *     package or class, which is not required to be tested
  *     Samples -
@@ -113,14 +118,35 @@ public class ATest extends ABase {
 
     public void execute() throws BuildException {
         checkParams();
-        SignatureTest s = testFactory();
-        System.setProperty(Result.NO_EXIT, "true");
-        s.run(createParams(), new PrintWriter(System.out, true), null);
-        if (negative == s.isPassed()) {
+        String[] params = createParams();
+        PrintWriter log = new PrintWriter(System.out, true);
+        BuildStamp stamp = null;
+        if (out != null && !out.isEmpty()) {
+            stamp = createStamp(new File(out), params);
+            stamp.addFile(new File(fileName));
+        }
+        boolean passed;
+        String result;
+        if (stamp != null && !force && stamp.isUpToDate()) {
+            getProject().log("Signature test report " + out + " is up to date", Project.MSG_INFO);
+            stamp.replay(log);
+            passed = stamp.isPassed();
+            result = stamp.getResult();
+        } else {
+            SignatureTest s = testFactory();
+            System.setProperty(Result.NO_EXIT, "true");
+            s.run(params, stamp == null ? log : new PrintWriter(stamp.capture(log), true), null);
+            passed = s.isPassed();
+            result = s.toString();
+            if (stamp != null) {
+                stamp.store(passed, result);
+            }
+        }
+        if (negative == passed) {
             if (failOnError) {
-                throw new BuildException(s.toString());
+                throw new BuildException(result);
             } else {
-                getProject().log(s.toString(), Project.MSG_ERR);
+                getProject().log(result, Project.MSG_ERR);
             }
         }
     }
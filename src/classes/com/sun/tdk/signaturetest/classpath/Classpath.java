@@ -29,6 +29,7 @@ import com.sun.tdk.signaturetest.model.ClassDescription;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
+import java.nio.ByteBuffer;
 
 /**
  * @author Maxim Sokolnikov
@@ -80,6 +81,12 @@ public interface Classpath extends AutoCloseable {
      */
     InputStream findClass(String qualifiedClassName) throws IOException, ClassNotFoundException;
 
+    /**
+     * Returns the bytecode of the class {@link #findClass(String)} would
+     * provide, positioned at its first byte.
+     */
+    ByteBuffer findClassBytes(String qualifiedClassName) throws IOException, ClassNotFoundException;
+
     ClassDescription findClassDescription(String qualifiedClassName) throws ClassNotFoundException;
 
     KIND_CLASS_DATA isClassPresent(String qualifiedClassName);
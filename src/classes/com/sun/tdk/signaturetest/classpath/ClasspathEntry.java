@@ -26,7 +26,11 @@ package com.sun.tdk.signaturetest.classpath;
 
 import com.sun.tdk.signaturetest.model.ClassDescription;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 import java.util.Set;
 
@@ -74,6 +78,26 @@ public abstract class ClasspathEntry implements Classpath {
         currentPosition = classes.iterator();
     }
 
+    /**
+     * Removes the classes found by the earlier entries of the path, which
+     * shadow the classes of this entry.
+     *
+     * @param visible names of the classes found by the earlier entries
+     * @see ClasspathImpl#init(String)
+     */
+    protected void shadow(Set<String> visible) {
+        classes.removeAll(visible);
+        currentPosition = classes.iterator();
+    }
+
+    /**
+     * Adds the classes of this entry to the names visible for the later
+     * entries of the path.
+     */
+    protected void publish(Set<String> visible) {
+        visible.addAll(classes);
+    }
+
     protected boolean contains(String className) {
         return classes.contains(className) || (previousEntry != null && previousEntry.contains(className));
     }
@@ -82,6 +106,58 @@ public abstract class ClasspathEntry implements Classpath {
         return classes.isEmpty();
     }
 
+    /**
+     * Reads the class given by {@link #findClass(String)}. Entries which can
+     * get the bytes directly override this.
+     */
+    @Override
+    public ByteBuffer findClassBytes(String name) throws IOException, ClassNotFoundException {
+        try (InputStream is = findClass(name)) {
+            return readFully(is, -1);
+        }
+    }
+
+    /**
+     * Reads the rest of {@code is}. If {@code size} is known, the bytes are
+     * read to an array of this size.
+     */
+    protected static ByteBuffer readFully(InputStream is, long size) throws IOException {
+        if (size >= 0 && size <= Integer.MAX_VALUE) {
+            byte[] b = new byte[(int) size];
+            int n = 0;
+            while (n < b.length) {
+                int r = is.read(b, n, b.length - n);
+                if (r < 0) {
+                    break;
+                }
+                n += r;
+            }
+            int next = n == b.length ? is.read() : -1;
+            if (n == b.length && next < 0) {
+                return ByteBuffer.wrap(b);
+            }
+            // the size was wrong, read the rest as for an unknown size
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(n, 32) * 2);
+            out.write(b, 0, n);
+            if (next >= 0) {
+                out.write(next);
+                copy(is, out);
+            }
+            return ByteBuffer.wrap(out.toByteArray());
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        copy(is, out);
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    private static void copy(InputStream is, ByteArrayOutputStream out) throws IOException {
+        byte[] b = new byte[8192];
+        int r;
+        while ((r = is.read(b)) >= 0) {
+            out.write(b, 0, r);
+        }
+    }
+
     @Override
     public ClassDescription findClassDescription(String qualifiedClassName) throws ClassNotFoundException {
         throw new ClassNotFoundException(qualifiedClassName);
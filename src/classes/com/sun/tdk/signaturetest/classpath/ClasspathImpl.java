@@ -27,9 +27,13 @@ package com.sun.tdk.signaturetest.classpath;
 import com.sun.tdk.signaturetest.core.AppContext;
 import com.sun.tdk.signaturetest.core.ClassDescriptionLoader;
 import com.sun.tdk.signaturetest.core.context.BaseOptions;
+import com.sun.tdk.signaturetest.core.context.Option;
 import com.sun.tdk.signaturetest.model.ClassDescription;
 import com.sun.tdk.signaturetest.model.ExoticCharTools;
+import com.sun.tdk.signaturetest.sigfile.FileManager;
 import com.sun.tdk.signaturetest.util.I18NResourceBundle;
+import com.sun.tdk.signaturetest.util.Parallel;
+import com.sun.tdk.signaturetest.util.Stats;
 import com.sun.tdk.signaturetest.util.SwissKnife;
 
 import java.io.File;
@@ -37,7 +41,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
 import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 /**
  * <p><b>ClasspathImpl</b> provides access to all classes placed inside directories
@@ -102,6 +108,7 @@ public class ClasspathImpl implements Classpath {
     private static final I18NResourceBundle i18n = I18NResourceBundle.getBundleForClass(ClasspathImpl.class);
 
     private final BaseOptions bo = AppContext.getContext().getBean(BaseOptions.class);
+    private final Stats stats = AppContext.getContext().getBean(Stats.class);
 
     /*
      * Try to determine path separator used by operating system. Path separator
@@ -149,6 +156,15 @@ public class ClasspathImpl implements Classpath {
 
     @Override
     public void init(String classPath) {
+        Stats.Span span = stats.start(Stats.Phase.CLASSPATH);
+        try {
+            initEntries(classPath);
+        } finally {
+            span.end();
+        }
+    }
+
+    private void initEntries(String classPath) {
         entries = new ArrayList<>();
         errors = new ArrayList<>();
         Set<String> unique = new HashSet<>();
@@ -157,7 +173,7 @@ public class ClasspathImpl implements Classpath {
             throw new SecurityException(i18n.getString("ClasspathImpl.error.notdefinepathsep"));
         }
 
-        ClasspathEntry previosEntry = null;
+        List<String> names = new ArrayList<>();
 
         //creates Hashtable with ZipFiles and directories from path.
         while (path != null && !path.isEmpty()) {
@@ -177,11 +193,29 @@ public class ClasspathImpl implements Classpath {
             }
 
             unique.add(s);
+            names.add(s);
+        }
 
-            ClasspathEntry entry = createPathEntry(previosEntry, s);
-            if (entry != null && !entry.isEmpty()) {
-                entries.add(entry);
-                previosEntry = entry;
+        // the entries are opened and indexed concurrently, a class shadowed
+        // by an earlier entry is removed afterwards
+        List<Callable<ClasspathEntry>> tasks = new ArrayList<>(names.size());
+        for (final String name : names) {
+            tasks.add(new Callable<ClasspathEntry>() {
+                public ClasspathEntry call() {
+                    return createPathEntry(null, name);
+                }
+            });
+        }
+        List<ClasspathEntry> created = Parallel.invokeAll(Parallel.getThreads(bo.getValue(Option.THREADS)), tasks);
+
+        Set<String> visible = new HashSet<>();
+        for (ClasspathEntry entry : created) {
+            if (entry != null) {
+                entry.shadow(visible);
+                if (!entry.isEmpty()) {
+                    entries.add(entry);
+                    entry.publish(visible);
+                }
             }
         }
 
@@ -312,6 +346,27 @@ public class ClasspathImpl implements Classpath {
         throw new ClassNotFoundException(name);
     }
 
+    /**
+     * Returns the bytecode of the class {@link #findClass(String)} would
+     * provide.
+     */
+    @Override
+    public ByteBuffer findClassBytes(String name) throws IOException, ClassNotFoundException {
+        name = ExoticCharTools.decodeExotic(name);
+
+        // generic names are no allowed here
+        assert (name.indexOf('<') == -1 && name.indexOf('>') == -1);
+
+        for (ClasspathEntry entry : entries) {
+            try {
+                return entry.findClassBytes(name);
+            } catch (ClassNotFoundException exc) {
+                // just skip this entry
+            }
+        }
+        throw new ClassNotFoundException(name);
+    }
+
     @Override
     public ClassDescription findClassDescription(String qualifiedClassName) throws ClassNotFoundException {
         for (ClasspathEntry ce : entries) {
@@ -345,7 +400,9 @@ public class ClasspathImpl implements Classpath {
     /**
      * Check if the given name is directory or zip-file name, and create either
      * new <b>DirectoryEntry</b> or new <b>JarFileEntry</b> instance
-     * correspondingly.
+     * correspondingly. The path entries are created without a previous
+     * entry, the classes shadowed by earlier entries are removed by
+     * {@link ClasspathEntry#shadow(Set)}.
      *
      * @param name Qualified name of some directory or zip file or jimage.
      * @return New <b>ClasspathEntry</b> instance corresponding to the given
@@ -371,6 +428,11 @@ public class ClasspathImpl implements Classpath {
 
     private static boolean isSigFile(String fName) {
         // first version, later ti analise the content
-        return fName.toLowerCase().endsWith(".sig");
+        String lName = fName.toLowerCase();
+        if (lName.endsWith(".sig")) {
+            return true;
+        }
+        // archives are never sniffed, only other files may be compressed sigfiles
+        return !lName.endsWith(".jar") && !lName.endsWith(".zip") && FileManager.isCompressed(new File(fName));
     }
 }
@@ -29,12 +29,23 @@ import com.sun.tdk.signaturetest.core.context.BaseOptions;
 import com.sun.tdk.signaturetest.core.context.Option;
 import com.sun.tdk.signaturetest.model.ExoticCharTools;
 import com.sun.tdk.signaturetest.util.I18NResourceBundle;
+import com.sun.tdk.signaturetest.util.Parallel;
 import com.sun.tdk.signaturetest.util.SwissKnife;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.LinkedHashSet;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.Callable;
 
 /**
  * @author Maxim Sokolnikov
@@ -42,6 +53,11 @@ import java.util.LinkedHashSet;
 class DirectoryEntry extends ClasspathEntry {
 
     private static final I18NResourceBundle i18n = I18NResourceBundle.getBundleForClass(DirectoryEntry.class);
+    /**
+     * Class files of this size and larger are mapped. Most class files are
+     * smaller, and for them one read costs less than a mapping.
+     */
+    private static final int MAP_THRESHOLD = 64 * 1024;
 
     /**
      * The qualified name of {@code this} directory.
@@ -65,7 +81,11 @@ class DirectoryEntry extends ClasspathEntry {
 
         this.directoryName = directoryName;
         classes = new LinkedHashSet<>();
-        scanDirectory(directory, "");
+        for (String className : scanDirectory(directory.toPath())) {
+            if (!contains(className)) {
+                classes.add(className);
+            }
+        }
         currentPosition = classes.iterator();
     }
 
@@ -76,62 +96,146 @@ class DirectoryEntry extends ClasspathEntry {
 
     /**
      * Find all classes placed in the given {@code directory} including
-     * those placed in subdirectories. (Recursively walk subdirectories tree, if
-     * needed.) Qualified names for all class files found inside the given
-     * {@code directory} are collected in {@code this}
-     * <b>DirectoryEntry</b> instance.
+     * those placed in subdirectories, in the order the directories list
+     * them. Symbolic links are followed, a link to a directory being visited
+     * is skipped. The subdirectories of {@code directory} are scanned
+     * concurrently.
      *
-     * @param directory   Directory to scan.
-     * @param packageName Package name for classes inside the given
-     *                    {@code directory}.
+     * @param directory Directory to scan.
+     * @return Qualified names for all class files found.
      */
-    private void scanDirectory(File directory, String packageName) {
-        // check for infinite loop which could occurs in the case of
-        // cyclic symbolic link.
-
-        int pos, startPos = 0, depth = 0;
-        do {
-            pos = packageName.indexOf('.', startPos);
-            if (pos != -1) {
-                depth++;
-                startPos = pos + 1;
+    private List<String> scanDirectory(Path directory) {
+        final BaseOptions bo = AppContext.getContext().getBean(BaseOptions.class);
+        final List<Object> found = new ArrayList<>();
+        List<Callable<List<String>>> tasks = new ArrayList<>();
+        try {
+            final Object rootKey = Files.readAttributes(directory, BasicFileAttributes.class).fileKey();
+            // classes of the directory itself and subtrees to scan
+            SimpleFileVisitor<Path> top = new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isDirectory()) {
+                        if (rootKey == null || !rootKey.equals(attrs.fileKey())) {
+                            found.add(file);
+                        }
+                    } else {
+                        String className = getClassName("", file);
+                        if (className != null) {
+                            found.add(className);
+                        }
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException exc) {
+                    return FileVisitResult.CONTINUE;
+                }
+            };
+            Files.walkFileTree(directory, EnumSet.of(FileVisitOption.FOLLOW_LINKS), 1, top);
+
+            for (Object o : found) {
+                if (o instanceof Path) {
+                    final Path subdirectory = (Path) o;
+                    tasks.add(new Callable<List<String>>() {
+                        public List<String> call() {
+                            Scanner scanner = new Scanner(rootKey);
+                            try {
+                                Files.walkFileTree(subdirectory, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, scanner);
+                            } catch (IOException | SecurityException e) {
+                                if (bo.isSet(Option.DEBUG)) {
+                                    SwissKnife.reportThrowable(e);
+                                }
+                            }
+                            return scanner.names;
+                        }
+                    });
+                }
             }
-            if (depth > 512) {
-                return;
+        } catch (IOException | SecurityException e) {
+            if (bo.isSet(Option.DEBUG)) {
+                SwissKnife.reportThrowable(e);
             }
-        } while (pos != -1);
+            return new ArrayList<String>();
+        }
 
-        // -----------------------------------------------------------------
-        BaseOptions bo = AppContext.getContext().getBean(BaseOptions.class);
-        try {
-            String[] files = directory.list();
-            if (files == null) {
-                return;
+        List<String> result = new ArrayList<>();
+        Iterator<List<String>> subtrees = Parallel.invokeAll(Parallel.getThreads(bo.getValue(Option.THREADS)), tasks).iterator();
+        for (Object o : found) {
+            if (o instanceof Path) {
+                result.addAll(subtrees.next());
+            } else {
+                result.add((String) o);
             }
+        }
+        return result;
+    }
+
+    private static String getClassName(String prefix, Path file) {
+        String name = file.getFileName().toString();
+        if (!name.endsWith(JAVA_CLASSFILE_EXTENSION)) {
+            return null;
+        }
+        return (prefix + name.substring(0, name.length() - JAVA_CLASSFILE_EXTENSION_LEN)).intern();
+    }
 
-            StringBuffer buf = new StringBuffer();
+    /**
+     * Collects the qualified names of the class files of a directory tree.
+     */
+    private static class Scanner extends SimpleFileVisitor<Path> {
 
-            for (String file : files) {
-                File current = new File(directory, file);
-                String namePrefix = packageName.isEmpty() ? "" : (packageName + ".");
-                if (current.isDirectory()) {
-                    scanDirectory(current, namePrefix + file);
-                } else if (file.endsWith(JAVA_CLASSFILE_EXTENSION)) {
+        private static final Object NO_KEY = new Object();
 
-                    buf.setLength(0);
-                    buf.append(namePrefix);
-                    buf.append(file, 0, file.length() - JAVA_CLASSFILE_EXTENSION_LEN);
+        final List<String> names = new ArrayList<>();
+        private final Deque<String> prefixes = new ArrayDeque<>();
+        private final Deque<Object> keys = new ArrayDeque<>();
+        /**
+         * File keys of the directories being visited.
+         */
+        private final Set<Object> ancestors = new HashSet<>();
 
-                    String className = buf.toString();
-                    if (!contains(className)) {
-                        classes.add(className.intern());
-                    }
-                }
+        /**
+         * @param rootKey file key of the directory of the classpath entry
+         */
+        Scanner(Object rootKey) {
+            prefixes.push("");
+            if (rootKey != null) {
+                ancestors.add(rootKey);
             }
-        } catch (SecurityException e) {
-            if (bo.isSet(Option.DEBUG)) {
-                SwissKnife.reportThrowable(e);
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+            Object key = attrs.fileKey();
+            if (key != null && !ancestors.add(key)) {
+                // cyclic symbolic link
+                return FileVisitResult.SKIP_SUBTREE;
+            }
+            keys.push(key == null ? NO_KEY : key);
+            prefixes.push(prefixes.peek() + dir.getFileName() + ".");
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException exc) {
+            prefixes.pop();
+            ancestors.remove(keys.pop());
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            String className = getClassName(prefixes.peek(), file);
+            if (className != null) {
+                names.add(className);
             }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException exc) {
+            // unreadable directories and symbolic link loops are skipped
+            return FileVisitResult.CONTINUE;
         }
     }
 
@@ -154,6 +258,31 @@ class DirectoryEntry extends ClasspathEntry {
         return SwissKnife.approveFileInputStream(constructFileName(name));
     }
 
+    /**
+     * Returns the bytecode of the class, read at once or mapped.
+     */
+    @Override
+    public ByteBuffer findClassBytes(String name) throws IOException, ClassNotFoundException {
+        if (!classes.contains(name)) {
+            throw new ClassNotFoundException(name);
+        }
+
+        name = ExoticCharTools.decodeExotic(name);
+        try (FileInputStream is = SwissKnife.approveFileInputStream(constructFileName(name))) {
+            FileChannel channel = is.getChannel();
+            long size = channel.size();
+            if (size >= MAP_THRESHOLD) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            ByteBuffer buf = ByteBuffer.allocate((int) size);
+            while (buf.hasRemaining() && channel.read(buf) >= 0) {
+                // read the whole file
+            }
+            buf.flip();
+            return buf;
+        }
+    }
+
     /**
      * Replace dots in the given qualified class {@code name} with
      * appropriate files separator symbol.
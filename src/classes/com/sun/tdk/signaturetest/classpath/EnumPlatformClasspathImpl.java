@@ -36,6 +36,7 @@ import java.io.PrintWriter;
 import java.lang.module.ModuleFinder;
 import java.lang.module.ModuleReader;
 import java.lang.module.ModuleReference;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -95,6 +96,11 @@ public class EnumPlatformClasspathImpl implements Classpath {
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public ByteBuffer findClassBytes(String qualifiedClassName) throws IOException, ClassNotFoundException {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public ClassDescription findClassDescription(String className) throws ClassNotFoundException {
         ClassDescriptionLoader l = AppContext.getContext().getClassLoader();
@@ -28,12 +28,18 @@ import com.sun.tdk.signaturetest.core.AppContext;
 import com.sun.tdk.signaturetest.core.context.BaseOptions;
 import com.sun.tdk.signaturetest.core.context.Option;
 import com.sun.tdk.signaturetest.model.ExoticCharTools;
+import com.sun.tdk.signaturetest.util.InputCache;
 import com.sun.tdk.signaturetest.util.SwissKnife;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 
@@ -47,6 +53,7 @@ class JarFileEntry extends ClasspathEntry {
      * Specified jar file. *
      */
     private JarFile jarfile;
+    private InputCache.Archive archive;
     private final BaseOptions bo = AppContext.getContext().getBean(BaseOptions.class);
 
     public JarFileEntry(ClasspathEntry previous, String jarfile) throws IOException {
@@ -57,18 +64,41 @@ class JarFileEntry extends ClasspathEntry {
     public void init(String jarfile) throws IOException {
         this.jarfile = new JarFile(jarfile);
 
-        Enumeration<JarEntry> entries = this.jarfile.entries();
+        InputCache cache = InputCache.getShared();
+        if (cache != null) {
+            archive = cache.archive(new File(jarfile));
+        }
+
         classes = new LinkedHashSet<>();
+        List<String> names;
+        if (archive != null) {
+            names = archive.getNames(new InputCache.Source<List<String>>() {
+                public List<String> load() {
+                    return listClasses();
+                }
+            });
+        } else {
+            names = listClasses();
+        }
+        for (String name : names) {
+            if (previousEntry == null || !previousEntry.contains(name)) {
+                classes.add(name);
+            }
+        }
+        currentPosition = classes.iterator();
+    }
+
+    private List<String> listClasses() {
+        Enumeration<JarEntry> entries = this.jarfile.entries();
+        List<String> names = new ArrayList<>();
         while (entries.hasMoreElements()) {
             String name = entries.nextElement().getName();
             if (name.endsWith(JAVA_CLASSFILE_EXTENSION)) {
                 name = name.substring(0, name.length() - JAVA_CLASSFILE_EXTENSION_LEN).replace('/', '.');
-                if (previousEntry == null || !previousEntry.contains(name)) {
-                    classes.add(name.intern());
-                }
+                names.add(name.intern());
             }
         }
-        currentPosition = classes.iterator();
+        return names;
     }
 
     /**
@@ -100,14 +130,48 @@ class JarFileEntry extends ClasspathEntry {
      */
     public InputStream findClass(String name) throws IOException, ClassNotFoundException {
 
+        JarEntry jarEntry = getEntry(name);
+
+        if (archive != null) {
+            return new ByteArrayInputStream(getCached(jarEntry));
+        }
+        return jarfile.getInputStream(jarEntry);
+    }
+
+    /**
+     * Returns the bytecode of the class read at once, the size of the entry
+     * is known from the jar file.
+     */
+    @Override
+    public ByteBuffer findClassBytes(String name) throws IOException, ClassNotFoundException {
+
+        JarEntry jarEntry = getEntry(name);
+
+        if (archive != null) {
+            return ByteBuffer.wrap(getCached(jarEntry));
+        }
+        try (InputStream is = jarfile.getInputStream(jarEntry)) {
+            return readFully(is, jarEntry.getSize());
+        }
+    }
+
+    private JarEntry getEntry(String name) throws ClassNotFoundException {
+
         name = ExoticCharTools.decodeExotic(name);
 
         JarEntry jarEntry = jarfile.getJarEntry(name.replace('.', '/') + JAVA_CLASSFILE_EXTENSION);
         if (jarEntry == null) {
             throw new ClassNotFoundException(name);
         }
+        return jarEntry;
+    }
 
-        return jarfile.getInputStream(jarEntry);
+    private byte[] getCached(final JarEntry jarEntry) throws IOException {
+        return archive.get(jarEntry.getName(), new InputCache.Source<InputStream>() {
+            public InputStream load() throws IOException {
+                return jarfile.getInputStream(jarEntry);
+            }
+        });
     }
 
 }
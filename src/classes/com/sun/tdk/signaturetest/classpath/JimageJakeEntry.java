@@ -32,6 +32,7 @@ import com.sun.tdk.signaturetest.core.context.Option;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -39,6 +40,7 @@ import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author Mike Ershov
@@ -140,6 +142,18 @@ public class JimageJakeEntry extends ClasspathEntry {
         throw new ClassNotFoundException(name);
     }
 
+    @Override
+    public ByteBuffer findClassBytes(String name) throws IOException, ClassNotFoundException {
+        for (DirectoryEntry module : module_homes) {
+            try {
+                return module.findClassBytes(name);
+            } catch (ClassNotFoundException | IOException e) {
+                // just skip to the next
+            }
+        }
+        throw new ClassNotFoundException(name);
+    }
+
     @Override
     public boolean hasNext() {
         if (isEmpty()) {
@@ -178,6 +192,18 @@ public class JimageJakeEntry extends ClasspathEntry {
         return (previousEntry != null && previousEntry.contains(className));
     }
 
+    @Override
+    protected void shadow(Set<String> visible) {
+        // the modules shadow only each other
+    }
+
+    @Override
+    protected void publish(Set<String> visible) {
+        for (DirectoryEntry module : module_homes) {
+            module.publish(visible);
+        }
+    }
+
     @Override
     public boolean isEmpty() {
         for (DirectoryEntry module : module_homes) {
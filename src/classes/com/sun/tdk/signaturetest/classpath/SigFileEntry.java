@@ -34,8 +34,10 @@ import com.sun.tdk.signaturetest.sigfile.MultipleFileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
+import java.nio.ByteBuffer;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.TreeMap;
 
 /**
@@ -84,6 +86,11 @@ public class SigFileEntry extends ClasspathEntry implements ClassDescriptionLoad
         throw new ClassNotFoundException(qualifiedClassName);
     }
 
+    @Override
+    public ByteBuffer findClassBytes(String qualifiedClassName) throws IOException, ClassNotFoundException {
+        throw new ClassNotFoundException(qualifiedClassName);
+    }
+
     @Override
     public ClassDescription load(String qualifiedClassName) throws ClassNotFoundException {
         assert readClasses != null;
@@ -98,6 +105,18 @@ public class SigFileEntry extends ClasspathEntry implements ClassDescriptionLoad
         return readClasses.containsKey(className);
     }
 
+    @Override
+    protected void shadow(Set<String> visible) {
+        // all the classes of the signature file are kept
+    }
+
+    @Override
+    protected void publish(Set<String> visible) {
+        // the later entries see the classes of this file only, as contains() does
+        visible.clear();
+        visible.addAll(readClasses.keySet());
+    }
+
     @Override
     public boolean isEmpty() {
         return readClasses.isEmpty();
@@ -51,6 +51,9 @@ public class ClassCorrector implements Transformer {
 
     protected ClassHierarchy classHierarchy = null;
     private final Log log;
+    // search results valid for classHierarchy
+    private final Map<String, VisiblePath> visiblePaths = new HashMap<>();
+    private final Map<String, List<String>> visibleSuperInterfaces = new HashMap<>();
     private static final I18NResourceBundle i18n = I18NResourceBundle.getBundleForClass(ClassCorrector.class);
 
     public ClassCorrector(Log log) {
@@ -59,7 +62,11 @@ public class ClassCorrector implements Transformer {
 
     public ClassDescription transform(ClassDescription cl) throws ClassNotFoundException {
 
-        classHierarchy = cl.getClassHierarchy();
+        if (classHierarchy != cl.getClassHierarchy()) {
+            classHierarchy = cl.getClassHierarchy();
+            visiblePaths.clear();
+            visibleSuperInterfaces.clear();
+        }
 
         replaceInvisibleExceptions(cl);
         replaceInvisibleInMembers(cl);
@@ -206,47 +213,104 @@ public class ClassCorrector implements Transformer {
         return replacement;
     }
 
-    private void getPaths2(List<ArrayList<String>> paths, List<String> currentPath, String intFrom, String intTo) {
+    /**
+     * The best path found by {@link #findVisiblePath(String, String)}: the
+     * number of visible interfaces on it and the last of them.
+     */
+    private static final class VisiblePath {
+
+        final int visibleCount;
+        final String last;
+
+        VisiblePath(int visibleCount, String last) {
+            this.visibleCount = visibleCount;
+            this.last = last;
+        }
+    }
+
+    private static final VisiblePath NO_PATH = new VisiblePath(-1, null);
+
+    /**
+     * Finds the path from {@code intFrom} up the superinterfaces to
+     * {@code intTo} having the least visible interfaces, the earliest in
+     * declaration order if there are several. The search visits each
+     * interface once and the results are kept for the whole hierarchy, so
+     * diamond-shaped hierarchies do not multiply the number of paths.
+     *
+     * @return the best path or {@code NO_PATH} if {@code intTo} is not a
+     * superinterface of {@code intFrom}
+     */
+    private VisiblePath findVisiblePath(String intFrom, String intTo) {
+        String key = intFrom + ' ' + intTo;
+        VisiblePath result = visiblePaths.get(key);
+        if (result != null) {
+            return result;
+        }
+        // guards against cyclic hierarchies
+        visiblePaths.put(key, NO_PATH);
+
         String[] sis = new String[]{};
         try {
             sis = classHierarchy.getSuperInterfaces(intFrom);
         } catch (ClassNotFoundException e) {
             e.printStackTrace();
         }
-        currentPath.add(intFrom);
+
+        result = NO_PATH;
+        VisiblePath own = null;
         for (String si : sis) {
+            VisiblePath up = null;
             if (!si.equals(intTo)) {
-                getPaths2(paths, currentPath, si, intTo);
-                currentPath.remove(currentPath.size() - 1);
-            } else {
-                paths.add(new ArrayList<>(currentPath));
+                up = findVisiblePath(si, intTo);
+                if (up == NO_PATH) {
+                    continue;
+                }
+            }
+            if (own == null) {
+                own = isAccessible(intFrom) ? new VisiblePath(1, intFrom) : new VisiblePath(0, null);
+            }
+            VisiblePath p = own;
+            if (up != null) {
+                p = new VisiblePath(own.visibleCount + up.visibleCount, up.last != null ? up.last : own.last);
+            }
+            if (result == NO_PATH || p.visibleCount < result.visibleCount) {
+                result = p;
             }
         }
+        visiblePaths.put(key, result);
+        return result;
     }
 
-    private void getPaths(List<ArrayList<String>> paths, List<String> currentPath, String intFrom, String intTo) {
-        getPaths2(paths, currentPath, intFrom, intTo);
-        // remove invisible elements
-        for (List<String> path : paths) {
-            for (Iterator<String> it2 = path.iterator(); it2.hasNext(); ) {
-                String cl = it2.next();
-                try {
-                    if (!classHierarchy.isAccessible(cl)) {
-                        it2.remove();
-                    }
-                } catch (ClassNotFoundException e) {
-                    e.printStackTrace();
+    private boolean isAccessible(String fqname) {
+        try {
+            return classHierarchy.isAccessible(fqname);
+        } catch (ClassNotFoundException e) {
+            e.printStackTrace();
+            return true;
+        }
+    }
+
+    /**
+     * Returns the visible superinterfaces of {@code fqname} that are either
+     * direct or inherited through invisible interfaces only.
+     */
+    private List<String> findVisibleSuperInterfaces(String fqname) throws ClassNotFoundException {
+        List<String> result = visibleSuperInterfaces.get(fqname);
+        if (result == null) {
+            // guards against cyclic hierarchies
+            visibleSuperInterfaces.put(fqname, Collections.<String>emptyList());
+            Set<String> found = new LinkedHashSet<>();
+            for (String si : classHierarchy.getSuperInterfaces(fqname)) {
+                if (isInvisibleClass(si)) {
+                    found.addAll(findVisibleSuperInterfaces(si));
+                } else {
+                    found.add(si);
                 }
             }
+            result = new ArrayList<>(found);
+            visibleSuperInterfaces.put(fqname, result);
         }
-        // sort - shorten paths first
-        Collections.sort(paths, new Comparator<List<?>>() {
-            public int compare(List<?> o1, List<?> o2) {
-                Integer s1 = o1.size();
-                Integer s2 = o2.size();
-                return s1.compareTo(s2);
-            }
-        });
+        return result;
     }
 
     private String findVisibleReplacement(String clName, List<String> supers, String replaceWithClassName, boolean findToSuper) {
@@ -254,14 +318,9 @@ public class ClassCorrector implements Transformer {
         // if this member is from interface...
         try {
             if (classHierarchy.isInterface(clName)) {
-                ArrayList<ArrayList<String>> paths = new ArrayList<>();
-                List<String> currentPath = new ArrayList<>();
-                getPaths(paths, currentPath, replaceWithClassName, clName);
-                if (!paths.isEmpty()) {
-                    ArrayList<String> shorterPath = paths.get(0);
-                    if (!shorterPath.isEmpty()) {
-                        return shorterPath.get(shorterPath.size() - 1);
-                    }
+                VisiblePath path = findVisiblePath(replaceWithClassName, clName);
+                if (path.last != null) {
+                    return path.last;
                 }
             }
         } catch (ClassNotFoundException e) {
@@ -484,9 +543,7 @@ public class ClassCorrector implements Transformer {
                             makeThemDirect = new ArrayList<>();
                         }
 
-                        String[] intfs = classHierarchy.getSuperInterfaces(siName);
-
-                        makeThemDirect.addAll(Arrays.asList(intfs));
+                        makeThemDirect.addAll(findVisibleSuperInterfaces(siName));
                     }
                 }
 
@@ -511,7 +568,7 @@ public class ClassCorrector implements Transformer {
 
     private void fixInvisibleSuperclasses(ClassDescription c) throws ClassNotFoundException {
 
-        SuperInterface[] intfs = null;
+        Set<String> intfs = null;
         MemberDescription newMember = null;
 
         for (Iterator<MemberDescription> e = c.getMembersIterator(); e.hasNext(); ) {
@@ -528,7 +585,15 @@ public class ClassCorrector implements Transformer {
 
                     e.remove();
 
-                    intfs = cS.getInterfaces();
+                    intfs = new HashSet<>();
+                    for (SuperInterface intf : cS.getInterfaces()) {
+                        String intfName = intf.getQualifiedName();
+                        if (isInvisibleClass(intfName)) {
+                            intfs.addAll(findVisibleSuperInterfaces(intfName));
+                        } else {
+                            intfs.add(intfName);
+                        }
+                    }
                 }
 
                 if (mr.getTypeParameters() != null) {
@@ -545,9 +610,10 @@ public class ClassCorrector implements Transformer {
 
         if (intfs != null) {
 
-            for (SuperInterface intf : intfs) {
-                SuperInterface m = (SuperInterface) c.findMember(intf);
-                if (m != null) {
+            for (Iterator<MemberDescription> it = c.getMembersIterator(); it.hasNext(); ) {
+                MemberDescription mr = it.next();
+                if (mr.isSuperInterface() && intfs.contains(mr.getQualifiedName())) {
+                    SuperInterface m = (SuperInterface) mr;
                     m.setDirect(true);
                     m.setDeclaringClass(c.getQualifiedName());
                 }
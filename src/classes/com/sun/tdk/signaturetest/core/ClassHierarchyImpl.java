@@ -80,9 +80,41 @@ public class ClassHierarchyImpl implements ClassHierarchy {
     }
 
     public List<String> getSuperClasses(String fqClassName) throws ClassNotFoundException {
-        List<String> superclasses = new ArrayList<>();
-        findSuperclasses(fqClassName, superclasses);
-        return superclasses;
+        ClassInfo info = getClassInfo(fqClassName);
+        String[] chain = getSuperClassChain(info);
+        if (!info.superClassChainComplete) {
+            // throws ClassNotFoundException for the missing superclass
+            findSuperclasses(fqClassName, new ArrayList<String>());
+        }
+        return new ArrayList<>(Arrays.asList(chain));
+    }
+
+    /**
+     * Returns the superclasses of the class, the nearest first. The chain is
+     * built once per class, it ends with the first superclass that can't be
+     * loaded.
+     */
+    private String[] getSuperClassChain(ClassInfo info) {
+        if (info.superClassChain == null) {
+            List<String> chain = new ArrayList<>();
+            boolean complete = true;
+            String name = info.superClass;
+            while (name != null) {
+                chain.add(name);
+                try {
+                    name = getClassInfo(name).superClass;
+                } catch (ClassNotFoundException cnfe) {
+                    if (bo.isSet(Option.DEBUG)) {
+                        SwissKnife.reportThrowable(cnfe);
+                    }
+                    complete = false;
+                    break;
+                }
+            }
+            info.superClassChainComplete = complete;
+            info.superClassChain = chain.toArray(new String[chain.size()]);
+        }
+        return info.superClassChain;
     }
 
     public String[] getSuperInterfaces(String fqClassName) throws ClassNotFoundException {
@@ -168,22 +200,21 @@ public class ClassHierarchyImpl implements ClassHierarchy {
             return false;
         }
 
-        String name = subClassName;
-        do {
-            try {
-                ClassInfo info = getClassInfo(name);
-                if (superClassName.equals(info.superClass)) {
-                    return true;
-                }
-                name = info.superClass;
-            } catch (ClassNotFoundException cnfe) {
-                if (bo.isSet(Option.DEBUG)) {
-                    SwissKnife.reportThrowable(cnfe);
-                }
-                return false;
+        ClassInfo info;
+        try {
+            info = getClassInfo(subClassName);
+        } catch (ClassNotFoundException cnfe) {
+            if (bo.isSet(Option.DEBUG)) {
+                SwissKnife.reportThrowable(cnfe);
             }
+            return false;
+        }
 
-        } while (name != null);
+        for (String name : getSuperClassChain(info)) {
+            if (superClassName.equals(name)) {
+                return true;
+            }
+        }
 
         return false;
     }
@@ -241,7 +272,10 @@ public class ClassHierarchyImpl implements ClassHierarchy {
             assert AppContext.getContext() != null;
             Classpath cp = AppContext.getContext().getInputClasspath();
             if (cp != null) {
-                c = cp.findClassDescription(name);
+                // hierarchies of different sigfiles may be used concurrently
+                synchronized (cp) {
+                    c = cp.findClassDescription(name);
+                }
             } else {
                 throw new ClassNotFoundException(name);
             }
@@ -276,19 +310,37 @@ public class ClassHierarchyImpl implements ClassHierarchy {
     }
 
     public boolean isDocumentedAnnotation(String fqname) throws ClassNotFoundException {
+        return getAnnotationType(fqname).documented;
+    }
 
-        ClassInfo info = processedClasses.get(fqname);
-        if (info != null) {
-            return info.isDocumentedAnnotation;
+    public boolean isContainerAnnotation(String fqname) throws ClassNotFoundException {
+        return getAnnotationType(fqname).container;
+    }
+
+    /*
+     * Annotations of every compared member are checked against their types,
+     * so the properties of a type are found once and kept for the whole run.
+     */
+    private AnnotationType getAnnotationType(String fqname) throws ClassNotFoundException {
+
+        AnnotationType t = annotationTypes.get(fqname);
+        if (t == null) {
+            try {
+                ClassDescription c = load(fqname);
+                t = new AnnotationType(c.isDocumentedAnnotation(), isContainerAnnotation(c));
+            } catch (ClassNotFoundException e) {
+                t = AnnotationType.NOT_FOUND;
+            }
+            annotationTypes.put(fqname, t);
         }
 
-        ClassDescription c = load(fqname);
-        return c.isDocumentedAnnotation();
+        if (t == AnnotationType.NOT_FOUND) {
+            throw new ClassNotFoundException(fqname);
+        }
+        return t;
     }
 
-    public boolean isContainerAnnotation(String fqname) throws ClassNotFoundException {
-
-        ClassDescription c = load(fqname);
+    private boolean isContainerAnnotation(ClassDescription c) {
 
         try {
             if (c.hasModifier(Modifier.ANNOTATION)) {
@@ -449,9 +501,11 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         String[] superInterfaces = EMPTY_INTERFACES;
         String[] permittedSubClasses = new String[0];
         boolean accessable = false;
-        boolean isDocumentedAnnotation = false;
         int modifiers = 0;
         final boolean isVisibleOutside;
+        // all the superclasses, built on demand
+        String[] superClassChain = null;
+        boolean superClassChainComplete;
 
         public ClassInfo(ClassDescription c, boolean accessable, boolean visible) {
 
@@ -482,7 +536,19 @@ public class ClassHierarchyImpl implements ClassHierarchy {
 
             this.accessable = accessable;
             this.isVisibleOutside = visible;
-            this.isDocumentedAnnotation = c.isDocumentedAnnotation();
+        }
+    }
+
+    private static final class AnnotationType {
+
+        static final AnnotationType NOT_FOUND = new AnnotationType(false, false);
+        final boolean documented;
+        // a container of a repeatable annotation type
+        final boolean container;
+
+        AnnotationType(boolean documented, boolean container) {
+            this.documented = documented;
+            this.container = container;
         }
     }
 
@@ -491,6 +557,7 @@ public class ClassHierarchyImpl implements ClassHierarchy {
     }
 
     private final HashMap<String, ClassInfo> processedClasses = new HashMap<>();
+    private final Map<String, AnnotationType> annotationTypes = new HashMap<>();
     private final BaseOptions bo = AppContext.getContext().getBean(BaseOptions.class);
 
     class DefaultIsAccessibleFilter implements Filter {
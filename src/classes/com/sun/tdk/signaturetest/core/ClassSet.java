@@ -54,74 +54,82 @@ public class ClassSet {
         }
     }
 
-    private final ClassHierarchy hierarchy;
-    private final boolean trackDependeces;
-    private final Map<String, Object> classNamesInProcess = new HashMap<>();
-
-    public ClassSet(ClassHierarchy hierarchy, boolean trackDependeces) {
-        this.hierarchy = hierarchy;
-        this.trackDependeces = trackDependeces;
-    }
-
-    public void addClass(String fqname) {
-        addClass(fqname, true);
+    /**
+     * One class in a depth-first walk over the dependences. The names in
+     * {@link #names} are visited first, then {@link #process} updates the
+     * set, then the names it returns are visited.
+     */
+    private abstract static class Visit {
+
+        Iterator<String> names;
+        boolean processed;
+
+        /**
+         * Updates the set and returns the names to visit next, in order, or
+         * null.
+         */
+        abstract Iterator<String> process();
+
+        abstract Visit next(String fqname);
     }
 
-    private void addClass(String fqname, boolean externalCall) {
-
-        if (classNamesInProcess.get(fqname) != null) {
-            return;
-        }
+    private final class Adding extends Visit {
 
-        classNamesInProcess.put(fqname, null);
+        private final String fqname;
+        private final Counter counter;
+        private ClassDescription cl;
 
-        try {
-            Counter counter = classes.get(fqname);
+        Adding(String fqname, boolean externalCall) {
+            this.fqname = fqname;
+            counter = classes.get(fqname);
             try {
 
-                ClassDescription cl = hierarchy.load(fqname);
+                cl = hierarchy.load(fqname);
                 // acrobatic feat : ClassCorrector replaces invisible class
                 // with nearest visible subclass
                 // Note: this is a temporary solution!
                 if (!hierarchy.isAccessible(cl) && !externalCall) {
                     if (!cl.isInterface()) {
-                        addClass(cl.getSuperClass().getQualifiedName(), false);
+                        names = Collections.singleton(cl.getSuperClass().getQualifiedName()).iterator();
                     }
                 }
 
-                if (counter == null) {
-                    classes.put(fqname, new Counter(0));
+            } catch (ClassNotFoundException e) {
+                missingClasses.add(fqname);
+            }
+        }
 
-                    if (trackDependeces) {
-                        Set<String> dep = cl.getDependences();
-                        for (String o : dep) {
-                            addClass(o, false);
-                        }
-                    }
+        Iterator<String> process() {
+            if (cl == null) {
+                return null;
+            }
+            if (counter == null) {
+                classes.put(fqname, new Counter(0));
 
-                } else {
-                    counter.increment();
+                if (trackDependeces) {
+                    return cl.getDependences().iterator();
                 }
 
-            } catch (ClassNotFoundException e) {
-                missingClasses.add(fqname);
+            } else {
+                counter.increment();
             }
+            return null;
+        }
 
-        } finally {
-            classNamesInProcess.remove(fqname);
+        Visit next(String name) {
+            return new Adding(name, false);
         }
     }
 
-    public void removeClass(String fqname) {
+    private final class Removing extends Visit {
 
-        if (classNamesInProcess.get(fqname) != null) {
-            return;
-        }
+        private final String fqname;
 
-        classNamesInProcess.put(fqname, null);
-
-        try {
+        Removing(String fqname) {
+            this.fqname = fqname;
+        }
 
+        Iterator<String> process() {
             Counter counter = classes.get(fqname);
             if (counter != null) {
 
@@ -131,12 +139,7 @@ public class ClassSet {
 
                     try {
                         ClassDescription cl = hierarchy.load(fqname);
-
-                        Set<String> dep = cl.getDependences();
-                        for (String o : dep) {
-                            removeClass(o);
-                        }
-
+                        return cl.getDependences().iterator();
                     } catch (ClassNotFoundException e) {
                         assert missingClasses.contains(fqname);
                     }
@@ -145,14 +148,71 @@ public class ClassSet {
                     assert c > 0;
                     counter.decrement();
                 }
+            }
+            return null;
+        }
+
+        Visit next(String name) {
+            return new Removing(name);
+        }
+    }
+
+    private final ClassHierarchy hierarchy;
+    private final boolean trackDependeces;
+
+    public ClassSet(ClassHierarchy hierarchy, boolean trackDependeces) {
+        this.hierarchy = hierarchy;
+        this.trackDependeces = trackDependeces;
+    }
 
+    /**
+     * Adds the class with all the classes it depends on, counting the
+     * references to the classes already in the set.
+     */
+    public void addClass(String fqname) {
+        walk(new Adding(fqname, true));
+    }
+
+    public void addClasses(Collection<String> fqnames) {
+        for (String fqname : fqnames) {
+            walk(new Adding(fqname, true));
+        }
+    }
+
+    /**
+     * Removes a reference to the class. The class is removed when no
+     * references are left, which in turn removes the references it holds.
+     */
+    public void removeClass(String fqname) {
+        walk(new Removing(fqname));
+    }
+
+    public void removeClasses(Collection<String> fqnames) {
+        for (String fqname : fqnames) {
+            walk(new Removing(fqname));
+        }
+    }
+
+    /**
+     * Walks the dependences depth first, in the order of the former
+     * recursive calls. The walk stops at classes already added (or already
+     * removed), so cycles terminate; the explicit stack keeps deep
+     * dependency chains from overflowing the thread stack.
+     */
+    private static void walk(Visit first) {
+        Deque<Visit> stack = new ArrayDeque<>();
+        stack.push(first);
+        while (!stack.isEmpty()) {
+            Visit top = stack.peek();
+            if (top.names != null && top.names.hasNext()) {
+                stack.push(top.next(top.names.next()));
+            } else if (!top.processed) {
+                top.processed = true;
+                top.names = top.process();
             } else {
-                assert true;
+                stack.pop();
             }
-        } finally {
-            classNamesInProcess.remove(fqname);
         }
-
     }
 
     public Set<String> getClasses() {
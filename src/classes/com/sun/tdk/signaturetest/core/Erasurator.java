@@ -28,6 +28,7 @@ import com.sun.tdk.signaturetest.core.context.BaseOptions;
 import com.sun.tdk.signaturetest.core.context.Option;
 import com.sun.tdk.signaturetest.model.*;
 import com.sun.tdk.signaturetest.util.I18NResourceBundle;
+import com.sun.tdk.signaturetest.util.Stats;
 import com.sun.tdk.signaturetest.util.SwissKnife;
 
 import java.util.*;
@@ -61,10 +62,20 @@ public class Erasurator {
     private final Set<String> unresolvedWarnings = new HashSet<>();
     private static final I18NResourceBundle i18n = I18NResourceBundle.getBundleForClass(Erasurator.class);
     private final BaseOptions bo = AppContext.getContext().getBean(BaseOptions.class);
+    private final Stats stats = AppContext.getContext().getBean(Stats.class);
 
     private ClassDescription currentClass;
 
     public ClassDescription erasure(ClassDescription clz) {
+        Stats.Span span = stats.start(Stats.Phase.ERASURE);
+        try {
+            return doErasure(clz);
+        } finally {
+            span.end();
+        }
+    }
+
+    private ClassDescription doErasure(ClassDescription clz) {
 
         ClassDescription result = (ClassDescription) clz.clone();
 
@@ -342,15 +353,23 @@ public class Erasurator {
                 }
             }
 
-            if (!unresolvedWarnings.contains(param)) {
-                System.out.println(i18n.getString("Erasurator.error.unresolved", param));
-                unresolvedWarnings.add(param);
-            }
+            unresolved(param);
         }
 
         return newS;
     }
 
+    /**
+     * Reports a type parameter that could not be resolved. Each parameter
+     * is reported once per instance.
+     */
+    public void unresolved(String param) {
+        if (!unresolvedWarnings.contains(param)) {
+            System.out.println(i18n.getString("Erasurator.error.unresolved", param));
+            unresolvedWarnings.add(param);
+        }
+    }
+
     public void parseTypeParameters(ClassDescription classDescr) {
         if (classDescr.getTypeParameters() != null) {
             parseTypeParameters(classDescr, globalParameters);
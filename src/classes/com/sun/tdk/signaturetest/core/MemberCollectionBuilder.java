@@ -28,6 +28,7 @@ import com.sun.tdk.signaturetest.model.*;
 import com.sun.tdk.signaturetest.plugin.PluginAPI;
 import com.sun.tdk.signaturetest.plugin.Transformer;
 import com.sun.tdk.signaturetest.util.I18NResourceBundle;
+import com.sun.tdk.signaturetest.util.Stats;
 
 import java.util.*;
 
@@ -50,6 +51,7 @@ public class MemberCollectionBuilder {
     private final Erasurator erasurator = new Erasurator();
     private final Transformer defaultTransformer = new DefaultAfterBuildMembersTransformer();
     private final Log log;
+    private final Stats stats = AppContext.getContext().getBean(Stats.class);
     private static final I18NResourceBundle i18n = I18NResourceBundle.getBundleForClass(MemberCollectionBuilder.class);
     private BuildMode mode = BuildMode.NORMAL;
     private ClassHierarchy secondCH;
@@ -75,6 +77,15 @@ public class MemberCollectionBuilder {
      * @see MemberDescription
      */
     public void createMembers(ClassDescription cl, boolean addInherited, boolean fixClass, boolean checkHidding) throws ClassNotFoundException {
+        Stats.Span span = stats.start(Stats.Phase.MEMBER_BUILD);
+        try {
+            doCreateMembers(cl, addInherited, fixClass, checkHidding);
+        } finally {
+            span.end();
+        }
+    }
+
+    private void doCreateMembers(ClassDescription cl, boolean addInherited, boolean fixClass, boolean checkHidding) throws ClassNotFoundException {
 
         MemberCollection members = getMembers(cl, addInherited, checkHidding);
 
@@ -28,8 +28,10 @@ import com.sun.tdk.signaturetest.model.ClassDescription;
 import com.sun.tdk.signaturetest.model.MemberDescription;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Normalize the throws list completely for 'src' mode
@@ -46,114 +48,153 @@ public class ThrowsNormalizer {
 
     public void normThrows(ClassDescription c, boolean removeJLE, boolean allowMissingTh) throws ClassNotFoundException {
         ClassHierarchy h = c.getClassHierarchy();
+        Map<String, String> normalized = getNormalized(h, removeJLE, allowMissingTh);
 
         for (Iterator<MemberDescription> e = c.getMembersIterator(); e.hasNext(); ) {
             MemberDescription mr = e.next();
             if (mr.isMethod() || mr.isConstructor()) {
-                normThrows(h, mr, removeJLE, allowMissingTh);
+                String throwables = mr.getThrowables();
+                if (throwables.isEmpty()) {
+                    continue;
+                }
+                // the same throws lists repeat over the members of all the classes
+                String result = normalized.get(throwables);
+                if (result == null) {
+                    result = normThrows(h, throwables, removeJLE, allowMissingTh);
+                    normalized.put(throwables, result);
+                }
+                if (result != throwables) {
+                    mr.setThrowables(result);
+                }
+            }
+        }
+    }
+
+    private Map<String, String> getNormalized(ClassHierarchy h, boolean removeJLE, boolean allowMissingTh) {
+        for (Cache c : caches) {
+            if (c.hierarchy == h && c.removeJLE == removeJLE && c.allowMissingTh == allowMissingTh) {
+                return c.normalized;
             }
         }
+        Cache c = new Cache(h, removeJLE, allowMissingTh);
+        caches.add(c);
+        return c.normalized;
     }
 
     private static boolean checkException(ClassHierarchy h, String candidate, String matchedException) throws ClassNotFoundException {
         return candidate.equals(matchedException) || h.isSubclass(candidate, matchedException);
     }
 
-    private void normThrows(ClassHierarchy h, MemberDescription mr, boolean removeJLE, boolean allowMissingTh) throws ClassNotFoundException {
-        assert mr.isMethod() || mr.isConstructor();
+    /**
+     * Returns the normalized throws list, or the given one if nothing is
+     * removed from it.
+     */
+    private String normThrows(ClassHierarchy h, String throwables, boolean removeJLE, boolean allowMissingTh) throws ClassNotFoundException {
+        xthrows.clear();
+
+        {
+            int startPos = 0, pos;
+            do {
+                pos = throwables.indexOf(MemberDescription.THROWS_DELIMITER, startPos);
+                if (pos != -1) {
+                    xthrows.add(throwables.substring(startPos, pos));
+                    startPos = pos + 1;
+                } else {
+                    xthrows.add(throwables.substring(startPos));
+                }
 
-        String throwables = mr.getThrowables();
+            } while (pos != -1);
+        }
 
-        if (!throwables.isEmpty()) {
+        int superfluousExceptionCount = 0;
 
-            xthrows.clear();
+        //  Scan over all throws ...
+        for (int i = 0; i < xthrows.size(); i++) {
+            String s = xthrows.get(i);
 
-            {
-                int startPos = 0, pos;
-                do {
-                    pos = throwables.indexOf(MemberDescription.THROWS_DELIMITER, startPos);
-                    if (pos != -1) {
-                        xthrows.add(throwables.substring(startPos, pos));
-                        startPos = pos + 1;
-                    } else {
-                        xthrows.add(throwables.substring(startPos));
-                    }
+            if (s == null) {
+                continue;
+            }
 
-                } while (pos != -1);
+            if (s.charAt(0) != '{' /* if not generic */ && allowMissingTh) {
+                try {
+                    h.getSuperClasses(s);
+                } catch (ClassNotFoundException cnfe) {
+                    xthrows.set(i, null);
+                    superfluousExceptionCount++;
+                    continue;
+                }
             }
 
-            int superfluousExceptionCount = 0;
+            if (s.charAt(0) != '{' /* if not generic */) {
 
-            //  Scan over all throws ...
-            for (int i = 0; i < xthrows.size(); i++) {
-                String s = xthrows.get(i);
+                if (checkException(h, s, "java.lang.RuntimeException")
+                        || (removeJLE && checkException(h, s, "java.lang.Error"))) {
+                    xthrows.set(i, null);
+                    superfluousExceptionCount++;
+                } else {
+                    for (int k = i + 1; k < xthrows.size(); ++k) {
+                        String anotherThrowable = xthrows.get(k);
 
-                if (s == null) {
-                    continue;
-                }
+                        if (anotherThrowable == null) {
+                            continue;
+                        }
 
-                if (s.charAt(0) != '{' /* if not generic */ && allowMissingTh) {
-                    try {
-                        h.getSuperClasses(s);
-                    } catch (ClassNotFoundException cnfe) {
-                        xthrows.set(i, null);
-                        superfluousExceptionCount++;
-                        continue;
-                    }
-                }
+                        if (checkException(h, s, anotherThrowable)) {
+                            xthrows.set(i, null);
+                            superfluousExceptionCount++;
+                            break;
+                        }
 
-                if (s.charAt(0) != '{' /* if not generic */) {
-
-                    if (checkException(h, s, "java.lang.RuntimeException")
-                            || (removeJLE && checkException(h, s, "java.lang.Error"))) {
-                        xthrows.set(i, null);
-                        superfluousExceptionCount++;
-                    } else {
-                        for (int k = i + 1; k < xthrows.size(); ++k) {
-                            String anotherThrowable = xthrows.get(k);
-
-                            if (anotherThrowable == null) {
-                                continue;
-                            }
-
-                            if (checkException(h, s, anotherThrowable)) {
-                                xthrows.set(i, null);
-                                superfluousExceptionCount++;
-                                break;
-                            }
-
-                            if (checkException(h, anotherThrowable, s)) {
-                                xthrows.set(k, null);
-                                superfluousExceptionCount++;
-                            }
+                        if (checkException(h, anotherThrowable, s)) {
+                            xthrows.set(k, null);
+                            superfluousExceptionCount++;
                         }
                     }
                 }
             }
+        }
 
-            //  Should the throws list be updated ?
-            if (superfluousExceptionCount != 0) {
-                int count = 0;
-                sb.setLength(0);
+        //  Should the throws list be updated ?
+        if (superfluousExceptionCount != 0) {
+            int count = 0;
+            sb.setLength(0);
 
-                for (String s : xthrows) {
-                    if (s != null) {
-                        if (count++ != 0) {
-                            sb.append(MemberDescription.THROWS_DELIMITER);
-                        }
-                        sb.append(s);
+            for (String s : xthrows) {
+                if (s != null) {
+                    if (count++ != 0) {
+                        sb.append(MemberDescription.THROWS_DELIMITER);
                     }
+                    sb.append(s);
                 }
+            }
 
-                if (count == 0) {
-                    mr.setThrowables(MemberDescription.EMPTY_THROW_LIST);
-                } else {
-                    mr.setThrowables(sb.toString());
-                }
+            if (count == 0) {
+                return MemberDescription.EMPTY_THROW_LIST;
+            } else {
+                return sb.toString();
             }
         }
+        return throwables;
     }
 
     private final List<String> xthrows = new ArrayList<>();
     private final StringBuffer sb = new StringBuffer();
+    private final List<Cache> caches = new ArrayList<>();
+
+    // normalized throws lists by the original ones, the result depends on
+    // the class hierarchy and on the mode
+    private static final class Cache {
+
+        final ClassHierarchy hierarchy;
+        final boolean removeJLE;
+        final boolean allowMissingTh;
+        final Map<String, String> normalized = new HashMap<>();
+
+        Cache(ClassHierarchy hierarchy, boolean removeJLE, boolean allowMissingTh) {
+            this.hierarchy = hierarchy;
+            this.removeJLE = removeJLE;
+            this.allowMissingTh = allowMissingTh;
+        }
+    }
 }
@@ -51,6 +51,9 @@ public enum Option {
     WRITE("-Write", Kind.SINGLE_OPT), // merge's
     BINARY("-Binary", Kind.NONE),  // merge's
     VERSION("-Version", "-V", Kind.INSTEAD_OF_ANY),
+    STATS("-Stats", Kind.NONE),
+    STATS_FILE("-StatsFile", Kind.SINGLE_OPT),
+    THREADS("-Threads", Kind.SINGLE_OPT),
 
     // APICOV
     API("-api", Kind.SINGLE_OPT),
@@ -81,6 +84,8 @@ public enum Option {
     FORMATHUMAN("-FormatHuman", "-H", Kind.NONE),
     BACKWARD("-Backward", "-B", Kind.NONE),
     CHECK_EXCESS_CLASSES_ONLY("-ExcessOnly", "-EO", Kind.NONE),
+    REMOTE("-Remote", Kind.SINGLE_OPT),
+    REMOTE_PREFETCH("-RemotePrefetch", Kind.NONE),
 
     MODULES("-modules", Kind.SINGLE_OPT),
 
@@ -34,7 +34,7 @@ import java.util.EnumSet;
  */
 public class TestOptions extends Options {
     private final EnumSet<Option> options = EnumSet.of(Option.FORMATPLAIN, Option.FORMATHUMAN,
-            Option.BACKWARD, Option.CHECK_EXCESS_CLASSES_ONLY);
+            Option.BACKWARD, Option.CHECK_EXCESS_CLASSES_ONLY, Option.REMOTE, Option.REMOTE_PREFETCH);
 
     @Override
     public EnumSet<Option> getOptions() {
@@ -93,6 +93,14 @@ public class ErrorFormatter {
     public void printErrors() {
     }
 
+    /**
+     * Notify that all the messages about the class being checked have been
+     * added. This method is dummy, however subclasses buffering the messages
+     * could overload it to process them class by class.
+     */
+    public void classChecked() {
+    }
+
     /**
      * Return number of found errors.
      */
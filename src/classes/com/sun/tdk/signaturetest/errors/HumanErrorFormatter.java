@@ -67,6 +67,10 @@ public class HumanErrorFormatter extends SortedErrorFormatter {
         int length = failedMessages.size();
         Chain ch = new Chain(failedMessages);
 
+        // the handlers keep no state between the groups, so the chain is
+        // built once
+        Handler h = constructHandlerChain();
+
         for (int i = 0; i < length; i++) {
             Message e1 = failedMessages.get(i);
             if (e1 == null) {
@@ -86,8 +90,6 @@ public class HumanErrorFormatter extends SortedErrorFormatter {
 
             List<Message> currentGroup = failedMessages.subList(i, j + 1);
 
-            Handler h = constructHandlerChain();
-
             h.process(currentGroup, ch);
 
             i = j;
@@ -34,9 +34,11 @@ import com.sun.tdk.signaturetest.core.context.Option;
 import com.sun.tdk.signaturetest.model.*;
 import com.sun.tdk.signaturetest.util.I18NResourceBundle;
 import com.sun.tdk.signaturetest.util.LRUCache;
+import com.sun.tdk.signaturetest.util.Stats;
 import com.sun.tdk.signaturetest.util.SwissKnife;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.util.*;
 
 /**
@@ -51,6 +53,7 @@ import java.util.*;
 public class BinaryClassDescrLoader implements ClassDescriptionLoader, LoadingHints {
 
     private final BaseOptions bo = AppContext.getContext().getBean(BaseOptions.class);
+    private final Stats stats = AppContext.getContext().getBean(Stats.class);
 
     private static class BinaryClassDescription extends ClassDescription implements AutoCloseable {
 
@@ -61,7 +64,7 @@ public class BinaryClassDescrLoader implements ClassDescriptionLoader, LoadingHi
                 sigfields,
                 sigmethods;
 
-        private void readCP(DataInput classData) throws IOException {
+        private void readCP(ClassData classData) throws IOException {
             int n = classData.readUnsignedShort();
             constants = new Constant[n];
             constants[0] = null;
@@ -193,7 +196,7 @@ public class BinaryClassDescrLoader implements ClassDescriptionLoader, LoadingHi
 
     private boolean ignoreAnnotations = false;
     /**
-     * findByName and open class files as InputStream.
+     * findByName and read class files.
      */
     private final Classpath classpath;
     /**
@@ -232,8 +235,10 @@ public class BinaryClassDescrLoader implements ClassDescriptionLoader, LoadingHi
         BinaryClassDescription c = cache.get(className);
 
         if (c != null) {
+            stats.inc(Stats.Counter.CACHE_HITS);
             return c;
         }
+        stats.inc(Stats.Counter.CACHE_MISSES);
 
         // check recursive call
         c = stack.get(className);
@@ -242,28 +247,28 @@ public class BinaryClassDescrLoader implements ClassDescriptionLoader, LoadingHi
         }
 
         // load class if the cache does not contains required class.
-        InputStream is = null;
+        Stats.Span span = stats.start(Stats.Phase.CLASS_LOAD);
         try {
             c = new BinaryClassDescription();
 
             stack.put(className, c);
-            is = classpath.findClass(className);
-            readClass(c, is, className);
+            ByteBuffer buf = classpath.findClassBytes(className);
+            stats.add(Stats.Counter.BYTES_READ, buf.remaining());
+            readClass(c, buf, className);
             cache.put(className, c);
+            stats.inc(Stats.Counter.CLASSES_LOADED);
         } catch (IOException e) {
             if (bo.isSet(Option.DEBUG)) {
                 SwissKnife.reportThrowable(e);
             }
+            stats.inc(Stats.Counter.CONTROL_FLOW_EXCEPTIONS);
             throw new ClassNotFoundException(className);
+        } catch (ClassNotFoundException e) {
+            stats.inc(Stats.Counter.CONTROL_FLOW_EXCEPTIONS);
+            throw e;
         } finally {
             stack.remove(className);
-            if (is != null) {
-                try {
-                    is.close();
-                } catch (IOException ex) {
-                    ex.printStackTrace();
-                }
-            }
+            span.end();
         }
         return c;
     }
@@ -326,7 +331,7 @@ public class BinaryClassDescrLoader implements ClassDescriptionLoader, LoadingHi
             return (String) info;
         }
 
-        void read(DataInput classData) throws IOException {
+        void read(ClassData classData) throws IOException {
             tag = classData.readByte();
             switch (tag) {
                 case CONSTANT_Class:
@@ -416,9 +421,9 @@ public class BinaryClassDescrLoader implements ClassDescriptionLoader, LoadingHi
         }
     }
 
-    private void readClass(BinaryClassDescription c, InputStream is, String className) {
-        try(DataInputStream classData = new DataInputStream(is)) {
-            readClass(c, classData);
+    private void readClass(BinaryClassDescription c, ByteBuffer buf, String className) {
+        try {
+            readClass(c, new ClassData(buf));
         } catch (Throwable t) {
             System.err.println(i18n.getString("BinaryClassDescrLoader.error.classname", className));
             SwissKnife.reportThrowable(t);
@@ -427,7 +432,7 @@ public class BinaryClassDescrLoader implements ClassDescriptionLoader, LoadingHi
         }
     }
 
-    private void readClass(BinaryClassDescription c, DataInput classData) throws IOException {
+    private void readClass(BinaryClassDescription c, ClassData classData) throws IOException {
 
         int magic = classData.readInt();
         if (magic != MAGIC) {
@@ -559,8 +564,8 @@ public class BinaryClassDescrLoader implements ClassDescriptionLoader, LoadingHi
         List<MemberDescription> result;
         try {
             BinaryClassDescription c = new BinaryClassDescription();
-            try (DataInputStream classData = new DataInputStream(classpath.findClass(name))) {
-                readClass(c, classData);
+            try {
+                readClass(c, new ClassData(classpath.findClassBytes(name)));
                 result = c.getMethodRefs();
             } finally {
                 c.cleanup();
@@ -637,7 +642,7 @@ public class BinaryClassDescrLoader implements ClassDescriptionLoader, LoadingHi
     }
 
     //  Process fields
-    private void readFields(BinaryClassDescription c, DataInput classData) throws IOException {
+    private void readFields(BinaryClassDescription c, ClassData classData) throws IOException {
 
         int n = classData.readUnsignedShort();
 
@@ -728,7 +733,7 @@ public class BinaryClassDescrLoader implements ClassDescriptionLoader, LoadingHi
     //  Process methods and constructors
     private static final String[] EMPTY_STRING_ARRAY = new String[0];
 
-    private void readMethods(BinaryClassDescription c, DataInput classData) throws IOException {
+    private void readMethods(BinaryClassDescription c, ClassData classData) throws IOException {
         List<MemberDescription> ctors = new ArrayList<>(),
                 mthds = new ArrayList<>();
 
@@ -964,14 +969,14 @@ public class BinaryClassDescrLoader implements ClassDescriptionLoader, LoadingHi
     //
     private abstract class AttrsIter {
 
-        DataInputStream is;
+        ClassData is;
         boolean synthetic = false,
                 deprecated = false;
         String signature = null;
         List<AnnotationItem> annolist = null;
         Object annodef = null;
 
-        void read(BinaryClassDescription c, DataInput classData) throws IOException {
+        void read(BinaryClassDescription c, ClassData classData) throws IOException {
             int n = classData.readUnsignedShort();
 
             for (int i = 0; i < n; i++) {
@@ -979,9 +984,7 @@ public class BinaryClassDescrLoader implements ClassDescriptionLoader, LoadingHi
                 int count = classData.readInt();
 
                 if (count != 0) {
-                    byte[] info = new byte[count];
-                    classData.readFully(info);
-                    is = new DataInputStream(new ByteArrayInputStream(info));
+                    is = classData.slice(count);
                 }
 
                 if ("Synthetic".equals(name)) {
@@ -1018,12 +1021,6 @@ public class BinaryClassDescrLoader implements ClassDescriptionLoader, LoadingHi
                     check(c, name);
                 }
 
-                if (count != 0) {
-                    try {
-                        is.close();
-                    } catch (IOException x) {
-                    }
-                }
             }
         }
 
@@ -1083,7 +1080,7 @@ public class BinaryClassDescrLoader implements ClassDescriptionLoader, LoadingHi
             AnnotationItem anno;
             if (isExtended) {
                 AnnotationItemEx annox = new AnnotationItemEx(target);
-                annox.parseBinaryDescription(is);
+                annox.parseBinaryDescription(new DataInputStream(is.asStream()));
                 anno = annox;
             } else {
                 anno = new AnnotationItem(target);
@@ -1093,14 +1090,28 @@ public class BinaryClassDescrLoader implements ClassDescriptionLoader, LoadingHi
             name = getArgs(name);
             // convert from VM Ljavasoft/sqe/tests/lang/annot103/annot10301m0438/Simple;
             // to javasoft.sqe.tests.lang.annot103.annot10301m0438.Simple
-            anno.setName(name);
             int k = is.readUnsignedShort();
+
+            // marker annotations like @Deprecated depend on the annotation
+            // type only, one instance is shared by all the annotated members
+            boolean marker = !isExtended && target == 0 && k == 0;
+            if (marker) {
+                AnnotationItem shared = markerAnnotations.get(name);
+                if (shared != null) {
+                    return shared;
+                }
+            }
+
+            anno.setName(name);
             for (int j = 0; j < k; j++) {
                 anno.addMember(new AnnotationItem.Member(c.getName(is.readUnsignedShort()),
                         read_member_value(c)));
             }
 
             completeAnnotation(anno);
+            if (marker) {
+                markerAnnotations.put(name, anno);
+            }
             return anno;
         }
 
@@ -1572,4 +1583,5 @@ public class BinaryClassDescrLoader implements ClassDescriptionLoader, LoadingHi
 
     private PrintWriter log;
     private final Set<String> notFoundAnnotations = new HashSet<>();
+    private final Map<String, AnnotationItem> markerAnnotations = new HashMap<>();
 }
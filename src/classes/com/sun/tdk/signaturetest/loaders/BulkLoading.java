@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.tdk.signaturetest.loaders;
+
+import java.util.Collection;
+
+/**
+ * This is optional interface which ClassDescriptionLoader can implement.
+ * Allows to build the descriptions of classes which are going to be loaded
+ * ahead of time, using several threads.
+ */
+public interface BulkLoading {
+
+    /**
+     * Builds and keeps the descriptions of the given classes, so that
+     * following {@code load} calls for them don't have to. Classes which
+     * can't be loaded are skipped here; the error is reported when such a
+     * class is loaded.
+     *
+     * @param names   qualified names of the classes, in the order they are
+     *                going to be loaded
+     * @param threads number of threads to use
+     */
+    void preload(Collection<String> names, int threads);
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.tdk.signaturetest.loaders;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads a class file from a buffer. Attributes are read from slices of the
+ * same buffer, so the bytes of a class are never copied. As with a
+ * {@link DataInputStream}, reading past the end throws
+ * {@link EOFException}.
+ */
+final class ClassData {
+
+    private final ByteBuffer buf;
+
+    ClassData(ByteBuffer buf) {
+        this.buf = buf;
+    }
+
+    /**
+     * Returns the next {@code count} bytes as a separate input and skips
+     * them in this one.
+     */
+    ClassData slice(int count) throws IOException {
+        need(count);
+        ByteBuffer b = buf.slice();
+        b.limit(count);
+        buf.position(buf.position() + count);
+        return new ClassData(b);
+    }
+
+    /**
+     * Returns a stream reading this input from its current position. The
+     * stream has no buffer of its own, bytes read from it are consumed from
+     * this input.
+     */
+    InputStream asStream() {
+        return new InputStream() {
+            public int read() {
+                return buf.hasRemaining() ? buf.get() & 0xFF : -1;
+            }
+
+            public int read(byte[] b, int off, int len) {
+                if (len == 0) {
+                    return 0;
+                }
+                if (!buf.hasRemaining()) {
+                    return -1;
+                }
+                int n = Math.min(len, buf.remaining());
+                buf.get(b, off, n);
+                return n;
+            }
+        };
+    }
+
+    private void need(int n) throws EOFException {
+        if (buf.remaining() < n) {
+            throw new EOFException();
+        }
+    }
+
+    public void readFully(byte[] b) throws IOException {
+        readFully(b, 0, b.length);
+    }
+
+    public void readFully(byte[] b, int off, int len) throws IOException {
+        need(len);
+        buf.get(b, off, len);
+    }
+
+    public int skipBytes(int n) {
+        int k = Math.max(0, Math.min(n, buf.remaining()));
+        buf.position(buf.position() + k);
+        return k;
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    public byte readByte() throws IOException {
+        need(1);
+        return buf.get();
+    }
+
+    public int readUnsignedByte() throws IOException {
+        return readByte() & 0xFF;
+    }
+
+    public short readShort() throws IOException {
+        need(2);
+        return buf.getShort();
+    }
+
+    public int readUnsignedShort() throws IOException {
+        return readShort() & 0xFFFF;
+    }
+
+    public char readChar() throws IOException {
+        need(2);
+        return buf.getChar();
+    }
+
+    public int readInt() throws IOException {
+        need(4);
+        return buf.getInt();
+    }
+
+    public long readLong() throws IOException {
+        need(8);
+        return buf.getLong();
+    }
+
+    public float readFloat() throws IOException {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    public double readDouble() throws IOException {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    /**
+     * Reads a string in modified UTF-8. ASCII strings, the most common in
+     * class files, are decoded in place, others by {@link #decodeUTF}.
+     */
+    public String readUTF() throws IOException {
+        int len = readUnsignedShort();
+        need(len);
+        int pos = buf.position();
+        char[] chars = new char[len];
+        for (int i = 0; i < len; i++) {
+            byte b = buf.get(pos + i);
+            if (b < 0) {
+                return decodeUTF(chars, i, pos + len);
+            }
+            chars[i] = (char) b;
+        }
+        buf.position(pos + len);
+        return new String(chars);
+    }
+
+    /*
+     * Decodes the rest of a modified UTF-8 string ending at {@code end},
+     * {@code count} chars are already in {@code chars}. Malformed input is
+     * reported as by {@link DataInputStream#readUTF()}.
+     */
+    private String decodeUTF(char[] chars, int count, int end) throws UTFDataFormatException {
+        int pos = buf.position() + count;
+        while (pos < end) {
+            int c = buf.get(pos++) & 0xFF;
+            switch (c >> 4) {
+                case 0: case 1: case 2: case 3: case 4: case 5: case 6: case 7:
+                    chars[count++] = (char) c;
+                    break;
+                case 12: case 13:
+                    if (pos + 1 > end) {
+                        throw new UTFDataFormatException("malformed input: partial character at end");
+                    }
+                    chars[count++] = (char) (((c & 0x1F) << 6) | continuation(pos++));
+                    break;
+                case 14:
+                    if (pos + 2 > end) {
+                        throw new UTFDataFormatException("malformed input: partial character at end");
+                    }
+                    chars[count++] = (char) (((c & 0x0F) << 12) | (continuation(pos) << 6) | continuation(pos + 1));
+                    pos += 2;
+                    break;
+                default:
+                    throw new UTFDataFormatException("malformed input around byte " + (pos - 1 - buf.position()));
+            }
+        }
+        buf.position(end);
+        return new String(chars, 0, count);
+    }
+
+    private int continuation(int pos) throws UTFDataFormatException {
+        int b = buf.get(pos);
+        if ((b & 0xC0) != 0x80) {
+            throw new UTFDataFormatException("malformed input around byte " + (pos - buf.position()));
+        }
+        return b & 0x3F;
+    }
+}
@@ -25,6 +25,7 @@
 package com.sun.tdk.signaturetest.loaders;
 
 import com.sun.tdk.signaturetest.model.ClassDescription;
+import com.sun.tdk.signaturetest.model.MemberDescription;
 import com.sun.tdk.signaturetest.model.PermittedSubClass;
 
 /**
@@ -34,6 +35,29 @@ import com.sun.tdk.signaturetest.model.PermittedSubClass;
  */
 class CommonLoaderHelper {
 
+    /**
+     * Held while a loader reads the value of a static field, because that
+     * may run static initializers. Descriptions built concurrently by
+     * {@link DescriptionCache#preload} thus never initialize classes in two
+     * threads at once, which could deadlock.
+     */
+    static final Object INIT_LOCK = new Object();
+
+    private static final ClassValue<String> TYPE_NAMES = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            return MemberDescription.getTypeName(type);
+        }
+    };
+
+    /**
+     * Same as {@link MemberDescription#getTypeName(Class)}, but computed once
+     * per class.
+     */
+    static String getTypeName(Class<?> c) {
+        return TYPE_NAMES.get(c);
+    }
+
     /**
      * Reads typenames from permits clause of a sealed class (classObject) and writes down fully qualified names to
      * ClassDescription object cd
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.tdk.signaturetest.loaders;
+
+import com.sun.tdk.signaturetest.core.AppContext;
+import com.sun.tdk.signaturetest.model.ClassDescription;
+import com.sun.tdk.signaturetest.util.LRUCache;
+import com.sun.tdk.signaturetest.util.Parallel;
+import com.sun.tdk.signaturetest.util.Stats;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Cache of the class descriptions built by a reflection loader. Like the
+ * cache of {@link BinaryClassDescrLoader} it keeps up to the given number of
+ * the recently used classes, so the supertypes requested again and again by
+ * the class hierarchy are described only once.
+ */
+abstract class DescriptionCache {
+
+    private final LRUCache<String, ClassDescription> cache;
+    private final int size;
+    private final Stats stats = AppContext.getContext().getBean(Stats.class);
+
+    DescriptionCache(int size) {
+        this.size = size;
+        cache = new LRUCache<>(size);
+    }
+
+    /**
+     * Builds the description of the given class.
+     */
+    abstract ClassDescription build(String name) throws ClassNotFoundException;
+
+    ClassDescription load(String name) throws ClassNotFoundException {
+        ClassDescription c = get(name);
+        if (c != null) {
+            stats.inc(Stats.Counter.CACHE_HITS);
+            return c;
+        }
+        stats.inc(Stats.Counter.CACHE_MISSES);
+
+        Stats.Span span = stats.start(Stats.Phase.CLASS_LOAD);
+        try {
+            c = build(name);
+        } finally {
+            span.end();
+        }
+        put(name, c);
+        stats.inc(Stats.Counter.CLASSES_LOADED);
+        return c;
+    }
+
+    synchronized ClassDescription get(String name) {
+        return cache.get(name);
+    }
+
+    synchronized void put(String name, ClassDescription c) {
+        cache.put(name, c);
+    }
+
+    /**
+     * @see BulkLoading#preload
+     */
+    void preload(Collection<String> names, int threads) {
+        if (threads <= 1) {
+            // the classes would be described on this thread anyway
+            return;
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (final String name : names) {
+            // classes beyond the cache size would push out the first ones
+            if (tasks.size() == size) {
+                break;
+            }
+            if (get(name) != null) {
+                continue;
+            }
+            tasks.add(new Callable<Void>() {
+                public Void call() {
+                    try {
+                        put(name, build(name));
+                        stats.inc(Stats.Counter.CLASSES_LOADED);
+                    } catch (ClassNotFoundException | RuntimeException | Error e) {
+                        // reported when the class is loaded
+                    }
+                    return null;
+                }
+            });
+        }
+        Parallel.invokeAll(threads, tasks);
+    }
+}
@@ -26,4 +26,11 @@
 package com.sun.tdk.signaturetest.loaders;
 
 public class J8RefLoader extends TigerRefgClassDescrLoader {
+
+    public J8RefLoader() {
+    }
+
+    public J8RefLoader(Integer bufferSize) {
+        super(bufferSize);
+    }
 }
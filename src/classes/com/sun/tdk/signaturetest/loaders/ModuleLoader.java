@@ -61,6 +61,12 @@ public class ModuleLoader implements ModuleDescriptionLoader {
                     rmd.setVersion(vo.get().toString());
                 }
 
+                // main class
+                Optional<String> mco = md.mainClass();
+                if (mco.isPresent()) {
+                    rmd.setMainClass(mco.get());
+                }
+
                 // 3. packages
                 rmd.setPackages(new LinkedHashSet<>(md.packages()));
 
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.tdk.signaturetest.loaders;
+
+import com.sun.tdk.signaturetest.core.ClassDescriptionLoader;
+import com.sun.tdk.signaturetest.model.ClassDescription;
+import com.sun.tdk.signaturetest.model.ClassDescriptionCodec;
+import com.sun.tdk.signaturetest.model.InnerDescr;
+import com.sun.tdk.signaturetest.model.MemberDescription;
+import com.sun.tdk.signaturetest.model.SuperClass;
+import com.sun.tdk.signaturetest.model.SuperInterface;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads class descriptions made in another virtual machine, usually by
+ * {@link com.sun.tdk.signaturetest.remote.RemoteLoadManager} on a device.
+ * Requests are sent through a {@link Connection}. Each class is requested
+ * once; {@link #preload} fetches the given classes and then their
+ * supertypes in as few requests as possible, and {@link #preloadPackages}
+ * fetches all the classes of the given packages up front.
+ *
+ * @see ClassDescriptionCodec
+ */
+public class RemoteClassDescrLoader implements ClassDescriptionLoader, BulkLoading {
+
+    /**
+     * Carries a request to the remote side and returns the response.
+     */
+    public interface Connection {
+
+        byte[] send(byte[] request) throws IOException;
+    }
+
+    public static final int DEFAULT_BATCH_SIZE = 512;
+    private static final int BUFSIZE = 0x10000;
+
+    private final Connection connection;
+    private final int batchSize;
+    /**
+     * Received descriptions, or the exceptions to throw for classes which
+     * could not be loaded.
+     */
+    private final Map<String, Object> classes = new HashMap<>();
+
+    public RemoteClassDescrLoader(Connection connection) {
+        this(connection, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param batchSize maximal number of classes per request
+     */
+    public RemoteClassDescrLoader(Connection connection, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize " + batchSize);
+        }
+        this.connection = connection;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Returns a connection which answers the requests in this virtual machine
+     * using the given loader, the same way the remote side does.
+     */
+    public static Connection local(ClassDescriptionLoader loader) {
+        return local(loader, null);
+    }
+
+    /**
+     * Same as {@link #local(ClassDescriptionLoader)}, the classes of the
+     * requested packages are found by {@code lister}.
+     */
+    public static Connection local(final ClassDescriptionLoader loader, final ClassDescriptionCodec.PackageLister lister) {
+        return new Connection() {
+            public byte[] send(byte[] request) throws IOException {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ClassDescriptionCodec.answer(loader, lister, new ByteArrayInputStream(request), out);
+                return out.toByteArray();
+            }
+        };
+    }
+
+    /**
+     * Returns a connection which sends each request to
+     * {@link com.sun.tdk.signaturetest.remote.RemoteLoadManager} listening
+     * on the given port, in a connection of its own.
+     */
+    public static Connection connect(final String host, final int port) {
+        return new Connection() {
+            public byte[] send(byte[] request) throws IOException {
+                try (Socket s = new Socket(host, port)) {
+                    OutputStream out = s.getOutputStream();
+                    out.write(request);
+                    out.flush();
+
+                    InputStream in = s.getInputStream();
+                    ByteArrayOutputStream response = new ByteArrayOutputStream();
+                    byte[] buf = new byte[BUFSIZE];
+                    int n;
+                    while ((n = in.read(buf)) >= 0) {
+                        response.write(buf, 0, n);
+                    }
+                    return response.toByteArray();
+                }
+            }
+        };
+    }
+
+    public ClassDescription load(String name) throws ClassNotFoundException {
+        Object c = classes.get(name);
+        if (c == null) {
+            try {
+                fetch(Collections.singletonList(name));
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+            c = classes.get(name);
+        }
+        if (c instanceof ClassDescription) {
+            return (ClassDescription) c;
+        } else if (c instanceof ClassNotFoundException) {
+            throw new ClassNotFoundException(name, (Throwable) c);
+        } else if (c instanceof LinkageError) {
+            throw new LinkageError(((Throwable) c).getMessage());
+        } else if (c instanceof RuntimeException) {
+            throw new RuntimeException(((Throwable) c).getMessage());
+        }
+        throw new ClassNotFoundException(name);
+    }
+
+    /**
+     * Fetches the given classes, then the classes the fetched ones refer to,
+     * round after round. The classes are described by the
+     * remote side, so {@code threads} is not used.
+     */
+    public void preload(Collection<String> names, int threads) {
+        Set<String> seen = new HashSet<>();
+        Set<String> next = new LinkedHashSet<>(names);
+        while (!next.isEmpty()) {
+            List<String> round = new ArrayList<>(next.size());
+            for (String name : next) {
+                if (!classes.containsKey(name)) {
+                    round.add(name);
+                }
+            }
+            try {
+                fetch(round);
+            } catch (IOException e) {
+                // reported when the classes are loaded
+                return;
+            }
+
+            seen.addAll(next);
+            Set<String> current = next;
+            next = new LinkedHashSet<>();
+            for (String name : current) {
+                Object o = classes.get(name);
+                if (o instanceof ClassDescription) {
+                    addReferences((ClassDescription) o, next);
+                }
+            }
+            next.removeAll(seen);
+        }
+    }
+
+    /**
+     * Fetches all the classes the remote side finds in the given packages in
+     * one request, then the classes they refer to like
+     * {@link #preload}. The classes of {@code packages} are fetched with the
+     * subpackages, the classes of {@code purePackages} without them.
+     */
+    public void preloadPackages(Collection<String> packages, Collection<String> purePackages) {
+        Map<String, Object> received;
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ClassDescriptionCodec.writeRequest(Collections.<String>emptyList(), packages, purePackages, out);
+            byte[] response = connection.send(out.toByteArray());
+            received = ClassDescriptionCodec.readResponse(new ByteArrayInputStream(response));
+        } catch (IOException e) {
+            // the classes are requested again when they are loaded
+            return;
+        }
+        classes.putAll(received);
+        preload(received.keySet(), 1);
+    }
+
+    /**
+     * Adds the classes which are loaded when {@code c} is checked: its
+     * supertypes, outer and nested classes and the exceptions its methods
+     * and constructors throw.
+     */
+    private static void addReferences(ClassDescription c, Set<String> names) {
+        SuperClass sc = c.getSuperClass();
+        if (sc != null) {
+            names.add(sc.getQualifiedName());
+        }
+        for (SuperInterface si : c.getInterfaces()) {
+            names.add(si.getQualifiedName());
+        }
+        if (!MemberDescription.NO_DECLARING_CLASS.equals(c.getDeclaringClassName())) {
+            names.add(c.getDeclaringClassName());
+        }
+        InnerDescr[] nested = c.getDeclaredClasses();
+        if (nested != null) {
+            for (InnerDescr inner : nested) {
+                names.add(inner.getQualifiedName());
+            }
+        }
+        addThrowables(c.getDeclaredMethods(), names);
+        addThrowables(c.getDeclaredConstructors(), names);
+    }
+
+    private static void addThrowables(MemberDescription[] members, Set<String> names) {
+        if (members == null) {
+            return;
+        }
+        for (MemberDescription m : members) {
+            String throwables = m.getThrowables();
+            if (!throwables.isEmpty()) {
+                names.addAll(Arrays.asList(throwables.split(MemberDescription.THROWS_DELIMITER)));
+            }
+        }
+    }
+
+    /**
+     * Requests the given classes, at most {@code batchSize} at a time.
+     */
+    private void fetch(List<String> names) throws IOException {
+        for (int from = 0; from < names.size(); from += batchSize) {
+            List<String> batch = names.subList(from, Math.min(names.size(), from + batchSize));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ClassDescriptionCodec.writeRequest(batch, out);
+            byte[] response = connection.send(out.toByteArray());
+            classes.putAll(ClassDescriptionCodec.readResponse(new ByteArrayInputStream(response)));
+        }
+    }
+}
@@ -32,6 +32,7 @@ import com.sun.tdk.signaturetest.core.context.Option;
 import com.sun.tdk.signaturetest.model.Modifier;
 import com.sun.tdk.signaturetest.model.*;
 import com.sun.tdk.signaturetest.util.I18NResourceBundle;
+import com.sun.tdk.signaturetest.util.LRUCache;
 import com.sun.tdk.signaturetest.util.SwissKnife;
 
 import java.io.PrintWriter;
@@ -46,28 +47,75 @@ import java.util.*;
 /**
  * This is J2SE 1.5 (Tiger) loader
  */
-public class TigerRefgClassDescrLoader extends CommonLoaderHelper implements ClassDescriptionLoader, LoadingHints {
+public class TigerRefgClassDescrLoader extends CommonLoaderHelper implements ClassDescriptionLoader, LoadingHints, BulkLoading {
 
     private static final String object = "java.lang.Object";
+    private static final int TYPE_CACHE_SIZE = 4096;
     public static final I18NResourceBundle i18n = I18NResourceBundle.getBundleForClass(TigerRefgClassDescrLoader.class);
     private final ClassLoader ldr;
     private final BaseOptions bo = AppContext.getContext().getBean(BaseOptions.class);
+    /**
+     * Loaded classes, {@code null} if they are not cached.
+     */
+    private final DescriptionCache cache;
+    /**
+     * Decoded generic types which don't refer to type variables, so their
+     * names don't depend on the declaration they are used in.
+     */
+    private final Map<Type, String> decodedTypes = Collections.synchronizedMap(new LRUCache<Type, String>(TYPE_CACHE_SIZE));
 
     public TigerRefgClassDescrLoader() {
-        this(null);
+        this((ClassLoader) null);
     }
 
     public TigerRefgClassDescrLoader(ClassLoader l) {
+        this(l, null);
+    }
+
+    /**
+     * Creates a loader which caches up to {@code bufferSize} classes.
+     */
+    public TigerRefgClassDescrLoader(Integer bufferSize) {
+        this(null, bufferSize);
+    }
+
+    private TigerRefgClassDescrLoader(ClassLoader l, Integer bufferSize) {
         if (l == null) {
             ldr = getClass().getClassLoader();
         } else {
             ldr = l;
         }
+        if (bufferSize == null) {
+            cache = null;
+        } else {
+            cache = new DescriptionCache(bufferSize) {
+                ClassDescription build(String name) throws ClassNotFoundException {
+                    return build2(name);
+                }
+            };
+        }
     }
 
     public ClassDescription load(String name) throws ClassNotFoundException {
-        final ClassDescription cd = new ClassDescription();
         final String name2 = ExoticCharTools.decodeExotic(name);
+        if (cache != null) {
+            return cache.load(name2);
+        }
+        return build2(name2);
+    }
+
+    public void preload(Collection<String> names, int threads) {
+        if (cache != null) {
+            List<String> names2 = new ArrayList<>(names.size());
+            for (String name : names) {
+                names2.add(ExoticCharTools.decodeExotic(name));
+            }
+            cache.preload(names2, threads);
+        }
+    }
+
+    private ClassDescription build2(String name2) throws ClassNotFoundException {
+        final ClassDescription cd = new ClassDescription();
         load2(cd, name2);
         return cd;
     }
@@ -109,9 +157,7 @@ public class TigerRefgClassDescrLoader extends CommonLoaderHelper implements Cla
         //  Create type parameters list
         ClassDescription.TypeParameterList enc = null;
         if (dclObject != null) {
-            ClassDescription dclCD = new ClassDescription();
-            readClass(dclCD, dclObject);
-            enc = dclCD.getTypeparamList();
+            enc = getDeclaringClass(dclObject).getTypeparamList();
         }
 
         c.setTypeparamList(new ClassDescription.TypeParameterList(enc));
@@ -145,6 +191,18 @@ public class TigerRefgClassDescrLoader extends CommonLoaderHelper implements Cla
         readPermittedSubClasses(c, classObject);
     }
 
+    private ClassDescription getDeclaringClass(Class dclObject) {
+        ClassDescription dclCD = cache == null ? null : cache.get(dclObject.getName());
+        if (dclCD == null) {
+            dclCD = new ClassDescription();
+            readClass(dclCD, dclObject);
+            if (cache != null) {
+                cache.put(dclObject.getName(), dclCD);
+            }
+        }
+        return dclCD;
+    }
+
     private void readFields(ClassDescription c, Class classObject) {
         Field[] tmp = classObject.getDeclaredFields();
         c.createFields(tmp.length - getSyntheticFieldCount(tmp));
@@ -178,7 +236,10 @@ public class TigerRefgClassDescrLoader extends CommonLoaderHelper implements Cla
                 if (!hasHint(LoadingHints.DONT_READ_VALUES)) {
                     try {
                         fld.setAccessible(true);
-                        Object v = fld.get(null);
+                        Object v;
+                        synchronized (INIT_LOCK) {
+                            v = fld.get(null);
+                        }
                         fid.setConstantValue(MemberDescription.valueToString(v));
                     } catch (Throwable e) {
                         // catch error or exception that may be thrown during static class initialization
@@ -415,29 +476,53 @@ public class TigerRefgClassDescrLoader extends CommonLoaderHelper implements Cla
     }
 
     private String decodeType(ClassDescription.TypeParameterList typeparamList, Type t) {
+        return decodeType(typeparamList, t, new boolean[1]);
+    }
+
+    /**
+     * Decodes the type, setting {@code open[0]} if it refers to a type
+     * variable. The other generic types are decoded only once.
+     */
+    private String decodeType(ClassDescription.TypeParameterList typeparamList, Type t, boolean[] open) {
         if (t instanceof Class) {
-            Class x = (Class) t;
-            return MemberDescription.getTypeName(x);
+            return getTypeName((Class) t);
         } else if (t instanceof TypeVariable) {
             TypeVariable x = (TypeVariable) t;
+            open[0] = true;
             return typeparamList.replace(x.getName());
-        } else if (t instanceof GenericArrayType) {
+        }
+
+        String s = decodedTypes.get(t);
+        if (s == null) {
+            boolean[] inner = new boolean[1];
+            s = decodeGeneric(typeparamList, t, inner);
+            if (inner[0]) {
+                open[0] = true;
+            } else {
+                decodedTypes.put(t, s);
+            }
+        }
+        return s;
+    }
+
+    private String decodeGeneric(ClassDescription.TypeParameterList typeparamList, Type t, boolean[] open) {
+        if (t instanceof GenericArrayType) {
             GenericArrayType x = (GenericArrayType) t;
-            return decodeType(typeparamList, x.getGenericComponentType()) + "[]";
+            return decodeType(typeparamList, x.getGenericComponentType(), open) + "[]";
         } else if (t instanceof ParameterizedType) {
             ParameterizedType x = (ParameterizedType) t;
-            return decodeType(typeparamList, x.getRawType()) + decodeArguments(typeparamList, x);
+            return decodeType(typeparamList, x.getRawType(), open) + decodeArguments(typeparamList, x, open);
         } else if (t instanceof WildcardType) {
             WildcardType x = (WildcardType) t;
             StringBuffer sb = new StringBuffer("?");
             Type[] bounds;
             if ((bounds = x.getLowerBounds()) != null && bounds.length != 0) {
                 if (bounds[0] != null || bounds.length > 1) {
-                    sb.append(" super ").append(decodeBounds(typeparamList, bounds));
+                    sb.append(" super ").append(decodeBounds(typeparamList, bounds, open));
                 }
             }
             if ((bounds = x.getUpperBounds()) != null) {
-                String s = decodeBounds(typeparamList, bounds);
+                String s = decodeBounds(typeparamList, bounds, open);
                 //  Reduce "? extends java.lang.Object" to just "?"
                 if (s.startsWith(object)) {
                     s = s.substring(object.length()).trim();
@@ -453,18 +538,18 @@ public class TigerRefgClassDescrLoader extends CommonLoaderHelper implements Cla
         }
     }
 
-    private String decodeBounds(ClassDescription.TypeParameterList tp, Type[] bounds) {
+    private String decodeBounds(ClassDescription.TypeParameterList tp, Type[] bounds, boolean[] open) {
         StringBuffer sb = new StringBuffer();
         for (int i = 0; i < bounds.length; i++) {
             if (i != 0) {
                 sb.append(" & ");
             }
-            sb.append(bounds[i] == null ? object : decodeType(tp, bounds[i]));
+            sb.append(bounds[i] == null ? object : decodeType(tp, bounds[i], open));
         }
         return sb.toString();
     }
 
-    private String decodeArguments(ClassDescription.TypeParameterList tp, ParameterizedType d) {
+    private String decodeArguments(ClassDescription.TypeParameterList tp, ParameterizedType d, boolean[] open) {
         StringBuffer sb = new StringBuffer();
 
         Type[] vv = d.getActualTypeArguments();
@@ -475,7 +560,7 @@ public class TigerRefgClassDescrLoader extends CommonLoaderHelper implements Cla
                 }
 
                 if (vv[i] != null) {
-                    sb.append(decodeType(tp, vv[i]));
+                    sb.append(decodeType(tp, vv[i], open));
                 }
             }
         }
@@ -34,10 +34,12 @@ import com.sun.tdk.signaturetest.loaders.VirtualClassDescriptionLoader;
 import com.sun.tdk.signaturetest.model.*;
 import com.sun.tdk.signaturetest.sigfile.FeaturesHolder;
 import com.sun.tdk.signaturetest.util.I18NResourceBundle;
+import com.sun.tdk.signaturetest.util.Parallel;
 import com.sun.tdk.signaturetest.util.SwissKnife;
 
 import java.text.MessageFormat;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 /**
  * Merges some APIs according JSR68 rules
@@ -53,6 +55,9 @@ public class JSR68Merger extends FeaturesHolder {
     private final Log log;
     private final Result result;
     private final Erasurator erasurator;
+    private final ThreadLocal<ClassMerge> current = new ThreadLocal<>();
+    private final Object hierarchyLock = new Object();
+    private int threads = 1;
 
     public JSR68Merger(Log log, Result result, FeaturesHolder fh) {
         this.log = log;
@@ -61,52 +66,18 @@ public class JSR68Merger extends FeaturesHolder {
         setFeatures(fh.getSupportedFeatures());
     }
 
+    /**
+     * Sets the number of threads used to merge classes, 1 by default.
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
     public VirtualClassDescriptionLoader merge(MergedSigFile[] files) {
         //this.mode = mode;
         VirtualClassDescriptionLoader result = new VirtualClassDescriptionLoader();
 
-        for (int i = 0; i < files.length; i++) {
-            MergedSigFile mf = files[i];
-            for (ClassDescription cd : mf.getClassSet().values()) {
-                // If one of input APIs contain an element and other doesn't,
-                // this element goes to the result API without modification except for the following case :
-
-                // 1) is it unique?
-                boolean unique = true;
-                ArrayList<ClassDescription> sameClasses = new ArrayList<>();
-                ArrayList<MergedSigFile> filesForSameClasses = new ArrayList<>();
-                sameClasses.add(cd);
-                filesForSameClasses.add(mf);
-                for (int j = 0; j < files.length; j++) {
-                    if (i == j) {
-                        continue;
-                    }
-                    MergedSigFile mfOther = files[j];
-                    if (mfOther.getClassSet().containsKey(cd.getQualifiedName())) {
-                        unique = false;
-                        sameClasses.add(mfOther.getClassSet().get(cd.getQualifiedName()));
-                        filesForSameClasses.add(mfOther);
-                    }
-                }
-
-                // If this element is first declared class member in inheritance
-                // chain and the other API inherits the same element, then this element doesn't
-                // go to the result API.
-                if (unique) {
-                    result.add(cd);
-                } else {
-                    //                    logger.fine("Not unique, to merge " + cd.getQualifiedName());
-                    ClassDescription resultedClass = new ClassDescription();
-                    resultedClass.setupClassName(cd.getQualifiedName());
-
-                    ClassDescription[] classes = sameClasses.toArray(new ClassDescription[0]);
-                    MergedSigFile[] filesForClasses = filesForSameClasses.toArray(new MergedSigFile[0]);
-                    if (merge(classes, resultedClass, filesForClasses) && merge2(classes, resultedClass)) {
-                        result.add(resultedClass);
-                    }
-                }
-            }
-        }
+        mergeClasses(files, result);
 
         Iterator<ClassDescription> it = result.getClassIterator();
         List<ClassDescription> innersToRemove = new ArrayList<>();
@@ -186,6 +157,183 @@ public class JSR68Merger extends FeaturesHolder {
         return result;
     }
 
+    /**
+     * Merges the classes of all the files. As in a pass over the files, a
+     * class is merged once for every file containing it, with the class
+     * from that file first. The merges of one class run in this order while
+     * different classes are merged concurrently. Errors and messages are
+     * kept per merge and reported afterwards in the order of the pass, so
+     * neither the output nor the result depend on the number of threads.
+     * <p>
+     * Merging a generic class with a non-generic one erases the generic
+     * class using the hierarchy of its file and rewrites the non-generic
+     * class in place. Both are shared with the merges of other classes, so
+     * such a merge and the merges of the same class which follow it are
+     * deferred, and run one by one in the order of the pass once the
+     * concurrent merges are done.
+     */
+    private void mergeClasses(final MergedSigFile[] files, VirtualClassDescriptionLoader result) {
+
+        List<ClassMerge> steps = new ArrayList<>();
+        Map<String, List<ClassMerge>> byName = new LinkedHashMap<>();
+        for (int i = 0; i < files.length; i++) {
+            for (ClassDescription cd : files[i].getClassSet().values()) {
+                ClassMerge step = new ClassMerge(i, cd);
+                steps.add(step);
+                List<ClassMerge> same = byName.get(cd.getQualifiedName());
+                if (same == null) {
+                    same = new ArrayList<>();
+                    byName.put(cd.getQualifiedName(), same);
+                }
+                same.add(step);
+            }
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>(byName.size());
+        for (final List<ClassMerge> same : byName.values()) {
+            tasks.add(new Callable<Void>() {
+                public Void call() {
+                    boolean defer = false;
+                    for (ClassMerge step : same) {
+                        defer = defer || !step.run(files, false);
+                        step.deferred = defer;
+                    }
+                    return null;
+                }
+            });
+        }
+        Parallel.invokeAll(threads, tasks);
+
+        for (ClassMerge step : steps) {
+            if (step.deferred) {
+                step.run(files, true);
+            }
+        }
+
+        for (ClassMerge step : steps) {
+            step.replay();
+            if (step.merged != null) {
+                result.add(step.merged);
+            }
+        }
+    }
+
+    /**
+     * Merge of a class as met in one of the files.
+     */
+    private final class ClassMerge {
+
+        private static final int ERROR = 0;
+        private static final int UNRESOLVED = 1;
+        private static final int OUTPUT = 2;
+
+        private final int fileIndex;
+        private final ClassDescription cd;
+        private final List<Integer> kinds = new ArrayList<>();
+        private final List<String> messages = new ArrayList<>();
+        private ClassDescription merged;
+        private Erasurator erasurator;
+        private boolean deferred;
+
+        ClassMerge(int fileIndex, ClassDescription cd) {
+            this.fileIndex = fileIndex;
+            this.cd = cd;
+        }
+
+        /**
+         * Returns false, without merging, if the merge touches the classes
+         * of other merges and {@code shared} is not set.
+         */
+        boolean run(MergedSigFile[] files, boolean shared) {
+            current.set(this);
+            try {
+                return doRun(files, shared);
+            } finally {
+                current.remove();
+            }
+        }
+
+        private boolean doRun(MergedSigFile[] files, boolean shared) {
+            MergedSigFile mf = files[fileIndex];
+            // If one of input APIs contain an element and other doesn't,
+            // this element goes to the result API without modification except for the following case :
+
+            // 1) is it unique?
+            boolean unique = true;
+            ArrayList<ClassDescription> sameClasses = new ArrayList<>();
+            ArrayList<MergedSigFile> filesForSameClasses = new ArrayList<>();
+            sameClasses.add(cd);
+            filesForSameClasses.add(mf);
+            for (int j = 0; j < files.length; j++) {
+                if (fileIndex == j) {
+                    continue;
+                }
+                MergedSigFile mfOther = files[j];
+                if (mfOther.getClassSet().containsKey(cd.getQualifiedName())) {
+                    unique = false;
+                    sameClasses.add(mfOther.getClassSet().get(cd.getQualifiedName()));
+                    filesForSameClasses.add(mfOther);
+                }
+            }
+
+            // If this element is first declared class member in inheritance
+            // chain and the other API inherits the same element, then this element doesn't
+            // go to the result API.
+            if (unique) {
+                merged = cd;
+            } else {
+                if (!shared && sameClasses.size() == 2
+                        && isGeneralized(sameClasses.get(0)) != isGeneralized(sameClasses.get(1))) {
+                    // see prepareGenerics
+                    return false;
+                }
+                //                    logger.fine("Not unique, to merge " + cd.getQualifiedName());
+                ClassDescription resultedClass = new ClassDescription();
+                resultedClass.setupClassName(cd.getQualifiedName());
+
+                ClassDescription[] classes = sameClasses.toArray(new ClassDescription[0]);
+                MergedSigFile[] filesForClasses = filesForSameClasses.toArray(new MergedSigFile[0]);
+                if (merge(classes, resultedClass, filesForClasses) && merge2(classes, resultedClass)) {
+                    merged = resultedClass;
+                }
+            }
+            return true;
+        }
+
+        void add(int kind, String message) {
+            kinds.add(kind);
+            messages.add(message);
+        }
+
+        Erasurator getErasurator() {
+            if (erasurator == null) {
+                erasurator = new Erasurator() {
+                    @Override
+                    public void unresolved(String param) {
+                        add(UNRESOLVED, param);
+                    }
+                };
+            }
+            return erasurator;
+        }
+
+        void replay() {
+            for (int i = 0; i < kinds.size(); i++) {
+                String message = messages.get(i);
+                switch (kinds.get(i)) {
+                    case ERROR:
+                        report(message);
+                        break;
+                    case UNRESOLVED:
+                        JSR68Merger.this.erasurator.unresolved(message);
+                        break;
+                    default:
+                        System.out.println(message);
+                }
+            }
+        }
+    }
+
     private boolean merge(ClassDescription[] similarClasses, ClassDescription result, MergedSigFile[] sigfiles) {
 
         boolean mAbs = similarClasses[0].isAbstract();
@@ -234,7 +382,7 @@ public class JSR68Merger extends FeaturesHolder {
     }
 
     private void checkGenerics(ClassDescription result) {
-        ClassDescription eResult = erasurator.fullErasure(result);
+        ClassDescription eResult = getErasurator().fullErasure(result);
         ConstructorDescr[] genCostr = eResult.getDeclaredConstructors();
         MethodDescr[] genMeth = eResult.getDeclaredMethods();
         FieldDescr[] genFld = eResult.getDeclaredFields();
@@ -292,7 +440,7 @@ public class JSR68Merger extends FeaturesHolder {
             MethodDescr[] genMeth = hasGenCD.getDeclaredMethods();
             FieldDescr[] genFld = hasGenCD.getDeclaredFields();
 
-            ClassDescription hasGenEraCD = erasurator.fullErasure(hasGenCD);
+            ClassDescription hasGenEraCD = getErasurator().fullErasure(hasGenCD);
             ClassDescription noGenCD = similarClasses[noGenPos];
             if (noGenCD.equals(hasGenEraCD)) {
                 noGenCD.setTypeParameters(hasGenCD.getTypeParameters());
@@ -485,8 +633,13 @@ public class JSR68Merger extends FeaturesHolder {
                         }
                         SuperClass scSuper = superclasses.get(k);
 
-                        if (!file.getClassHierarchy().isSubclass(scSub.getQualifiedName(),
-                                scSuper.getQualifiedName())) {
+                        boolean isSubclass;
+                        // the hierarchies are shared by concurrent merges
+                        synchronized (hierarchyLock) {
+                            isSubclass = file.getClassHierarchy().isSubclass(scSub.getQualifiedName(),
+                                    scSuper.getQualifiedName());
+                        }
+                        if (!isSubclass) {
                             subSuperFound = false;
                             break;
                         }
@@ -502,7 +655,7 @@ public class JSR68Merger extends FeaturesHolder {
         }
 
         error(show(result) + " " + i18n.getString("Merger.error.superclassesnotrelated"));
-        System.out.println("Can't merge superclasses");
+        output("Can't merge superclasses");
         return false;
     }
 
@@ -877,10 +1030,33 @@ public class JSR68Merger extends FeaturesHolder {
     }
 
     private void error(String msg) {
+        ClassMerge merge = current.get();
+        if (merge != null) {
+            merge.add(ClassMerge.ERROR, msg);
+        } else {
+            report(msg);
+        }
+    }
+
+    private void report(String msg) {
         log.storeError(msg, null);
         result.error(i18n.getString("Merger.error"));
     }
 
+    private void output(String msg) {
+        ClassMerge merge = current.get();
+        if (merge != null) {
+            merge.add(ClassMerge.OUTPUT, msg);
+        } else {
+            System.out.println(msg);
+        }
+    }
+
+    private Erasurator getErasurator() {
+        ClassMerge merge = current.get();
+        return merge != null ? merge.getErasurator() : erasurator;
+    }
+
     private static String show(MemberDescription x) {
         return x.getQualifiedName();
     }
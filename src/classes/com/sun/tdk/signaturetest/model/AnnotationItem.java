@@ -26,12 +26,13 @@ package com.sun.tdk.signaturetest.model;
 
 import com.sun.tdk.signaturetest.util.SwissKnife;
 
+import java.io.Serializable;
 import java.util.*;
 
 /**
  * @author Serguei Ivashin (isl@nbsp.nsk.su)
  */
-public class AnnotationItem implements Comparable<AnnotationItem> {
+public class AnnotationItem implements Comparable<AnnotationItem>, Serializable {
 
     public static final String ANNOTATION_PREFIX = "anno";
     public static final String ANNOTATION_INHERITED = "java.lang.annotation.Inherited";
@@ -187,7 +188,7 @@ public class AnnotationItem implements Comparable<AnnotationItem> {
         return m;
     }
 
-    public static class Member implements Comparable<Member> {
+    public static class Member implements Comparable<Member>, Serializable {
 
         public String type;
         public String name;
@@ -282,6 +283,16 @@ public class AnnotationItem implements Comparable<AnnotationItem> {
         }
     }
 
+    /**
+     * Turns the serialized form of an annotation back into an item.
+     *
+     * @see MemberDescription#setAnnoList(String[], Parser)
+     */
+    public interface Parser {
+
+        AnnotationItem parse(String str);
+    }
+
     public Member findByName(String name) {
         if (members != null) {
             for (Member m : members) {
@@ -24,7 +24,7 @@
  */
 package com.sun.tdk.signaturetest.model;
 
-import java.io.DataInputStream;
+import java.io.DataInput;
 import java.io.IOException;
 
 /**
@@ -78,7 +78,7 @@ public class AnnotationItemEx extends AnnotationItem {
     public static final String ANN_PARAM_IND = "param";
     public static final String ANN_PATH = "path";
 
-    public void parseBinaryDescription(DataInputStream is) throws IllegalStateException, IOException {
+    public void parseBinaryDescription(DataInput is) throws IllegalStateException, IOException {
         int target_type = is.readUnsignedByte();
         setTargetType(target_type);
         //System.err.println("type=" + intToHex(target_type) + "  " + getExtendedAnnotationName(target_type));
@@ -0,0 +1,674 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.tdk.signaturetest.model;
+
+import com.sun.tdk.signaturetest.core.ClassDescriptionLoader;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact binary form of class descriptions, used to pass them between
+ * virtual machines. Numbers are written in 7-bit groups. Each string is
+ * written once per stream and referred to by number afterwards, so the whole
+ * stream must be written by one {@link Encoder} and read by one
+ * {@link Decoder}.
+ * <p>
+ * A request lists the names of classes and of packages; the response
+ * describes the named classes and all the classes of the named packages the
+ * answering side can find, at once:
+ * <pre>
+ * request  := MAGIC VERSION REQUEST count name* count (package subpackages)*
+ * response := MAGIC VERSION RESPONSE count (FOUND name class | status name message)*
+ * </pre>
+ *
+ * @see com.sun.tdk.signaturetest.remote.RemoteLoadManager
+ * @see com.sun.tdk.signaturetest.loaders.RemoteClassDescrLoader
+ */
+public final class ClassDescriptionCodec {
+
+    private static final int MAGIC = 0x53494754;
+    /**
+     * Version of the format, increased on every incompatible change.
+     */
+    public static final int VERSION = 2;
+
+    // kinds of messages
+    private static final int REQUEST = 1;
+    private static final int RESPONSE = 2;
+
+    // states of the requested classes
+    private static final int FOUND = 0;
+    private static final int NOT_FOUND = 1;
+    private static final int LINKAGE_ERROR = 2;
+    private static final int FAILED = 3;
+
+    // tags of annotation default values
+    private static final int NULL = 0;
+    private static final int STRING = 1;
+    private static final int BOOLEAN = 2;
+    private static final int BYTE = 3;
+    private static final int CHAR = 4;
+    private static final int SHORT = 5;
+    private static final int INT = 6;
+    private static final int LONG = 7;
+    private static final int FLOAT = 8;
+    private static final int DOUBLE = 9;
+    private static final int ARRAY = 10;
+    private static final int ANNOTATION = 11;
+    private static final int OTHER = 12;
+
+    /**
+     * Finds the classes of a package on the side answering the requests.
+     */
+    public interface PackageLister {
+
+        /**
+         * Returns the names of the classes in the package, and in its
+         * subpackages if {@code subpackages} is set. The empty name stands for
+         * all the packages.
+         */
+        Collection<String> listClasses(String packageName, boolean subpackages);
+    }
+
+    // prevent creating this utility class
+    private ClassDescriptionCodec() {
+    }
+
+    /**
+     * Writes a request for the given classes.
+     */
+    public static void writeRequest(Collection<String> names, OutputStream out) throws IOException {
+        writeRequest(names, Collections.<String>emptyList(), Collections.<String>emptyList(), out);
+    }
+
+    /**
+     * Writes a request for the given classes and for all the classes in the
+     * given packages. The classes of {@code packages} are requested with the
+     * subpackages, the classes of {@code purePackages} without them.
+     */
+    public static void writeRequest(Collection<String> names, Collection<String> packages,
+                                    Collection<String> purePackages, OutputStream out) throws IOException {
+        Encoder e = new Encoder(out);
+        e.writeHeader(REQUEST);
+        e.writeInt(names.size());
+        for (String name : names) {
+            e.writeString(name);
+        }
+        e.writeInt(packages.size() + purePackages.size());
+        for (String p : packages) {
+            e.writeString(p);
+            e.writeBoolean(true);
+        }
+        for (String p : purePackages) {
+            e.writeString(p);
+            e.writeBoolean(false);
+        }
+        e.flush();
+    }
+
+    /**
+     * Same as {@link #answer(ClassDescriptionLoader, PackageLister,
+     * InputStream, OutputStream)} for a side which can't list packages. The
+     * requested packages are ignored.
+     */
+    public static void answer(ClassDescriptionLoader loader, InputStream request, OutputStream response) throws IOException {
+        answer(loader, null, request, response);
+    }
+
+    /**
+     * Reads a request and writes the descriptions of the requested classes
+     * made by the given loader, followed by the other classes of the
+     * requested packages found by {@code lister}. A class which can't be
+     * loaded is reported together with the reason.
+     */
+    public static void answer(ClassDescriptionLoader loader, PackageLister lister,
+                              InputStream request, OutputStream response) throws IOException {
+        Decoder d = new Decoder(request);
+        d.readHeader(REQUEST);
+        Set<String> names = new LinkedHashSet<>();
+        for (int i = d.readInt(); i > 0; i--) {
+            names.add(d.readString());
+        }
+        for (int i = d.readInt(); i > 0; i--) {
+            String p = d.readString();
+            boolean subpackages = d.readBoolean();
+            if (lister != null) {
+                names.addAll(lister.listClasses(p, subpackages));
+            }
+        }
+
+        Encoder e = new Encoder(response);
+        e.writeHeader(RESPONSE);
+        e.writeInt(names.size());
+        for (String name : names) {
+            ClassDescription c;
+            try {
+                c = loader.load(name);
+            } catch (ClassNotFoundException ex) {
+                e.writeFailure(NOT_FOUND, name, ex.getMessage());
+                continue;
+            } catch (LinkageError ex) {
+                e.writeFailure(LINKAGE_ERROR, name, ex.getMessage());
+                continue;
+            } catch (RuntimeException ex) {
+                e.writeFailure(FAILED, name, ex.toString());
+                continue;
+            }
+            e.writeInt(FOUND);
+            e.writeString(name);
+            e.writeClass(c);
+        }
+        e.flush();
+    }
+
+    /**
+     * Reads a response. Maps the name of each requested class to its
+     * description, or to the exception to throw when the class is loaded.
+     */
+    public static Map<String, Object> readResponse(InputStream in) throws IOException {
+        Decoder d = new Decoder(in);
+        d.readHeader(RESPONSE);
+        int n = d.readInt();
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            int status = d.readInt();
+            String name = d.readString();
+            if (status == FOUND) {
+                result.put(name, d.readClass());
+                continue;
+            }
+            String message = d.readString();
+            switch (status) {
+                case NOT_FOUND:
+                    result.put(name, new ClassNotFoundException(message));
+                    break;
+                case LINKAGE_ERROR:
+                    result.put(name, new LinkageError(message));
+                    break;
+                case FAILED:
+                    result.put(name, new RuntimeException(message));
+                    break;
+                default:
+                    throw new IOException("Unknown status " + status);
+            }
+        }
+        return result;
+    }
+
+    public static class Encoder {
+
+        private final DataOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        public Encoder(OutputStream out) {
+            this.out = new DataOutputStream(out);
+        }
+
+        public void writeHeader(int kind) throws IOException {
+            out.writeInt(MAGIC);
+            writeInt(VERSION);
+            writeInt(kind);
+        }
+
+        private void writeFailure(int status, String name, String message) throws IOException {
+            writeInt(status);
+            writeString(name);
+            writeString(message);
+        }
+
+        public void writeInt(int v) throws IOException {
+            while ((v & ~0x7F) != 0) {
+                out.write((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            out.write(v);
+        }
+
+        public void writeBoolean(boolean v) throws IOException {
+            out.write(v ? 1 : 0);
+        }
+
+        /**
+         * Writes the string or {@code null}. A string met before is written
+         * as its number.
+         */
+        public void writeString(String s) throws IOException {
+            if (s == null) {
+                writeInt(0);
+                return;
+            }
+            Integer n = strings.get(s);
+            if (n != null) {
+                writeInt(n + 2);
+                return;
+            }
+            strings.put(s, strings.size());
+            writeInt(1);
+            writeInt(s.length());
+            for (int i = 0; i < s.length(); i++) {
+                writeInt(s.charAt(i));
+            }
+        }
+
+        public void writeClass(ClassDescription c) throws IOException {
+            writeMember(c);
+            writeBoolean(c.isTiger());
+
+            SuperClass sc = c.getSuperClass();
+            writeBoolean(sc != null);
+            if (sc != null) {
+                writeMember(sc);
+            }
+
+            SuperInterface[] intfs = c.getInterfaces();
+            writeInt(intfs.length);
+            for (SuperInterface intf : intfs) {
+                writeMember(intf);
+                writeBoolean(intf.isDirect());
+            }
+
+            writeMembers(c.getPermittedSubclasses());
+
+            FieldDescr[] fields = c.getDeclaredFields();
+            writeInt(fields.length);
+            for (FieldDescr f : fields) {
+                writeMember(f);
+                writeString(f.getConstantValue());
+            }
+
+            MethodDescr[] methods = c.getDeclaredMethods();
+            writeInt(methods.length);
+            for (MethodDescr m : methods) {
+                writeMember(m);
+                writeValue(m.getAnnoDef());
+            }
+
+            writeMembers(c.getDeclaredConstructors());
+            writeMembers(c.getDeclaredClasses());
+
+            writeStrings(c.getInternalFields());
+            writeStrings(c.getInternalClasses());
+            writeStrings(c.getXFields());
+            writeStrings(c.getXClasses());
+        }
+
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        private void writeMembers(MemberDescription[] members) throws IOException {
+            writeInt(members.length);
+            for (MemberDescription m : members) {
+                writeMember(m);
+            }
+        }
+
+        private void writeMember(MemberDescription m) throws IOException {
+            writeInt(m.getModifiers());
+            writeString(m.name);
+            writeString(m.declaringClass);
+            writeString(m.type);
+            writeString(m.args);
+            writeString(m.throwables);
+            writeString(m.typeParameters);
+
+            AnnotationItem[] annos = m.getAnnoList();
+            writeInt(annos.length);
+            for (AnnotationItem a : annos) {
+                writeAnnotation(a);
+            }
+        }
+
+        private void writeAnnotation(AnnotationItem a) throws IOException {
+            boolean ex = a instanceof AnnotationItemEx;
+            writeBoolean(ex);
+            writeInt(a.getTarget());
+            writeBoolean(a.isInheritable());
+            writeString(a.getName());
+
+            Set<AnnotationItem.Member> members = a.getMembers();
+            writeInt(members == null ? 0 : members.size() + 1);
+            if (members != null) {
+                for (AnnotationItem.Member m : members) {
+                    writeString(m.type);
+                    writeString(m.name);
+                    writeString(m.value);
+                }
+            }
+
+            if (ex) {
+                AnnotationItemEx ax = (AnnotationItemEx) a;
+                writeInt(ax.getTargetType());
+                writeInt(ax.getParameterIndex());
+                writeInt(ax.getBoundIndex());
+                writeInt(ax.getTypeIndex());
+                writeString(ax.getPath());
+                writeBoolean(ax.getTracked());
+            }
+        }
+
+        // an empty set is read back as null, which the getters treat the same way
+        private void writeStrings(Set<String> set) throws IOException {
+            writeInt(set.size());
+            for (String s : set) {
+                writeString(s);
+            }
+        }
+
+        private void writeValue(Object v) throws IOException {
+            if (v == null) {
+                writeInt(NULL);
+            } else if (v instanceof String) {
+                writeInt(STRING);
+                writeString((String) v);
+            } else if (v instanceof Boolean) {
+                writeInt(BOOLEAN);
+                writeBoolean((Boolean) v);
+            } else if (v instanceof Byte) {
+                writeInt(BYTE);
+                writeInt((Byte) v);
+            } else if (v instanceof Character) {
+                writeInt(CHAR);
+                writeInt((Character) v);
+            } else if (v instanceof Short) {
+                writeInt(SHORT);
+                writeInt((Short) v);
+            } else if (v instanceof Integer) {
+                writeInt(INT);
+                writeInt((Integer) v);
+            } else if (v instanceof Long) {
+                writeInt(LONG);
+                out.writeLong((Long) v);
+            } else if (v instanceof Float) {
+                writeInt(FLOAT);
+                out.writeFloat((Float) v);
+            } else if (v instanceof Double) {
+                writeInt(DOUBLE);
+                out.writeDouble((Double) v);
+            } else if (v instanceof Object[]) {
+                Object[] arr = (Object[]) v;
+                writeInt(ARRAY);
+                writeInt(arr.length);
+                for (Object o : arr) {
+                    writeValue(o);
+                }
+            } else if (v instanceof AnnotationItem) {
+                writeInt(ANNOTATION);
+                writeAnnotation((AnnotationItem) v);
+            } else {
+                // written the way PrimitiveTypes.simpleObjectToString prints it
+                writeInt(OTHER);
+                writeString(v instanceof Class ? ((Class<?>) v).getName() : v.toString());
+            }
+        }
+    }
+
+    public static class Decoder {
+
+        private final DataInputStream in;
+        private final List<String> strings = new ArrayList<>();
+
+        public Decoder(InputStream in) {
+            this.in = new DataInputStream(in);
+        }
+
+        /**
+         * Reads the header written by {@link Encoder#writeHeader}.
+         *
+         * @throws IOException if the stream has another format, version or
+         *                     kind
+         */
+        public void readHeader(int kind) throws IOException {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a class description stream");
+            }
+            int version = readInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version " + version + ", expected " + VERSION);
+            }
+            int k = readInt();
+            if (k != kind) {
+                throw new IOException("Unexpected message kind " + k);
+            }
+        }
+
+        public int readInt() throws IOException {
+            int v = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = in.read();
+                if (b < 0) {
+                    throw new EOFException();
+                }
+                v |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return v;
+                }
+            }
+            throw new IOException("Malformed number");
+        }
+
+        public boolean readBoolean() throws IOException {
+            return in.readBoolean();
+        }
+
+        public String readString() throws IOException {
+            int n = readInt();
+            if (n == 0) {
+                return null;
+            }
+            if (n > 1) {
+                if (n - 2 >= strings.size()) {
+                    throw new IOException("Unknown string " + (n - 2));
+                }
+                return strings.get(n - 2);
+            }
+            int length = readInt();
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) readInt();
+            }
+            String s = new String(chars).intern();
+            strings.add(s);
+            return s;
+        }
+
+        public ClassDescription readClass() throws IOException {
+            ClassDescription c = new ClassDescription();
+            readMember(c);
+            c.setTiger(readBoolean());
+
+            if (readBoolean()) {
+                SuperClass sc = new SuperClass();
+                readMember(sc);
+                c.setSuperClass(sc);
+            }
+
+            SuperInterface[] intfs = new SuperInterface[readInt()];
+            for (int i = 0; i < intfs.length; i++) {
+                intfs[i] = new SuperInterface();
+                readMember(intfs[i]);
+                intfs[i].setDirect(readBoolean());
+            }
+            c.setInterfaces(intfs);
+
+            PermittedSubClass[] permitted = new PermittedSubClass[readInt()];
+            for (int i = 0; i < permitted.length; i++) {
+                permitted[i] = new PermittedSubClass();
+                readMember(permitted[i]);
+            }
+            c.setPermittedSubclasses(permitted);
+
+            FieldDescr[] fields = new FieldDescr[readInt()];
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = new FieldDescr();
+                readMember(fields[i]);
+                fields[i].setConstantValue(readString());
+            }
+            c.setFields(fields);
+
+            MethodDescr[] methods = new MethodDescr[readInt()];
+            for (int i = 0; i < methods.length; i++) {
+                methods[i] = new MethodDescr();
+                readMember(methods[i]);
+                methods[i].setAnnoDef(readValue());
+            }
+            c.setMethods(methods);
+
+            ConstructorDescr[] ctors = new ConstructorDescr[readInt()];
+            for (int i = 0; i < ctors.length; i++) {
+                ctors[i] = new ConstructorDescr();
+                readMember(ctors[i]);
+            }
+            c.setConstructors(ctors);
+
+            InnerDescr[] nested = new InnerDescr[readInt()];
+            for (int i = 0; i < nested.length; i++) {
+                nested[i] = new InnerDescr();
+                readMember(nested[i]);
+            }
+            c.setNestedClasses(nested);
+
+            c.setInternalFields(readStrings());
+            c.setInternalClasses(readStrings());
+            c.setXFields(readStrings());
+            c.setXClasses(readStrings());
+            return c;
+        }
+
+        private void readMember(MemberDescription m) throws IOException {
+            m.restoreModifiers(readInt());
+            m.name = readString();
+            m.declaringClass = readString();
+            m.type = readString();
+            m.args = readString();
+            m.throwables = readString();
+            m.typeParameters = readString();
+
+            int n = readInt();
+            if (n != 0) {
+                AnnotationItem[] annos = new AnnotationItem[n];
+                for (int i = 0; i < n; i++) {
+                    annos[i] = readAnnotation();
+                }
+                m.setAnnoList(annos);
+            }
+        }
+
+        private AnnotationItem readAnnotation() throws IOException {
+            boolean ex = readBoolean();
+            AnnotationItem a = ex ? new AnnotationItemEx() : new AnnotationItem();
+            a.setTarget(readInt());
+            a.setInheritable(readBoolean());
+            String name = readString();
+            if (name != null) {
+                a.setName(name);
+            }
+
+            int n = readInt();
+            for (int i = 1; i < n; i++) {
+                AnnotationItem.Member m = new AnnotationItem.Member();
+                m.type = readString();
+                m.name = readString();
+                m.value = readString();
+                a.addMember(m);
+            }
+
+            if (ex) {
+                ((AnnotationItemEx) a).setTargetType(readInt())
+                        .setParameterIndex(readInt())
+                        .setBoundIndex(readInt())
+                        .setTypeIndex(readInt())
+                        .setPath(readString())
+                        .setTracked(readBoolean());
+            }
+            return a;
+        }
+
+        private Set<String> readStrings() throws IOException {
+            int n = readInt();
+            if (n == 0) {
+                return null;
+            }
+            Set<String> set = new HashSet<>();
+            for (int i = 0; i < n; i++) {
+                set.add(readString());
+            }
+            return set;
+        }
+
+        private Object readValue() throws IOException {
+            int tag = readInt();
+            switch (tag) {
+                case NULL:
+                    return null;
+                case STRING:
+                    return readString();
+                case BOOLEAN:
+                    return readBoolean();
+                case BYTE:
+                    return (byte) readInt();
+                case CHAR:
+                    return (char) readInt();
+                case SHORT:
+                    return (short) readInt();
+                case INT:
+                    return readInt();
+                case LONG:
+                    return in.readLong();
+                case FLOAT:
+                    return in.readFloat();
+                case DOUBLE:
+                    return in.readDouble();
+                case ARRAY:
+                    Object[] arr = new Object[readInt()];
+                    for (int i = 0; i < arr.length; i++) {
+                        arr[i] = readValue();
+                    }
+                    return arr;
+                case ANNOTATION:
+                    return readAnnotation();
+                case OTHER:
+                    return new AnnotationItem.ValueWrap(readString());
+                default:
+                    throw new IOException("Unknown value tag " + tag);
+            }
+        }
+    }
+}
@@ -99,6 +99,8 @@ public abstract class MemberDescription implements Cloneable, Serializable {
     String throwables = EMPTY_THROW_LIST;
     //  Sorted list of annotations present on this item or null
     private AnnotationItem[] annoList = AnnotationItem.EMPTY_ANNOTATIONITEM_ARRAY;
+    //  Annotations read from a signature file and not parsed yet, or null
+    private transient volatile SerializedAnnotations serializedAnnos;
     /**
      * Sort of entity referred by {@code this} item. It should be either
      * field, or method, or constructor, or class or inner class, or interface
@@ -374,9 +376,26 @@ public abstract class MemberDescription implements Cloneable, Serializable {
     }
 
     public AnnotationItem[] getAnnoList() {
+        SerializedAnnotations s = serializedAnnos;
+        if (s != null) {
+            parseAnnotations(s);
+        }
         return annoList;
     }
 
+    private void parseAnnotations(SerializedAnnotations s) {
+        // clones share the serialized form but each of them parses it once
+        synchronized (s) {
+            if (serializedAnnos == s) {
+                AnnotationItem[] parsed = new AnnotationItem[s.annotations.length];
+                for (int i = 0; i < parsed.length; ++i) {
+                    parsed[i] = s.parser.parse(s.annotations[i]);
+                }
+                setAnnoList(parsed);
+            }
+        }
+    }
+
     // default implementation.
     // For ClassDescription, SuperClass, SuperInteraface this method must be overriden!
     public String getQualifiedName() {
@@ -553,6 +572,11 @@ public abstract class MemberDescription implements Cloneable, Serializable {
         // ===== end of workaround =====
     }
 
+    // sets the modifiers as they are, for descriptions read back by ClassDescriptionCodec
+    void restoreModifiers(int access) {
+        modifiers = access;
+    }
+
     public void addModifier(Modifier mod) {
         modifiers = Modifier.addModifier(modifiers, mod);
     }
@@ -688,6 +712,32 @@ public abstract class MemberDescription implements Cloneable, Serializable {
         if (annoList.length > 1) {
             Arrays.sort(this.annoList);
         }
+        serializedAnnos = null;
+    }
+
+    /**
+     * Sets annotations in their serialized form. They are parsed by the given
+     * parser when {@link #getAnnoList()} is called for the first time, so
+     * annotations which are never checked are never parsed.
+     */
+    public void setAnnoList(String[] annotations, AnnotationItem.Parser parser) {
+        if (annotations.length == 0) {
+            setAnnoList(AnnotationItem.EMPTY_ANNOTATIONITEM_ARRAY);
+        } else {
+            annoList = AnnotationItem.EMPTY_ANNOTATIONITEM_ARRAY;
+            serializedAnnos = new SerializedAnnotations(annotations, parser);
+        }
+    }
+
+    private static final class SerializedAnnotations {
+
+        final String[] annotations;
+        final AnnotationItem.Parser parser;
+
+        SerializedAnnotations(String[] annotations, AnnotationItem.Parser parser) {
+            this.annotations = annotations;
+            this.parser = parser;
+        }
     }
 
     public void setTypeParameters(String typeParameters) {
@@ -789,6 +839,12 @@ public abstract class MemberDescription implements Cloneable, Serializable {
         return result;
     }
 
+    private void writeObject(java.io.ObjectOutputStream out) throws IOException {
+        // the parser is not serializable, the annotations are written parsed
+        getAnnoList();
+        out.defaultWriteObject();
+    }
+
     private void readObject(java.io.ObjectInputStream in) throws IOException, ClassNotFoundException {
         in.defaultReadObject();
         memberType = MemberType.getItemType(memberType.toString());
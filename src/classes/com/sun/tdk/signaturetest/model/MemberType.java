@@ -75,12 +75,40 @@ public final class MemberType implements Comparable<MemberType>, Serializable {
     }
 
     public static MemberType getItemType(String def) {
-        for (MemberType knownType : knownTypes) {
-            if (def.startsWith(knownType.name)) {
-                return knownType;
-            }
+        if (def.isEmpty()) {
+            return null;
         }
-        return null;
+        // called for every sigfile line, the first char selects the only candidate
+        MemberType type;
+        switch (def.charAt(0)) {
+            case 'C':
+                type = CLASS;
+                break;
+            case 's':
+                type = SUPERCLASS;
+                break;
+            case 'i':
+                type = def.startsWith(INNER.name) ? INNER : SUPERINTERFACE;
+                break;
+            case 'c':
+                type = CONSTRUCTOR;
+                break;
+            case 'm':
+                type = METHOD;
+                break;
+            case 'f':
+                type = FIELD;
+                break;
+            case '<':
+                type = MODULE;
+                break;
+            case 'p':
+                type = PERMITTEDSUBCLASS;
+                break;
+            default:
+                return null;
+        }
+        return def.startsWith(type.name) ? type : null;
     }
 
     Modifier[] getApplicableModifiers() {
@@ -123,6 +151,14 @@ public final class MemberType implements Comparable<MemberType>, Serializable {
         }
     }
 
+    /**
+     * Restores the default set of tracked modifiers.
+     */
+    public static void resetMode() {
+        Modifier.resetTracked();
+        setMode(false);
+    }
+
     public static void setMode(boolean binary) {
         // track vararg modifier only in source mode; its absence does not break binary compatibility
         Modifier.VARARGS.setTracked(!binary);
@@ -25,6 +25,7 @@
 package com.sun.tdk.signaturetest.model;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +36,8 @@ import java.util.Map;
 public final class Modifier implements Serializable {
 
     private static final Map<String, Modifier> knownModifiers = new HashMap<>();
+    // knownModifiers indexed by the name length, for the lookup by characters
+    private static volatile Modifier[][] modifiersByLength = {};
     public static final Modifier ABSTRACT = new Modifier("abstract", 0x00000400, java.lang.reflect.Modifier.ABSTRACT, true);
     public static final Modifier PUBLIC = new Modifier("public", 0x00000001, java.lang.reflect.Modifier.PUBLIC, true);
     public static final Modifier PRIVATE = new Modifier("private", 0x00000002, java.lang.reflect.Modifier.PRIVATE, true);
@@ -76,10 +79,58 @@ public final class Modifier implements Serializable {
         this.isTracked = isTracked;
     }
 
+    /**
+     * Restores the tracking state of all the modifiers changed by
+     * {@link #setTracked(boolean)}.
+     */
+    public static void resetTracked() {
+        for (Modifier m : knownModifiers.values()) {
+            m.isTracked = m.isTrackedByDefault;
+        }
+    }
+
     public static Modifier getModifier(String name) {
         return knownModifiers.get(name);
     }
 
+    /**
+     * Returns the modifier named by the characters {@code chars[from..to)},
+     * or {@code null}, without creating a string for the name.
+     */
+    public static Modifier getModifier(char[] chars, int from, int to) {
+        int len = to - from;
+        Modifier[][] byLength = modifiersByLength;
+        if (len >= byLength.length) {
+            return null;
+        }
+        for (Modifier m : byLength[len]) {
+            String name = m.name;
+            int i = 0;
+            while (i < len && name.charAt(i) == chars[from + i]) {
+                i++;
+            }
+            if (i == len) {
+                return m;
+            }
+        }
+        return null;
+    }
+
+    private static void addByLength(Modifier m) {
+        int len = m.name.length();
+        Modifier[][] byLength = Arrays.copyOf(modifiersByLength, Math.max(len + 1, modifiersByLength.length));
+        Modifier[] same = byLength[len] == null ? new Modifier[0] : byLength[len];
+        same = Arrays.copyOf(same, same.length + 1);
+        same[same.length - 1] = m;
+        byLength[len] = same;
+        for (int i = 0; i < byLength.length; i++) {
+            if (byLength[i] == null) {
+                byLength[i] = new Modifier[0];
+            }
+        }
+        modifiersByLength = byLength;
+    }
+
     public static Modifier[] getAllModifiers() {
         return knownModifiers.values().toArray(new Modifier[]{});
     }
@@ -141,7 +192,9 @@ public final class Modifier implements Serializable {
         this.name = name;
         this.value = vmID;
         this.isTracked = isTracked;
+        this.isTrackedByDefault = isTracked;
         knownModifiers.put(name, this);
+        addByLength(this);
     }
 
     public Modifier(String name, boolean isTracked) {
@@ -163,7 +216,9 @@ public final class Modifier implements Serializable {
         this.name = name;
         this.value = v;
         this.isTracked = isTracked;
+        this.isTrackedByDefault = isTracked;
         knownModifiers.put(name, this);
+        addByLength(this);
     }
 
     /**
@@ -183,4 +238,5 @@ public final class Modifier implements Serializable {
     private final int value;
     // true if the modifier has an influence on compatibility
     private boolean isTracked;
+    private final boolean isTrackedByDefault;
 }
@@ -50,14 +50,19 @@ public class PackageDescr {
     }
 
     public void add(ClassDescription cd) {
-        for (int i = 0; i < classes.size(); i++) {
-            if ((classes.get(i)).getQualifiedName()
-                    .compareTo(cd.getQualifiedName()) > 0) {
-                classes.add(i, cd);
-                return;
+        // classes are kept sorted by name, insert after the last one not greater
+        String name = cd.getQualifiedName();
+        int lo = 0;
+        int hi = classes.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (classes.get(mid).getQualifiedName().compareTo(name) > 0) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
             }
         }
-        classes.add(cd);
+        classes.add(lo, cd);
     }
 
     public void add(PackageDescr pd) {
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.tdk.signaturetest.remote;
+
+import com.sun.tdk.signaturetest.model.ClassDescriptionCodec;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.StringTokenizer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Finds the classes of this virtual machine in the directories and archives
+ * listed by the {@code sun.boot.class.path} and {@code java.class.path}
+ * properties. The paths are read once, when the first package is listed.
+ *
+ * @see ClassDescriptionCodec#answer
+ */
+class PathLister implements ClassDescriptionCodec.PackageLister {
+
+    private static final String CLASS_SUFFIX = ".class";
+    private List<String> classes;
+
+    public synchronized Collection<String> listClasses(String packageName, boolean subpackages) {
+        if (classes == null) {
+            classes = new ArrayList<>();
+            addPath(System.getProperty("sun.boot.class.path"));
+            addPath(System.getProperty("java.class.path"));
+        }
+
+        String prefix = packageName.isEmpty() ? "" : packageName + '.';
+        List<String> result = new ArrayList<>();
+        for (String name : classes) {
+            if (name.startsWith(prefix)
+                    && (subpackages || name.indexOf('.', prefix.length()) < 0)) {
+                result.add(name);
+            }
+        }
+        return result;
+    }
+
+    private void addPath(String path) {
+        if (path == null) {
+            return;
+        }
+        StringTokenizer st = new StringTokenizer(path, File.pathSeparator);
+        while (st.hasMoreTokens()) {
+            File f = new File(st.nextToken());
+            if (f.isDirectory()) {
+                addDirectory(f, "");
+            } else if (f.isFile()) {
+                addArchive(f);
+            }
+        }
+    }
+
+    private void addDirectory(File dir, String packagePrefix) {
+        String[] names = dir.list();
+        if (names == null) {
+            return;
+        }
+        for (String name : names) {
+            File f = new File(dir, name);
+            if (f.isDirectory()) {
+                addDirectory(f, packagePrefix + name + '.');
+            } else if (name.endsWith(CLASS_SUFFIX)) {
+                addClass(packagePrefix + name.substring(0, name.length() - CLASS_SUFFIX.length()));
+            }
+        }
+    }
+
+    private void addArchive(File f) {
+        try (ZipFile zip = new ZipFile(f)) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (name.endsWith(CLASS_SUFFIX)) {
+                    addClass(name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.'));
+                }
+            }
+        } catch (IOException e) {
+            // not an archive, or can't be read
+        }
+    }
+
+    private void addClass(String name) {
+        // module-info and package-info are not classes
+        if (name.indexOf('-') < 0) {
+            classes.add(name);
+        }
+    }
+}
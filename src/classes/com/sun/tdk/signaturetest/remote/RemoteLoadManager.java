@@ -25,20 +25,89 @@
 package com.sun.tdk.signaturetest.remote;
 
 import com.sun.tdk.signaturetest.loaders.ReflClassDescrLoader;
+import com.sun.tdk.signaturetest.model.ClassDescriptionCodec;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectOutputStream;
 import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
 
 /**
+ * Describes classes of the remote virtual machine for the signature test
+ * running elsewhere. The test sends requests written by
+ * {@link com.sun.tdk.signaturetest.loaders.RemoteClassDescrLoader}, each of
+ * which may ask for many classes or for whole packages, and
+ * {@link #handleRequest} answers them. The requests come either through the
+ * transport of the test harness or, if this class is run as a program,
+ * through a socket: {@code RemoteLoadManager <port>} answers the requests of
+ * a test run with {@code -Remote <host>:<port>}.
+ *
  * @author Sergey Borodin
  */
 public class RemoteLoadManager {
 
+    private static final PathLister lister = new PathLister();
+
     // prevent creating this utility class
     private RemoteLoadManager() {
     }
 
+    /**
+     * Answers the requests coming to the given port, one request per
+     * connection, until the process is stopped.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: RemoteLoadManager <port>");
+            System.exit(1);
+        }
+        ServerSocket server = new ServerSocket(Integer.parseInt(args[0]));
+        while (true) {
+            Socket s = server.accept();
+            try {
+                OutputStream out = new BufferedOutputStream(s.getOutputStream());
+                handleRequest(new BufferedInputStream(s.getInputStream()), out);
+                out.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                s.close();
+            }
+        }
+    }
+
+    /**
+     * Reads a request and writes the descriptions of all the requested
+     * classes, including the classes found in the requested packages.
+     *
+     * @see ClassDescriptionCodec
+     * @see PathLister
+     */
+    public static void handleRequest(InputStream in, OutputStream out) throws IOException {
+        ClassDescriptionCodec.answer(new ReflClassDescrLoader(), lister, in, out);
+    }
+
+    /**
+     * Same as {@link #handleRequest(InputStream, OutputStream)} for a request
+     * received as a single message.
+     */
+    public static byte[] handleRequest(byte[] request) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        handleRequest(new ByteArrayInputStream(request), out);
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes the description of one class as a serialized object. This is
+     * the older exchange; {@link #handleRequest(byte[])} describes many
+     * classes per message in a more compact form.
+     */
     public static void writeClassDescription(String name, OutputStream out) {
         ReflClassDescrLoader loader = new ReflClassDescrLoader();
         Object descr;
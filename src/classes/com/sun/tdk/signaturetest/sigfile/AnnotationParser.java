@@ -32,130 +32,63 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
+ * Parses annotations in the form written by {@link AnnotationItem#toString()}.
+ * Equal annotation strings passed to {@link #parse(String)} of the same parser
+ * give the same {@code AnnotationItem} instance, so frequent annotations such
+ * as {@code @Deprecated} are shared by all the members of a signature file.
+ * The parser scans the string once, values of members (including nested
+ * annotations) are kept as substrings.
+ *
  * @author Sergey Ivashin
  * @author Mikhail Ershov
  */
-public class AnnotationParser {
+public class AnnotationParser implements AnnotationItem.Parser {
 
     private static final String CLASS_PREFIX = "java.lang.Class";
     private static final I18NResourceBundle i18n = I18NResourceBundle.getBundleForClass(AnnotationParser.class);
+    private final ConcurrentMap<String, AnnotationItem> parsed = new ConcurrentHashMap<>();
 
     // Opposite action that toString() method does.
     // TODO should be moved to the parser as well as "toString" moved to the writer
     public AnnotationItem parse(String str) {
-        return parse(new StringBuffer(str));
-    }
-
-    private AnnotationItem parse(StringBuffer theRest) {
-
-        if (theRest == null) {
-            return null;
-        }
-
-//        str = "anno 0 javax.xml.ws.BindingType(java.lang.String value=\"http://schemas.xmlsoap.org/wsdl/soap/http\", javax.xml.ws.Feature[] features=[anno 0 javax.xml.ws.Feature(boolean enabled=true, java.lang.String value=\"http://www.w3.org/2005/08/addressing/module\", javax.xml.ws.FeatureParameter[] parameters=[]), anno 0 javax.xml.ws.Feature(boolean enabled=true, java.lang.String value=\"http://www.w3.org/2004/08/soap/features/http-optimization\", javax.xml.ws.FeatureParameter[] parameters=[anno 0 javax.xml.ws.FeatureParameter(java.lang.String name=\"MTOM_THRESHOLD\", java.lang.String value=\"1000\")])]):     anno 0 javax.xml.ws.BindingType(java.lang.String value=\\\"http://schemas.xmlsoap.org/wsdl/soap/http\\\", javax.xml.ws.Feature[] features=[anno 0 javax.xml.ws.Feature(boolean enabled=true, java.lang.String value=\\\"http://www.w3.org/2005/08/addressing/module\\\", javax.xml.ws.FeatureParameter[] parameters=[]), anno 0 javax.xml.ws.Feature(boolean enabled=true, java.lang.String value=\\\"http://www.w3.org/2004/08/soap/features/http-optimization\\\", javax.xml.ws.FeatureParameter[] parameters=[anno 0 javax.xml.ws.FeatureParameter(java.lang.String name=\\\"MTOM_THRESHOLD\\\", java.lang.String value=\\\"1000\\\")])])";
-        String str = theRest.toString();
-        AnnotationItem item;
-
-        if (!str.startsWith(AnnotationItem.ANNOTATION_PREFIX) && !str.startsWith(AnnotationItemEx.ANNOTATION_EX_PREFIX)) {
-            throw new IllegalArgumentException(i18n.getString("AnnotationParser.error.bad_annotation_descr") + str);
-        }
-
-        if (str.startsWith(AnnotationItemEx.ANNOTATION_EX_PREFIX)) {
-            item = new AnnotationItemEx();
-        } else {
-            item = new AnnotationItem();
-        }
-
-        int pos;
-        pos = str.indexOf(' ');
-        // skip the prefix
-        str = str.substring(pos).trim();
-
-        pos = str.indexOf(' ');
-        String specificData = str.substring(0, pos);
-        if (item instanceof AnnotationItemEx) {
-            parseAnnExData((AnnotationItemEx) item, specificData);
-        } else {
-            parseAnnData(item, specificData);
-        }
-
-        // remove target
-        str = str.substring(pos + 1);
-
-        pos = str.indexOf('(');
-        item.setName(str.substring(0, pos).trim());
-        int endPos = findCorresponding(str, '(', ')');
-        String rest = str.substring(endPos + 1);
-        str = str.substring(pos + 1, endPos);
-
-        if (!str.isEmpty()) {
-
-            while (!str.isEmpty() && str.charAt(0) != ')') {
-                pos = parseMember(item, str);
-                str = str.substring(pos);
-                if (!str.isEmpty() && str.charAt(0) == ',') {
-                    str = str.substring(1).trim();
-                }
+        AnnotationItem item = parsed.get(str);
+        if (item == null) {
+            item = new Scanner(str, 0, str.length()).annotation();
+            AnnotationItem other = parsed.putIfAbsent(str, item);
+            if (other != null) {
+                item = other;
             }
         }
-
-        theRest.delete(0, theRest.length() - 1); // clear old if any
-        theRest.append(rest);
-
         return item;
-
     }
 
     // unpack annotations from Container's array
     public List<AnnotationItem> unpack(String annS) {
         List<AnnotationItem> res = new ArrayList<>();
         String str = annS.trim();
-        if (str.charAt(0) == '[') {
-            str = str.substring(1);
-        } else {
+        if (str.charAt(0) != '[') {
             return Collections.emptyList();
         }
 
-        if (str.charAt(str.length() - 1) == ']') {
-            str = str.substring(0, str.length() - 1);
+        int end = str.length();
+        if (str.charAt(end - 1) == ']') {
+            end--;
         }
 
-        StringBuffer sb = new StringBuffer(str);
-        while (sb.length() > 0) {
-            AnnotationItem nA = parse(sb);
-            res.add(nA);
-            if (sb.length() > 0 && sb.charAt(0) == ')') {
-                sb.deleteCharAt(0);
-            }
-            if (sb.length() > 0 && sb.charAt(0) == ',') {
-                sb.deleteCharAt(0);
-            }
-            if (sb.length() > 0 && sb.charAt(0) == ' ') {
-                sb.deleteCharAt(0);
-            }
+        Scanner sc = new Scanner(str, 1, end);
+        while (sc.pos < end) {
+            res.add(sc.annotation());
+            sc.skip(',');
+            sc.skip(' ');
         }
 
         return res;
     }
 
-    private static int findCorresponding(String str, char open, char close) {
-        char[] chars = str.toCharArray();
-        int count = 0;
-        for (int i = 0; i < chars.length; i++) {
-            if (chars[i] == open) {
-                count++;
-            } else if (chars[i] == close) {
-                count--;
-                if (count == 0) {
-                    return i;
-                }
-            }
-        }
-        return -1;
-    }
-
     private static void parseAnnData(AnnotationItem item, String specificData) {
         item.setTarget(Integer.parseInt(specificData));
     }
@@ -195,105 +128,242 @@ public class AnnotationParser {
         }
     }
 
-    protected int parseMember(AnnotationItem item, String str) {
+    /**
+     * Reads annotations from a region of a string. Positions move forward
+     * only, so the work is linear in the length of the region however deep
+     * the values are nested.
+     */
+    private static final class Scanner {
+
+        private final String str;
+        private final int end;
+        private int pos;
+
+        Scanner(String str, int pos, int end) {
+            this.str = str;
+            this.pos = pos;
+            this.end = end;
+        }
 
-        int pos, result = 0;
+        // anno 0 javax.xml.ws.BindingType(java.lang.String value="http://schemas.xmlsoap.org/wsdl/soap/http", javax.xml.ws.Feature[] features=[anno 0 javax.xml.ws.Feature(boolean enabled=true, java.lang.String value="http://www.w3.org/2005/08/addressing/module", javax.xml.ws.FeatureParameter[] parameters=[])])
+        AnnotationItem annotation() {
 
-        AnnotationItem.Member m = new AnnotationItem.Member();
+            AnnotationItem item;
 
-        pos = str.indexOf(' ');
+            if (str.startsWith(AnnotationItemEx.ANNOTATION_EX_PREFIX, pos)) {
+                item = new AnnotationItemEx();
+            } else if (str.startsWith(AnnotationItem.ANNOTATION_PREFIX, pos)) {
+                item = new AnnotationItem();
+            } else {
+                throw error();
+            }
 
-        // java.lang.Class<? extends java.util.ArrayList<? super javax.swing.JLabel>> value=class com.sun.tdk.signaturetest.model.Regtest_6564000$CL_4
-        if (str.startsWith(CLASS_PREFIX + "<")) {
-            // skip possible spaces inside
-            char[] strChar = str.toCharArray();
-            int level = 0;
-            for (int i = CLASS_PREFIX.length(); i < strChar.length; i++) {
-                if (strChar[i] == '<') {
-                    level++;
-                } else if (strChar[i] == '>') {
-                    level--;
-                }
-                if (level == 0 && strChar[i + 1] == ' ') {
-                    pos = i + 1;
-                    break;
-                }
+            // skip the prefix
+            pos = indexOf(' ', pos);
+            skipSpaces();
+
+            int next = indexOf(' ', pos);
+            String specificData = str.substring(pos, next);
+            if (item instanceof AnnotationItemEx) {
+                parseAnnExData((AnnotationItemEx) item, specificData);
+            } else {
+                parseAnnData(item, specificData);
             }
-        }
 
-        m.type = str.substring(0, pos);
-        str = str.substring(pos + 1).trim();
-        result += pos + 1;
+            // remove target
+            pos = next + 1;
 
-        pos = str.indexOf('=');
-        m.name = str.substring(0, pos);
+            int open = indexOf('(', pos);
+            item.setName(str.substring(pos, open).trim());
+            int close = findCorresponding(open);
+            if (close < 0) {
+                throw error();
+            }
 
-        str = str.substring(pos + 1).trim();
-        result += pos + 1;
+            pos = open + 1;
+            skipSpaces();
+            while (pos < close && str.charAt(pos) != ')') {
+                parseMember(item, close);
+                if (pos < close && str.charAt(pos) == ',') {
+                    pos++;
+                    skipSpaces();
+                }
+            }
 
-        char ch = str.charAt(0);
+            pos = close + 1;
+            return item;
+        }
 
-        switch (ch) {
-            case '[': {
-                pos = findClosingBracket(str, 1, '[', ']') + 1;
-                break;
+        // java.lang.Class<? extends java.util.ArrayList<? super javax.swing.JLabel>> value=class com.sun.tdk.signaturetest.model.Regtest_6564000$CL_4
+        private void parseMember(AnnotationItem item, int limit) {
+
+            AnnotationItem.Member m = new AnnotationItem.Member();
+
+            int typeEnd = str.indexOf(' ', pos);
+
+            if (str.startsWith(CLASS_PREFIX + "<", pos)) {
+                // skip possible spaces inside
+                int level = 0;
+                for (int i = pos + CLASS_PREFIX.length(); i < end - 1; i++) {
+                    char ch = str.charAt(i);
+                    if (ch == '<') {
+                        level++;
+                    } else if (ch == '>') {
+                        level--;
+                    }
+                    if (level == 0 && str.charAt(i + 1) == ' ') {
+                        typeEnd = i + 1;
+                        break;
+                    }
+                }
             }
 
-            case '"':
-            case '\'': {
-                pos = str.indexOf(ch, 1) + 1;
-                break;
+            if (typeEnd < 0 || typeEnd >= limit) {
+                throw error();
             }
+            m.type = str.substring(pos, typeEnd);
+            pos = typeEnd + 1;
+            skipSpaces();
 
-            case 'a': {
-                if (str.startsWith(AnnotationItem.ANNOTATION_PREFIX)) {
-                    AnnotationItem a = parse(str);
-                    pos = a.toString().length();
-                    break;
+            int eq = str.indexOf('=', pos);
+            if (eq < 0 || eq >= limit) {
+                throw error();
+            }
+            m.name = str.substring(pos, eq);
+            pos = eq + 1;
+            skipSpaces();
+
+            int valueEnd = limit;
+
+            if (pos < limit) {
+                char ch = str.charAt(pos);
+                switch (ch) {
+                    case '[': {
+                        valueEnd = findClosingBracket(pos + 1, limit, '[', ']') + 1;
+                        break;
+                    }
+
+                    case '"':
+                    case '\'': {
+                        valueEnd = literalEnd(pos, limit) + 1;
+                        break;
+                    }
+
+                    case 'a': {
+                        if (str.startsWith(AnnotationItem.ANNOTATION_PREFIX, pos)) {
+                            int open = str.indexOf('(', pos);
+                            if (open >= 0 && open < limit) {
+                                valueEnd = findCorresponding(open) + 1;
+                            }
+                            break;
+                        }
+                    }
+
+                    default: {
+                        valueEnd = indexOf(',', pos, limit);
+
+                        if (valueEnd == -1) {
+                            valueEnd = indexOf(')', pos, limit);
+                        }
+                    }
                 }
             }
 
-            default: {
-                pos = str.indexOf(',');
+            if (valueEnd <= pos || valueEnd > limit) {
+                valueEnd = limit;
+            }
 
-                if (pos == -1) {
-                    pos = str.indexOf(')');
-                }
+            m.value = str.substring(pos, valueEnd);
+            item.addMember(m);
 
-                if (pos == -1) {
-                    pos = str.length();
-                }
+            pos = valueEnd;
+        }
+
+        void skip(char ch) {
+            if (pos < end && str.charAt(pos) == ch) {
+                pos++;
             }
         }
 
-        m.value = str.substring(0, pos);
-        item.addMember(m);
+        private void skipSpaces() {
+            while (pos < end && str.charAt(pos) <= ' ') {
+                pos++;
+            }
+        }
 
-        result += pos;
-        return result;
-    }
+        private int indexOf(char ch, int from) {
+            int i = indexOf(ch, from, end);
+            if (i < 0) {
+                throw error();
+            }
+            return i;
+        }
 
-    private static int findClosingBracket(String str, int startPos, char openingChar, char closingChar) {
+        private int indexOf(char ch, int from, int limit) {
+            int i = str.indexOf(ch, from);
+            return i < limit ? i : -1;
+        }
 
-        int level = 0;
-        int len = str.length();
-        for (int i = startPos; i < len; ++i) {
+        // Returns the position of the parenthesis closing the one at the given position.
+        private int findCorresponding(int open) {
+            int count = 0;
+            for (int i = open; i < end; i++) {
+                i = literalEnd(i, end);
+                char ch = str.charAt(i);
+                if (ch == '(') {
+                    count++;
+                } else if (ch == ')') {
+                    count--;
+                    if (count == 0) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
 
-            char ch = str.charAt(i);
+        private int findClosingBracket(int startPos, int limit, char openingChar, char closingChar) {
 
-            if (ch == openingChar) {
-                ++level;
-                continue;
-            }
+            int level = 0;
+            for (int i = startPos; i < limit; ++i) {
+
+                i = literalEnd(i, limit);
+                char ch = str.charAt(i);
 
-            if (ch == closingChar) {
-                if (level == 0) {
-                    return i;
+                if (ch == openingChar) {
+                    ++level;
+                    continue;
                 }
-                --level;
+
+                if (ch == closingChar) {
+                    if (level == 0) {
+                        return i;
+                    }
+                    --level;
+                }
+            }
+
+            return -1;
+        }
+
+        // Returns the position of the closing quote of the string or character
+        // literal which starts at the given position, or the position itself
+        // if there is no literal. Quotes and backslashes inside the literals
+        // are escaped by MemberDescription.valueToString(), so brackets and
+        // parentheses in string values are skipped safely.
+        private int literalEnd(int i, int limit) {
+            char ch = str.charAt(i);
+            int close = i;
+            if (ch == '"') {
+                close = str.indexOf('"', i + 1);
+            } else if (ch == '\'' && i + 1 < limit) {
+                close = str.charAt(i + 1) == '\\' ? str.indexOf('\'', i + 2) : i + 2;
             }
+            return close > i && close < limit && str.charAt(close) == ch ? close : i;
         }
 
-        return -1;
+        private IllegalArgumentException error() {
+            return new IllegalArgumentException(i18n.getString("AnnotationParser.error.bad_annotation_descr") + str.substring(Math.min(pos, str.length())));
+        }
     }
 }
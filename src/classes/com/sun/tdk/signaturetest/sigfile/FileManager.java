@@ -24,23 +24,33 @@
  */
 package com.sun.tdk.signaturetest.sigfile;
 
+import com.sun.tdk.signaturetest.core.AppContext;
 import com.sun.tdk.signaturetest.sigfile.f42.F42Format;
 import com.sun.tdk.signaturetest.sigfile.f41.F41Format;
 import com.sun.tdk.signaturetest.sigfile.f40.F40Format;
 import com.sun.tdk.signaturetest.sigfile.f31.F31Format;
 import com.sun.tdk.signaturetest.sigfile.f21.F21Format;
 import com.sun.tdk.signaturetest.sigfile.f43.F43Format;
+import com.sun.tdk.signaturetest.util.ChannelWriter;
+import com.sun.tdk.signaturetest.util.InputCache;
+import com.sun.tdk.signaturetest.util.Stats;
 
-import java.io.BufferedReader;
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.io.PrintWriter;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.channels.Channels;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * @author Mikhail Ershov
@@ -48,6 +58,9 @@ import java.util.Set;
 public class FileManager {
 
     private static final String DEFAULT_PROTOCOL = "file:";
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final int BUFSIZE = 0x10000;
+    private static final int MAX_HEADER = 1024;
 
     public static URL getURL(String testURL, String fileName) throws MalformedURLException {
 
@@ -71,42 +84,100 @@ public class FileManager {
         return result;
     }
 
-    private static String getFormat(URL fileURL) {
-        String currentLine;
-        try (BufferedReader in = new BufferedReader(new InputStreamReader(fileURL.openStream(), StandardCharsets.UTF_8))) {
-            if ((currentLine = in.readLine()) == null) {
-                return null;
-            }
-            currentLine = currentLine.trim();
-        } catch (IOException e) {
-            return null;
+    /**
+     * Opens the signature file {@code fileURL} for reading. A gzip
+     * compressed file, recognized by its magic bytes, is decompressed on the
+     * fly. The stream supports mark/reset, so the format header can be
+     * sniffed without opening the file again.
+     */
+    public static InputStream openSigFile(URL fileURL) throws IOException {
+        InputStream in = new BufferedInputStream(
+                AppContext.getContext().getBean(Stats.class).count(InputCache.open(fileURL)), BUFSIZE);
+        if (isCompressed(in)) {
+            in = new BufferedInputStream(new GZIPInputStream(in, BUFSIZE), BUFSIZE);
         }
-        return currentLine;
+        return in;
     }
 
     /**
-     * Returns the latest Writer for format supported given set of features
+     * Checks whether {@code file} is a gzip compressed file.
      */
-    public Writer getWriter(Set<FeaturesHolder.Feature> features) {
+    public static boolean isCompressed(File file) {
+        if (!file.isFile()) {
+            return false;
+        }
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file), 2)) {
+            return isCompressed(in);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean isCompressed(InputStream in) throws IOException {
+        in.mark(2);
+        int b1 = in.read();
+        int b2 = in.read();
+        in.reset();
+        return b1 == (GZIPInputStream.GZIP_MAGIC & 0xff) && b2 == (GZIPInputStream.GZIP_MAGIC >> 8);
+    }
 
-        List<Format> applicableFormats = new ArrayList<>(formats.size());
+    /**
+     * Opens the signature file {@code fileName} for writing. The text is
+     * encoded to UTF-8 in a large buffer written through a file channel. If
+     * the name ends with {@code .gz}, the file is gzip compressed.
+     */
+    public static PrintWriter openWriter(String fileName) throws IOException {
+        FileOutputStream out = new FileOutputStream(fileName);
+        if (fileName.toLowerCase().endsWith(GZIP_SUFFIX)) {
+            return new PrintWriter(new ChannelWriter(Channels.newChannel(new GZIPOutputStream(out, BUFSIZE))));
+        }
+        return new PrintWriter(new ChannelWriter(out.getChannel()));
+    }
 
-        for (Format format : formats) {
-            Set<FeaturesHolder.Feature> formatFeatures = format.getSupportedFeatures();
-            if (features.equals(formatFeatures)) {
-                applicableFormats.add(format);
+    // reads the first line and steps back to the start of the stream
+    private static String getFormat(InputStream in) {
+        byte[] line = new byte[MAX_HEADER];
+        int n = 0;
+        int c = -1;
+        try {
+            in.mark(MAX_HEADER + 1);
+            while (n < MAX_HEADER && (c = in.read()) != -1 && c != '\n' && c != '\r') {
+                line[n++] = (byte) c;
             }
+            in.reset();
+        } catch (IOException e) {
+            return null;
+        }
+        if (n == 0 && c == -1) {
+            return null;
         }
+        return new String(line, 0, n, StandardCharsets.UTF_8).trim();
+    }
+
+    /**
+     * Returns the latest Writer for format supported given set of features.
+     * The features read from a file may lack some of its format, dropped by
+     * the headers of the file, so the format closest to the given features
+     * is used.
+     */
+    public Writer getWriter(Set<FeaturesHolder.Feature> features) {
 
+        int fewestExtra = Integer.MAX_VALUE;
         double latestVersion = 0;
         Writer latestWriter = null;
 
-        for (Format f : applicableFormats) {
+        for (Format f : formats) {
+            Set<FeaturesHolder.Feature> formatFeatures = f.getSupportedFeatures();
+            if (!formatFeatures.containsAll(features)) {
+                continue;
+            }
+            int extra = formatFeatures.size() - features.size();
 
             String[] sv = f.getVersion().split(" ");
             double v = Double.parseDouble(sv[sv.length - 1].substring(1));
 
-            if (v > latestVersion) {
+            if (extra < fewestExtra || (extra == fewestExtra && v > latestVersion)) {
+                fewestExtra = extra;
                 latestVersion = v;
                 latestWriter = f.getWriter();
             }
@@ -115,7 +186,21 @@ public class FileManager {
     }
 
     public Reader getReader(URL fileURL) {
-        String format = getFormat(fileURL);
+        try (InputStream in = openSigFile(fileURL)) {
+            return getReader(in);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the reader for the format of the signature file, the header
+     * is read from {@code in} which is then left at its start.
+     *
+     * @see #openSigFile(URL)
+     */
+    public Reader getReader(InputStream in) {
+        String format = getFormat(in);
         if (format != null) {
             for (Format f : formats) {
                 if (f.isApplicable(format)) {
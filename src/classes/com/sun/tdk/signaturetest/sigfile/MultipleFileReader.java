@@ -31,13 +31,16 @@ import com.sun.tdk.signaturetest.loaders.VirtualClassDescriptionLoader;
 import com.sun.tdk.signaturetest.model.ClassDescription;
 import com.sun.tdk.signaturetest.toyxml.Elem;
 import com.sun.tdk.signaturetest.util.I18NResourceBundle;
+import com.sun.tdk.signaturetest.util.Stats;
 import com.sun.tdk.signaturetest.util.SwissKnife;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.StringTokenizer;
@@ -56,6 +59,7 @@ public class MultipleFileReader extends VirtualClassDescriptionLoader implements
     private String apiVersion;
     private final FileManager fileMan;
     private final BaseOptions bo = AppContext.getContext().getBean(BaseOptions.class);
+    private final Stats stats = AppContext.getContext().getBean(Stats.class);
     private List<Elem> elements;
 
     public MultipleFileReader(PrintWriter log, int mode, FileManager f) {
@@ -86,15 +90,43 @@ public class MultipleFileReader extends VirtualClassDescriptionLoader implements
     }
 
     public boolean readSignatureFile(String testURL, String sigFileName) {
+        return readSignatureFile(testURL, sigFileName, false);
+    }
+
+    /**
+     * Reads only XML elements (module descriptions) from the signature file.
+     * Class descriptions are skipped, so {@link #nextClass()} returns nothing
+     * for this file.
+     */
+    public boolean readElements(String testURL, String sigFileName) {
+        return readSignatureFile(testURL, sigFileName, true);
+    }
+
+    /**
+     * Takes the classes built in memory, for example by a merge, instead of
+     * reading them from a signature file.
+     */
+    public void readClasses(VirtualClassDescriptionLoader classes, String apiVersion) {
+        setFeatures(classes.getSupportedFeatures());
+        for (Iterator<ClassDescription> i = classes.getClassIterator(); i.hasNext(); ) {
+            add(i.next());
+        }
+        this.apiVersion = apiVersion;
+        elements = new ArrayList<>();
+        rewind();
+    }
+
+    private boolean readSignatureFile(String testURL, String sigFileName, boolean elemsOnly) {
 
         assert testURL != null;
         assert sigFileName != null;
 
         boolean result;
 
+        Stats.Span span = stats.start(Stats.Phase.SIGFILE_READ);
         try {
             URL fileURL = FileManager.getURL(testURL, sigFileName);
-            result = readFile(fileURL);
+            result = readFile(fileURL, elemsOnly);
         } catch (MalformedURLException e) {
             if (bo.isSet(Option.DEBUG)) {
                 SwissKnife.reportThrowable(e);
@@ -102,22 +134,35 @@ public class MultipleFileReader extends VirtualClassDescriptionLoader implements
             String[] invargs = {testURL, e.getMessage()};
             log.println(i18n.getString("MultipleFileReader.error.url.threwerror", invargs));
             return false;
+        } finally {
+            span.end();
         }
         rewind();
         return result;
     }
 
-    private boolean readFile(URL fileURL) {
+    private boolean readFile(URL fileURL, boolean elemsOnly) {
 
         String msg = null;
 
+        // the file is opened once, the format header is sniffed from the same stream
+        InputStream is;
+        try {
+            is = FileManager.openSigFile(fileURL);
+        } catch (IOException e) {
+            return false;
+        }
+
         //  Open the specified sigfile and read standard headers.
-        try (Reader in = fileMan.getReader(fileURL)) {
+        try (InputStream file = is; Reader in = fileMan.getReader(file)) {
             if (in == null) {
                 return false;
             }
 
-            if (!in.readSignatureFile(fileURL)) {
+            boolean read = in instanceof SignatureClassLoader
+                    ? ((SignatureClassLoader) in).readSignatureFile(file)
+                    : in.readSignatureFile(fileURL);
+            if (!read) {
                 msg = i18n.getString("MultipleFileReader.error.sigfile.invalid", fileURL);
             }
 
@@ -133,22 +178,27 @@ public class MultipleFileReader extends VirtualClassDescriptionLoader implements
 
             apiVersion = in.getApiVersion();
 
-            ClassDescription cl;
-            while ((cl = in.readNextClass()) != null) {
-
-                String name = cl.getQualifiedName();
-                if (mode == CLASSPATH_MODE) {
-                    try {
-                        load(name);
-                    } catch (ClassNotFoundException ex) {
-                        // use only first class description
-                        add(cl);
+            if (elemsOnly && in instanceof SignatureClassLoader) {
+                elements = ((SignatureClassLoader) in).readElems();
+            } else {
+                ClassDescription cl;
+                while ((cl = in.readNextClass()) != null) {
+
+                    String name = cl.getQualifiedName();
+                    if (mode == CLASSPATH_MODE) {
+                        try {
+                            load(name);
+                        } catch (ClassNotFoundException ex) {
+                            stats.inc(Stats.Counter.CONTROL_FLOW_EXCEPTIONS);
+                            // use only first class description
+                            add(cl);
+                        }
+                    } else {
+                        assert mode == MERGE_MODE;
                     }
-                } else {
-                    assert mode == MERGE_MODE;
                 }
+                elements = in.getElems();
             }
-            elements = in.getElems();
         } catch (IOException e) {
             if (bo.isSet(Option.DEBUG)) {
                 SwissKnife.reportThrowable(e);
@@ -24,16 +24,22 @@
  */
 package com.sun.tdk.signaturetest.sigfile;
 
+import com.sun.tdk.signaturetest.core.AppContext;
+import com.sun.tdk.signaturetest.core.context.BaseOptions;
+import com.sun.tdk.signaturetest.core.context.Option;
 import com.sun.tdk.signaturetest.model.ClassDescription;
 import com.sun.tdk.signaturetest.model.MemberType;
 import com.sun.tdk.signaturetest.toyxml.Elem;
+import com.sun.tdk.signaturetest.util.Parallel;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 /**
  * <b>SignatureClassLoader</b> implements input stream sequentially reading
@@ -49,8 +55,18 @@ public abstract class SignatureClassLoader implements Reader {
     protected final Format format;
     protected final Set<FeaturesHolder.Feature> features;
     private BufferedReader in;
+    // the lines after the headers are read from here, see readLine()
+    private char[] buf = new char[BUFSIZE];
+    private int pos;
+    private int limit;
+    private boolean skipLF;
     private final Parser parser;
+    private final List<Parser> parsers = new ArrayList<>();
     private static final int BUFSIZE = 0x8000;
+    private static final int BLOCKS_PER_THREAD = 64;
+    private int threads = 1;
+    private String nextClassDescr;
+    private final ArrayDeque<ClassDescription> parsed = new ArrayDeque<>();
     private final List<Elem> elems;
     /**
      * API version found in {@code this} signature file.
@@ -63,7 +79,8 @@ public abstract class SignatureClassLoader implements Reader {
 
     protected SignatureClassLoader(Format format) {
         this.format = format;
-        features = format.getSupportedFeatures();
+        // a copy, the headers of this file must not change the features of other readers
+        features = new HashSet<>(format.getSupportedFeatures());
         parser = getParser();
         elems = new ArrayList<>();
     }
@@ -86,22 +103,78 @@ public abstract class SignatureClassLoader implements Reader {
     /**
      * Return the next {@code SigFileClassDescription} read from
      * {@code this} signature file.
+     * <p>
+     * With several threads the class blocks which follow are read ahead and
+     * parsed concurrently, each thread with its own parser. The classes are
+     * still returned in the file order.
      *
      * @see ClassDescription
+     * @see com.sun.tdk.signaturetest.core.context.Option#THREADS
      */
     public ClassDescription readNextClass() throws IOException {
 
+        if (!parsed.isEmpty()) {
+            return parsed.removeFirst();
+        }
+
+        if (threads <= 1) {
+            ClassBlock block = readClassBlock();
+            return block == null ? null : block.parse(parser);
+        }
+
+        List<ClassBlock> blocks = new ArrayList<>();
+        ClassBlock block;
+        while (blocks.size() < threads * BLOCKS_PER_THREAD && (block = readClassBlock()) != null) {
+            blocks.add(block);
+        }
+
+        // contiguous parts, so a parser sees neighbouring classes and shares their annotations
+        int partSize = (blocks.size() + threads - 1) / threads;
+        List<Callable<List<ClassDescription>>> tasks = new ArrayList<>();
+        for (int from = 0; from < blocks.size(); from += partSize) {
+            final List<ClassBlock> part = blocks.subList(from, Math.min(from + partSize, blocks.size()));
+            final Parser p = getParser(tasks.size());
+            tasks.add(new Callable<List<ClassDescription>>() {
+                public List<ClassDescription> call() {
+                    List<ClassDescription> result = new ArrayList<>(part.size());
+                    for (ClassBlock b : part) {
+                        result.add(b.parse(p));
+                    }
+                    return result;
+                }
+            });
+        }
+
+        for (List<ClassDescription> result : Parallel.invokeAll(threads, tasks)) {
+            parsed.addAll(result);
+        }
+        return parsed.pollFirst();
+    }
+
+    // the i-th parser, parsers are stateful and can't be shared by threads
+    private Parser getParser(int i) {
+        if (i == 0) {
+            return parser;
+        }
+        while (parsers.size() < i) {
+            parsers.add(getParser());
+        }
+        return parsers.get(i - 1);
+    }
+
+    /*
+     * Reads the lines of the next class. The header line of the class which
+     * follows is kept for the next call instead of reading it again.
+     */
+    private ClassBlock readClassBlock() throws IOException {
+
         String currentLine;
-        String classDescr = null;
+        String classDescr = nextClassDescr;
         List<String> definitions = new ArrayList<>();
+        nextClassDescr = null;
 
-        for (; ; ) {
-            in.mark(BUFSIZE);
-            if ((currentLine = in.readLine()) == null) {
-                break;
-            }
+        while ((currentLine = readLine()) != null) {
 
-            currentLine = currentLine.trim();
             currentLine = preprocessLine(currentLine);
             if (currentLine.isEmpty() || currentLine.startsWith("#")) {
                 continue;
@@ -112,6 +185,7 @@ public abstract class SignatureClassLoader implements Reader {
                 if (classDescr == null) {
                     classDescr = currentLine;
                 } else {
+                    nextClassDescr = currentLine;
                     break;
                 }
             } else if (type == MemberType.MODULE) {
@@ -124,16 +198,46 @@ public abstract class SignatureClassLoader implements Reader {
                 definitions.add(currentLine);
             }
         }
-        in.reset();
 
         if (classDescr == null && definitions.isEmpty()) {
             return null;
         }
 
-        classDescr = convertClassDescr(classDescr);
-        definitions = convertClassDefinitions(definitions);
+        return new ClassBlock(convertClassDescr(classDescr), convertClassDefinitions(definitions));
+    }
+
+    private static final class ClassBlock {
 
-        return parser.parseClassDescription(classDescr, definitions);
+        final String classDescr;
+        final List<String> definitions;
+
+        ClassBlock(String classDescr, List<String> definitions) {
+            this.classDescr = classDescr;
+            this.definitions = definitions;
+        }
+
+        ClassDescription parse(Parser p) {
+            return p.parseClassDescription(classDescr, definitions);
+        }
+    }
+
+    /**
+     * Reads the rest of the signature file collecting XML elements only.
+     * The lines are processed as in {@link #readNextClass()}, but class
+     * definitions are skipped without being parsed.
+     */
+    public List<Elem> readElems() throws IOException {
+        String currentLine;
+        while ((currentLine = readLine()) != null) {
+            currentLine = preprocessLine(currentLine);
+            if (currentLine.isEmpty() || currentLine.startsWith("#")) {
+                continue;
+            }
+            if (MemberType.getItemType(currentLine) == MemberType.MODULE) {
+                readXML("module", currentLine);
+            }
+        }
+        return elems;
     }
 
     public List<Elem> getElems() {
@@ -146,11 +250,11 @@ public abstract class SignatureClassLoader implements Reader {
             line = line.trim();
             line = preprocessLine(line);
             if (line.isEmpty() || line.startsWith("#")) {
-                line = in.readLine();
+                line = readLine();
                 continue;
             }
             xmlTxt.append(line);
-            line = in.readLine();
+            line = readLine();
         }
         Elem d = processXMLFragment(xmlTxt.toString());
         if (d != null) {
@@ -158,6 +262,67 @@ public abstract class SignatureClassLoader implements Reader {
         }
     }
 
+    /*
+     * Returns the next line with the leading and trailing white space
+     * removed, or null at the end of the file. The line is cut straight out
+     * of the reusable buffer, instead of BufferedReader.readLine() and
+     * String.trim() copying it up to three times.
+     */
+    private String readLine() throws IOException {
+        int i = pos;
+        for (; ; ) {
+            while (i < limit) {
+                char c = buf[i];
+                if (skipLF) {
+                    // the second char of "\r\n"
+                    skipLF = false;
+                    if (c == '\n') {
+                        pos = ++i;
+                        continue;
+                    }
+                }
+                if (c == '\n' || c == '\r') {
+                    String line = trimmed(pos, i);
+                    pos = i + 1;
+                    skipLF = c == '\r';
+                    return line;
+                }
+                i++;
+            }
+
+            // move the beginning of the line to the start of the buffer and read more
+            int n = i - pos;
+            if (pos > 0) {
+                System.arraycopy(buf, pos, buf, 0, n);
+            } else if (n == buf.length) {
+                buf = Arrays.copyOf(buf, n * 2);
+            }
+            pos = 0;
+            i = n;
+            int r = in.read(buf, n, buf.length - n);
+            if (r < 0) {
+                limit = n;
+                if (n == 0) {
+                    return null;
+                }
+                pos = n;
+                return trimmed(0, n);
+            }
+            limit = n + r;
+        }
+    }
+
+    // the same as new String(buf, from, to - from).trim()
+    private String trimmed(int from, int to) {
+        while (from < to && buf[from] <= ' ') {
+            from++;
+        }
+        while (to > from && buf[to - 1] <= ' ') {
+            to--;
+        }
+        return new String(buf, from, to - from);
+    }
+
     protected Elem processXMLFragment(String s) {
         return null;
     }
@@ -175,8 +340,23 @@ public abstract class SignatureClassLoader implements Reader {
      * fields
      */
     public boolean readSignatureFile(URL fileURL) throws IOException {
-        in = new BufferedReader(new InputStreamReader(fileURL.openStream(), StandardCharsets.UTF_8), BUFSIZE);
+        return readSignatureFile(FileManager.openSigFile(fileURL));
+    }
+
+    /**
+     * Reads the signature file from {@code is}, which is positioned at its
+     * start and is closed by {@link #close()}.
+     *
+     * @see FileManager#openSigFile(URL)
+     */
+    public boolean readSignatureFile(InputStream is) throws IOException {
+        BaseOptions bo = AppContext.getContext().getBean(BaseOptions.class);
+        threads = Parallel.getThreads(bo.getValue(Option.THREADS));
+        in = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8), BUFSIZE);
         assert in.markSupported();
+        pos = 0;
+        limit = 0;
+        skipLF = false;
         return readHeaders(in);
     }
 
@@ -47,6 +47,8 @@ public class F31Parser implements Parser {
     private char chr;
     private List<String> elems;
     private int directInterfaceCount;
+    // shares equal annotations between the members of a signature file
+    private final AnnotationParser annotationParser = new AnnotationParser();
 
     public ClassDescription parseClassDescription(String classDefinition, List<String> members) {
 
@@ -118,17 +120,10 @@ public class F31Parser implements Parser {
         return classDescription;
     }
 
-    private static void appendAnnotations(MemberDescription fid, List<String> alist) {
+    private void appendAnnotations(MemberDescription fid, List<String> alist) {
         if (!alist.isEmpty()) {
-
-            AnnotationItem[] tmp = new AnnotationItem[alist.size()];
-            AnnotationParser par = new AnnotationParser();
-
-            for (int i = 0; i < alist.size(); ++i) {
-                tmp[i] = par.parse(alist.get(i));
-            }
-
-            fid.setAnnoList(tmp);
+            // parsed on first access, many members are never checked
+            fid.setAnnoList(alist.toArray(new String[alist.size()]), annotationParser);
             alist.clear();
         }
     }
@@ -44,8 +44,15 @@ public class F40Parser implements Parser {
     private int linesz;
     private int idx;
     private char chr;
-    private List<String> elems;
+    // the current line and its lexemes as [starts[i], ends[i]) offsets
+    private char[] chars = new char[256];
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int count;
+    private int next;
     private String currentClassName;
+    // shares equal annotations between the members of a signature file
+    private final AnnotationParser annotationParser = new AnnotationParser();
 
     public ClassDescription parseClassDescription(String classDefinition, List<String> members) {
 
@@ -207,15 +214,8 @@ public class F40Parser implements Parser {
 
     protected void appendAnnotations(MemberDescription fid, List<String> alist) {
         if (!alist.isEmpty()) {
-
-            AnnotationItem[] tmp = new AnnotationItem[alist.size()];
-            AnnotationParser par = new AnnotationParser();
-
-            for (int i = 0; i < alist.size(); ++i) {
-                tmp[i] = par.parse(alist.get(i));
-            }
-
-            fid.setAnnoList(tmp);
+            // parsed on first access, many members are never checked
+            fid.setAnnoList(alist.toArray(new String[alist.size()]), annotationParser);
             alist.clear();
         }
     }
@@ -252,10 +252,20 @@ public class F40Parser implements Parser {
         return (ClassDescription) parse(classDefinition);
     }
 
+    /*
+     * Copies the line to the reusable char buffer and splits it to the
+     * lexemes, which are kept as offsets in the buffer. Modifiers and
+     * keywords are matched in place, strings are only made for the values
+     * set to the member, which interns the names itself.
+     */
     private void init(MemberDescription m, String def) {
         //System.out.println(def);
         line = def.trim();
         linesz = line.length();
+        if (chars.length < linesz) {
+            chars = new char[Math.max(linesz, chars.length * 2)];
+        }
+        line.getChars(0, linesz, chars, 0);
 
         // skip member type
         idx = def.indexOf(' ');
@@ -267,7 +277,7 @@ public class F40Parser implements Parser {
 
         init(cls, def);
 
-        cls.setModifiers(Modifier.scanModifiers(elems));
+        cls.setModifiers(scanModifiers());
 
         String s = getElem();
         cls.setupGenericClassName(s);
@@ -279,7 +289,7 @@ public class F40Parser implements Parser {
 
         init(cls, def);
 
-        cls.setModifiers(Modifier.scanModifiers(elems));
+        cls.setModifiers(scanModifiers());
 
         String s = getElem();
         cls.setupGenericClassName(s);
@@ -291,7 +301,7 @@ public class F40Parser implements Parser {
 
         init(ctor, def);
 
-        ctor.setModifiers(Modifier.scanModifiers(elems));
+        ctor.setModifiers(scanModifiers());
 
         String s = getElem();
 
@@ -302,20 +312,16 @@ public class F40Parser implements Parser {
 
         ctor.setupConstuctorName(s);
 
-        s = getElem();
-        if (s.charAt(0) != '(') {
-            err();
+        String args = getArgs();
+        if (args != null) {
+            ctor.setArgs(args);
         }
 
-        if (!"()".equals(s)) {
-            ctor.setArgs(s.substring(1, s.length() - 1));
-        }
-
-        if (!elems.isEmpty()) {
-            s = getElem();
-            if (!s.equals("throws")) {
+        if (hasElems()) {
+            if (!isElem("throws")) {
                 err();
             }
+            next++;
             s = getElem();
             ctor.setThrowables(s);
         }
@@ -327,7 +333,7 @@ public class F40Parser implements Parser {
 
         init(method, def);
 
-        method.setModifiers(Modifier.scanModifiers(elems));
+        method.setModifiers(scanModifiers());
 
         String s = getElem();
         if (s != null && s.charAt(0) == '<') {
@@ -339,30 +345,26 @@ public class F40Parser implements Parser {
 
         method.setupMemberName(getElem(), currentClassName);
 
-        s = getElem();
-        if (s.charAt(0) != '(') {
-            err();
+        String args = getArgs();
+        if (args != null) {
+            method.setArgs(args);
         }
 
-        if (!"()".equals(s)) {
-            method.setArgs(s.substring(1, s.length() - 1));
-        }
-
-        if (!elems.isEmpty() && elems.get(0).equals("throws")) {
-            getElem(); // "throws"
+        if (isElem("throws")) {
+            next++; // "throws"
             s = getElem();
             method.setThrowables(s);
         }
 
-        if (!elems.isEmpty() && supportsValues() && elems.get(0).equals(VALUE.trim())) {
+        if (supportsValues() && isElem(VALUE.trim())) {
             int pos = line.indexOf(VALUE);
             if (pos >= 0) {
                 method.setDefaultValue(line.substring(pos + VALUE.length()));
-                elems.clear();
+                next = count;
             }
         }
 
-        if (!elems.isEmpty()) {
+        if (hasElems()) {
             err();
         }
 
@@ -377,7 +379,7 @@ public class F40Parser implements Parser {
 
         init(field, def);
 
-        field.setModifiers(Modifier.scanModifiers(elems));
+        field.setModifiers(scanModifiers());
 
         String s = getElem();
         field.setType(s);
@@ -386,13 +388,13 @@ public class F40Parser implements Parser {
 
         field.setupMemberName(s, currentClassName);
 
-        if (!elems.isEmpty()) {
-            s = getElem();
-            if (!s.startsWith("=")) {
+        if (hasElems()) {
+            if (chars[starts[next]] != '=') {
                 err();
             }
 
-            field.setConstantValue(s.substring(1).trim());
+            field.setConstantValue(line.substring(starts[next] + 1, ends[next]).trim());
+            next++;
         }
 
         return field;
@@ -401,12 +403,11 @@ public class F40Parser implements Parser {
     protected MemberDescription parse(SuperClass superCls, String def) {
 
         init(superCls, def);
-        superCls.setModifiers(Modifier.scanModifiers(elems));
-        int n = elems.size();
-        if (n == 0) {
+        superCls.setModifiers(scanModifiers());
+        if (!hasElems()) {
             err();
         }
-        superCls.setupGenericClassName(elems.get(n - 1));
+        superCls.setupGenericClassName(slice(starts[count - 1], ends[count - 1]));
 
         return superCls;
     }
@@ -414,12 +415,11 @@ public class F40Parser implements Parser {
     protected MemberDescription parse(SuperInterface superIntf, String def) {
 
         init(superIntf, def);
-        superIntf.setModifiers(Modifier.scanModifiers(elems));
-        int n = elems.size();
-        if (n == 0) {
+        superIntf.setModifiers(scanModifiers());
+        if (!hasElems()) {
             err();
         }
-        superIntf.setupGenericClassName(elems.get(n - 1));
+        superIntf.setupGenericClassName(slice(starts[count - 1], ends[count - 1]));
 
         return superIntf;
     }
@@ -428,7 +428,7 @@ public class F40Parser implements Parser {
 
         init(inner, def);
 
-        inner.setModifiers(Modifier.scanModifiers(elems));
+        inner.setModifiers(scanModifiers());
 
         String s = getElem();
         inner.setupInnerClassName(s, currentClassName);
@@ -436,28 +436,79 @@ public class F40Parser implements Parser {
         return inner;
     }
 
-    private String getElem() {
-        String s = null;
+    private boolean hasElems() {
+        return next < count;
+    }
 
-        if (!elems.isEmpty()) {
-            s = elems.get(0);
-            elems.remove(0);
+    private boolean isElem(String s) {
+        if (!hasElems()) {
+            return false;
         }
+        int from = starts[next];
+        int len = s.length();
+        if (ends[next] - from != len) {
+            return false;
+        }
+        for (int i = 0; i < len; i++) {
+            if (chars[from + i] != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        if (s == null) {
+    private String getElem() {
+        if (!hasElems()) {
             err();
         }
-
+        String s = slice(starts[next], ends[next]);
+        next++;
         return s;
     }
 
+    // the contents of the next "(...)" lexeme, null for "()"
+    private String getArgs() {
+        if (!hasElems() || chars[starts[next]] != '(') {
+            err();
+        }
+        int from = starts[next] + 1;
+        int to = ends[next] - 1;
+        next++;
+        return from < to ? slice(from, to) : null;
+    }
+
+    private String slice(int from, int to) {
+        return new String(chars, from, to - from);
+    }
+
+    private int scanModifiers() {
+        int result = 0;
+        Modifier m;
+        while (hasElems() && (m = Modifier.getModifier(chars, starts[next], ends[next])) != null) {
+            result |= m.getValue();
+            next++;
+        }
+        return result;
+    }
+
+    private void addElem(int from, int to) {
+        if (count == starts.length) {
+            starts = Arrays.copyOf(starts, count * 2);
+            ends = Arrays.copyOf(ends, count * 2);
+        }
+        starts[count] = from;
+        ends[count] = to;
+        count++;
+    }
+
     private void scanElems() {
-        elems = new LinkedList<>();
+        count = 0;
+        next = 0;
 
         for (; ; ) {
 
             //  skip leading blanks at the start of lexeme
-            while (idx < linesz && (chr = line.charAt(idx)) == ' ') {
+            while (idx < linesz && (chr = chars[idx]) == ' ') {
                 idx++;
             }
 
@@ -471,7 +522,7 @@ public class F40Parser implements Parser {
 
             if (chr == '=') {
                 idx = linesz;
-                elems.add(line.substring(pos));
+                addElem(pos, idx);
                 break;
             }
 
@@ -479,7 +530,7 @@ public class F40Parser implements Parser {
                 idx++;
                 skip(')');
                 idx++;
-                elems.add(line.substring(pos, idx));
+                addElem(pos, idx);
                 continue;
             }
 
@@ -487,13 +538,13 @@ public class F40Parser implements Parser {
                 idx++;
                 skip('>');
                 idx++;
-                elems.add(line.substring(pos, idx));
+                addElem(pos, idx);
                 continue;
             }
 
             idx++;
             while (idx < linesz) {
-                chr = line.charAt(idx);
+                chr = chars[idx];
 
                 if (chr == '<') {
                     idx++;
@@ -508,7 +559,7 @@ public class F40Parser implements Parser {
 
                 idx++;
             }
-            elems.add(line.substring(pos, idx));
+            addElem(pos, idx);
         }
     }
 
@@ -518,7 +569,7 @@ public class F40Parser implements Parser {
                 err();
             }
 
-            if ((chr = line.charAt(idx)) == term) {
+            if ((chr = chars[idx]) == term) {
                 return;
             }
 
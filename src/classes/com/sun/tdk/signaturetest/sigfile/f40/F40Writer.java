@@ -43,7 +43,12 @@ public class F40Writer implements Writer {
     private boolean isConstantValuesSaved = true;
     private String apiVersion;
     private final StringBuffer buf = new StringBuffer(512);
-    private final List<String> members = new ArrayList<>();
+    // member lines are kept in buf as [starts[i], ends[i]) and sorted by order
+    private char[] chars = new char[4096];
+    private int[] starts = new int[64];
+    private int[] ends = new int[64];
+    private int[] order = new int[64];
+    private int[] tmp = new int[64];
 
     public F40Writer() {
         setFormat(new F40Format());
@@ -95,14 +100,19 @@ public class F40Writer implements Writer {
         out.println("");
     }
 
+    /*
+     * All the lines of the class are built one after another in the same
+     * buffer. The members are sorted by their text, compared in the buffer
+     * the same way as String.compareTo() does, and printed from it, so no
+     * string is made for a line.
+     */
     public void write(ClassDescription classDescription) {
 
         buf.setLength(0);
-        members.clear();
+        int count = 0;
 
         String clsName = classDescription.getQualifiedName();
 
-        // sorts members
         for (Iterator<MemberDescription> e = classDescription.getMembersIterator(); e.hasNext(); ) {
 
             MemberDescription mr = e.next();
@@ -111,20 +121,39 @@ public class F40Writer implements Writer {
                 continue;
             }
 
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+                order = Arrays.copyOf(order, count * 2);
+                tmp = new int[count * 2];
+            }
+            starts[count] = buf.length();
             write(buf, mr);
-            members.add(buf.toString());
-            buf.setLength(0);
+            ends[count] = buf.length();
+            order[count] = count;
+            count++;
         }
 
-        Collections.sort(members);
+        // class description
+        int clsStart = buf.length();
+        write(buf, classDescription);
+        int clsEnd = buf.length();
+
+        if (chars.length < clsEnd) {
+            chars = new char[Math.max(clsEnd, chars.length * 2)];
+        }
+        buf.getChars(0, clsEnd, chars, 0);
+
+        sort(0, count);
 
         // print class description
-        write(buf, classDescription);
-        out.println(buf.toString());
+        out.write(chars, clsStart, clsEnd - clsStart);
+        out.println();
 
-        int size = members.size();
-        for (String member : members) {
-            out.println(member);
+        for (int i = 0; i < count; i++) {
+            int m = order[i];
+            out.write(chars, starts[m], ends[m] - starts[m]);
+            out.println();
         }
 
         if (getFormat().isFeatureSupported(FeaturesHolder.ListOfHiders)) {
@@ -135,6 +164,80 @@ public class F40Writer implements Writer {
         out.println("");
     }
 
+    // merge sort of order[from, to), stable like Collections.sort()
+    private void sort(int from, int to) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        sort(from, mid);
+        sort(mid, to);
+        if (compare(order[mid - 1], order[mid]) <= 0) {
+            return;
+        }
+        System.arraycopy(order, from, tmp, from, to - from);
+        int i = from;
+        int j = mid;
+        for (int k = from; k < to; k++) {
+            if (j >= to || (i < mid && compare(tmp[i], tmp[j]) <= 0)) {
+                order[k] = tmp[i++];
+            } else {
+                order[k] = tmp[j++];
+            }
+        }
+    }
+
+    // compares the lines of members m1 and m2 as String.compareTo()
+    private int compare(int m1, int m2) {
+        int i = starts[m1];
+        int j = starts[m2];
+        int len1 = ends[m1] - i;
+        int len2 = ends[m2] - j;
+        int lim = i + Math.min(len1, len2);
+        while (i < lim) {
+            char c1 = chars[i++];
+            char c2 = chars[j++];
+            if (c1 != c2) {
+                return c1 - c2;
+            }
+        }
+        return len1 - len2;
+    }
+
+    /**
+     * Returns the members which {@link #write(ClassDescription)} puts to the
+     * signature file, in the order they are written.
+     */
+    public List<MemberDescription> getWrittenMembers(ClassDescription classDescription) {
+
+        String clsName = classDescription.getQualifiedName();
+        final Map<MemberDescription, String> lines = new IdentityHashMap<>();
+        List<MemberDescription> result = new ArrayList<>();
+        StringBuffer sb = new StringBuffer(512);
+
+        for (Iterator<MemberDescription> e = classDescription.getMembersIterator(); e.hasNext(); ) {
+
+            MemberDescription mr = e.next();
+
+            if (!isMemberAccepted(mr, clsName)) {
+                continue;
+            }
+
+            write(sb, mr);
+            lines.put(mr, sb.toString());
+            sb.setLength(0);
+            result.add(mr);
+        }
+
+        Collections.sort(result, new Comparator<MemberDescription>() {
+            public int compare(MemberDescription m1, MemberDescription m2) {
+                return lines.get(m1).compareTo(lines.get(m2));
+            }
+        });
+
+        return result;
+    }
+
     protected boolean isMemberAccepted(MemberDescription mr, String clsName) {
         if ((mr.isMethod() || mr.isField() || mr.isInner()) && !clsName.equals(mr.getDeclaringClassName())) {
             return false;
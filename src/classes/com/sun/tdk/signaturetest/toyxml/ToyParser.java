@@ -25,71 +25,57 @@
 
 package com.sun.tdk.signaturetest.toyxml;
 
-import java.util.Stack;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-import static com.sun.tdk.signaturetest.toyxml.ToyParser.Kind.*;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
+/**
+ * Single-pass scanner for the XML subset used by module descriptions in
+ * signature files: nested elements with double-quoted attributes. Text
+ * content, comments and entity references are not interpreted.
+ */
 public class ToyParser {
 
-    private static final Pattern elm = Pattern.compile("<.+?>");
-    private static final Pattern single = Pattern.compile("<(.+)/>");
-    private static final Pattern close = Pattern.compile("</(.+)>");
-    private static final Pattern open = Pattern.compile("<(.+)>");
-    private static final Pattern name = Pattern.compile("\\w+\\s");
-    private static final Pattern attrs = Pattern.compile("(\\w+=\"[^\"]+?\")+");
-    private static final Pattern attrMask = Pattern.compile("(\\w+)=\"(.+)\"");
     private Elem root = null;
 
     public Elem parse(String in) {
         assert in != null && !in.isEmpty();
-        Matcher matcher = elm.matcher(in);
-        Stack<Elem> stack = new Stack<>();
-        while (matcher.find()) {
-            String el = matcher.group();
-            Kind k = getLexKind(el);
-            if (k == OPEN) {
-                openElement(el, stack);
-            } else if (k == SINGLE) {
-                singleElement(el, stack);
-            } else if (k == CLOSE) {
-                closeElement(el, stack);
+        Deque<Elem> stack = new ArrayDeque<>();
+        int len = in.length();
+        int pos = in.indexOf('<');
+        while (pos >= 0 && pos < len - 1) {
+            // an element has at least one character between the brackets
+            int end = in.indexOf('>', pos + 2);
+            if (end < 0) {
+                break;
+            }
+            if (in.charAt(pos + 1) == '/') {
+                closeElement(in, pos + 2, end, stack);
+            } else if (in.charAt(end - 1) == '/' && end - 1 > pos + 1) {
+                addElement(in, pos + 1, end - 1, stack, false);
+            } else {
+                addElement(in, pos + 1, end, stack, true);
             }
+            pos = in.indexOf('<', end + 1);
         }
 
         return root;
     }
 
-    private static void closeElement(String def, Stack<Elem> stack) {
+    private static void closeElement(String in, int from, int to, Deque<Elem> stack) {
         Elem e = stack.peek();
-        Matcher m = close.matcher(def);
-        if (m.find()) {
-            if (m.group(1).equals(e.getNodeName())) {
-                stack.pop();
-                return;
-            }
+        if (e != null && in.regionMatches(from, e.getNodeName(), 0, to - from)
+                && e.getNodeName().length() == to - from) {
+            stack.pop();
         }
     }
 
-    private void singleElement(String def, Stack<Elem> stack) {
-        addElement(def, stack, single, false);
-    }
-
-    private void openElement(String def, Stack<Elem> stack) {
-        addElement(def, stack, open, true);
-    }
-
-    private void addElement(String def, Stack<Elem> stack, Pattern pat, boolean add) {
+    private void addElement(String in, int from, int to, Deque<Elem> stack, boolean add) {
         Elem el = new Elem();
         if (root == null) {
             root = el;
         }
-        Matcher m = pat.matcher(def);
-        if (m.find()) {
-            makeElem(el, m.group(1));
-        }
-        Elem parent = stack.isEmpty() ? null : stack.peek();
+        makeElem(el, in, from, to);
+        Elem parent = stack.peek();
         if (parent != null) {
             parent.addChild(el);
         }
@@ -98,37 +84,54 @@ public class ToyParser {
         }
     }
 
-    private static void makeElem(Elem el, String txt) {
+    private static void makeElem(Elem el, String in, int from, int to) {
 
-        Matcher mn = name.matcher(txt);
-        if (mn.find()) {
-            el.setNodeName(mn.group().trim());
-        } else {
-            throw new IllegalStateException(txt);
+        int p = skipName(in, from, to);
+        if (p == from) {
+            throw new IllegalStateException(in.substring(from, to));
         }
-
-        Matcher ma = attrs.matcher(txt);
-        while (ma.find()) {
-            String attrSt = ma.group();
-            Matcher m = attrMask.matcher(attrSt);
-            if (m.find()) {
-                el.addAttribute(m.group(1), m.group(2));
+        el.setNodeName(in.substring(from, p));
+
+        while (p < to) {
+            p = skipSpaces(in, p, to);
+            int nameEnd = skipName(in, p, to);
+            if (nameEnd == p) {
+                // not an attribute, resynchronize on the next character
+                p++;
+                continue;
+            }
+            if (nameEnd + 1 >= to || in.charAt(nameEnd) != '=' || in.charAt(nameEnd + 1) != '"') {
+                p = nameEnd;
+                continue;
+            }
+            int valStart = nameEnd + 2;
+            int valEnd = in.indexOf('"', valStart);
+            if (valEnd < 0 || valEnd >= to) {
+                break;
+            }
+            // empty values are ignored
+            if (valEnd > valStart) {
+                el.addAttribute(in.substring(p, nameEnd), in.substring(valStart, valEnd));
             }
+            p = valEnd + 1;
         }
     }
 
-    private static Kind getLexKind(String el) {
-        if (close.matcher(el).find()) {
-            return CLOSE;
+    private static int skipName(String in, int p, int to) {
+        while (p < to && isNameChar(in.charAt(p))) {
+            p++;
         }
-        if (single.matcher(el).find()) {
-            return SINGLE;
-        }
-        if (open.matcher(el).find()) {
-            return OPEN;
+        return p;
+    }
+
+    private static int skipSpaces(String in, int p, int to) {
+        while (p < to && Character.isWhitespace(in.charAt(p))) {
+            p++;
         }
-        throw new IllegalArgumentException(el);
+        return p;
     }
 
-    enum Kind {SINGLE, OPEN, CLOSE}
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '-' || c == '.' || c == ':';
+    }
 }
@@ -206,9 +206,7 @@ class RemovePackage extends Command {
 
     boolean perform(Updater.SigList sl) {
         trace();
-        while (sl.findPackageMember(packageName)) {
-            sl.removeCurrentClass();
-        }
+        sl.removePackage(packageName);
         return true;
     }
 
@@ -203,72 +203,100 @@ public class Updater extends DefaultHandler {
         }
     }
 
+    /**
+     * Lines of the signature file. The lines are linked, so a command
+     * edits only the class it is applied to, and the class header lines
+     * are indexed by class name. The index is built on the first lookup
+     * and kept up to date by the edits.
+     */
     class SigList {
 
-        private final List<String> sigList = new ArrayList<>();
-        private int startPos = -1;
+        private static final String CLASS_PREFIX = "CLSS ";
+
+        private final Line head = new Line(null);
+        private Line tail = head;
+        private Line start;
+        private final Map<String, List<Line>> classes = new HashMap<>();
+        private boolean indexed;
 
         public boolean findClass(String className) {
-            startPos = -1;
-            int i = 0;
-            while (i < sigList.size()) {
-                String l = sigList.get(i);
-                if (l.startsWith("CLSS ") && l.endsWith(" " + className)) {
-                    startPos = i;
-                    return true;
+            start = null;
+            if (className.indexOf(' ') >= 0) {
+                // can't be a key of the index, look through the lines
+                for (Line l = head.next; l != null; l = l.next) {
+                    if (l.text.startsWith(CLASS_PREFIX) && l.text.endsWith(" " + className)) {
+                        start = l;
+                        return true;
+                    }
                 }
-                i++;
+                return false;
             }
-            return false;
+            if (!indexed) {
+                buildIndex();
+            }
+            List<Line> found = classes.get(className);
+            if (found != null) {
+                start = found.get(0);
+            }
+            return start != null;
         }
 
         public void removeCurrentClass() {
-            if (startPos >= 0) {
-                while (!sigList.get(startPos).trim().isEmpty()) {
-                    sigList.remove(startPos);
-                }
+            if (start != null) {
+                removeClass(start);
+                start = null;
+            }
+        }
+
+        // removes lines up to the next empty one, returns the line after them
+        private Line removeClass(Line from) {
+            Line l = from;
+            while (l != null && !l.text.trim().isEmpty()) {
+                Line next = l.next;
+                unlink(l);
+                l = next;
             }
+            return l;
         }
 
         public void addText(String body) {
             StringTokenizer st = new StringTokenizer(body, "\n");
-            sigList.add("");
+            add("");
             while (st.hasMoreTokens()) {
-                sigList.add(st.nextToken().trim());
+                add(st.nextToken().trim());
             }
-            sigList.add("");
+            add("");
         }
 
-        public boolean findPackageMember(String packageName) {
-            startPos = -1;
-            int i = 0;
+        /**
+         * Removes all the classes of the package and its subpackages.
+         */
+        public void removePackage(String packageName) {
+            start = null;
             final String pSig = " " + packageName + ".";
-            while (i < sigList.size()) {
-                String l = sigList.get(i);
-                if (l.startsWith("CLSS ")) {
-                    int x = l.indexOf('<');
-                    int y = l.indexOf(pSig);
+            Line l = head.next;
+            while (l != null) {
+                if (l.text.startsWith(CLASS_PREFIX)) {
+                    int x = l.text.indexOf('<');
+                    int y = l.text.indexOf(pSig);
                     if (y > 0 && ((y < x) || (x == -1))) {
-                        startPos = i;
-                        return true;
+                        l = removeClass(l);
+                        continue;
                     }
                 }
-                i++;
+                l = l.next;
             }
-            return false;
         }
 
         public boolean removeMember(String memberName) {
-            if (startPos >= 0) {
-                for (int i = startPos; i < sigList.size(); i++) {
-                    String l = sigList.get(i).trim();
-                    if (memberName.equals(l)) {
-                        sigList.remove(i);
-                        return true;
-                    } else {
-                        if (l.isEmpty()) {
-                            break;
-                        }
+            for (Line l = start; l != null; l = l.next) {
+                String t = l.text.trim();
+                if (memberName.equals(t)) {
+                    unlink(l);
+                    return true;
+                } else {
+                    if (t.isEmpty()) {
+                        break;
                     }
                 }
             }
@@ -276,16 +304,16 @@ public class Updater extends DefaultHandler {
         }
 
         public boolean changeMember(String oldMember, String newMember) {
-            if (startPos >= 0) {
-                for (int i = startPos; i < sigList.size(); i++) {
-                    String l = sigList.get(i).trim();
-                    if (oldMember.equals(l)) {
-                        sigList.set(i, newMember);
-                        return true;
-                    } else {
-                        if (l.isEmpty()) {
-                            break;
-                        }
+            for (Line l = start; l != null; l = l.next) {
+                String t = l.text.trim();
+                if (oldMember.equals(t)) {
+                    unindex(l);
+                    l.text = newMember;
+                    index(l);
+                    return true;
+                } else {
+                    if (t.isEmpty()) {
+                        break;
                     }
                 }
             }
@@ -294,12 +322,10 @@ public class Updater extends DefaultHandler {
 
         public void pack() {
             boolean empty = false;
-            for (int i = 0; i < sigList.size(); i++) {
-                String l = sigList.get(i);
-                if (l.trim().isEmpty()) {
+            for (Line l = head.next; l != null; l = l.next) {
+                if (l.text.trim().isEmpty()) {
                     if (empty) {
-                        sigList.remove(i--);
-                        continue;
+                        unlink(l);
                     } else {
                         empty = true;
                     }
@@ -310,11 +336,15 @@ public class Updater extends DefaultHandler {
         }
 
         public boolean addMember(String memberName) {
-            if (startPos >= 0) {
-                for (int i = startPos + 1; i < sigList.size(); i++) {
-                    String l = sigList.get(i).trim();
-                    if (!l.startsWith(AnnotationItem.ANNOTATION_PREFIX)) {
-                        sigList.add(i, memberName);
+            if (start != null) {
+                for (Line l = start.next; l != null; l = l.next) {
+                    if (!l.text.trim().startsWith(AnnotationItem.ANNOTATION_PREFIX)) {
+                        Line m = new Line(memberName);
+                        m.prev = l.prev;
+                        m.next = l;
+                        l.prev.next = m;
+                        l.prev = m;
+                        index(m);
                         return true;
                     }
                 }
@@ -323,14 +353,92 @@ public class Updater extends DefaultHandler {
         }
 
         public boolean add(String s) {
-            return sigList.add(s);
+            Line l = new Line(s);
+            l.prev = tail;
+            tail.next = l;
+            tail = l;
+            index(l);
+            return true;
         }
 
         public void print(PrintWriter pw) {
-            for (String o : sigList) {
-                pw.write(o + '\n');
+            for (Line l = head.next; l != null; l = l.next) {
+                pw.write(l.text);
+                pw.write('\n');
             }
         }
+
+        private void unlink(Line l) {
+            unindex(l);
+            l.prev.next = l.next;
+            if (l.next != null) {
+                l.next.prev = l.prev;
+            } else {
+                tail = l.prev;
+            }
+        }
+
+        private void buildIndex() {
+            classes.clear();
+            indexed = true;
+            for (Line l = head.next; l != null; l = l.next) {
+                String name = getClassName(l);
+                if (name != null) {
+                    put(name, l);
+                }
+            }
+        }
+
+        private void index(Line l) {
+            String name = getClassName(l);
+            if (name != null && indexed) {
+                if (l == tail) {
+                    put(name, l);
+                } else {
+                    // the lines of a name are kept in file order,
+                    // rebuild the index on the next lookup
+                    indexed = false;
+                }
+            }
+        }
+
+        private void put(String name, Line l) {
+            List<Line> same = classes.get(name);
+            if (same == null) {
+                same = new ArrayList<>(1);
+                classes.put(name, same);
+            }
+            same.add(l);
+        }
+
+        private void unindex(Line l) {
+            String name = getClassName(l);
+            if (name != null && indexed) {
+                List<Line> same = classes.get(name);
+                same.remove(l);
+                if (same.isEmpty()) {
+                    classes.remove(name);
+                }
+            }
+        }
+
+        private String getClassName(Line l) {
+            if (l.text.startsWith(CLASS_PREFIX)) {
+                return l.text.substring(l.text.lastIndexOf(' ') + 1);
+            }
+            return null;
+        }
+    }
+
+    private static final class Line {
+
+        String text;
+        Line prev;
+        Line next;
+
+        Line(String text) {
+            this.text = text;
+        }
     }
 
     // data bean
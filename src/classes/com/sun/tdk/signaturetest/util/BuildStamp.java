@@ -0,0 +1,316 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.tdk.signaturetest.util;
+
+import com.sun.tdk.signaturetest.Version;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Properties;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * Up-to-date check for the runs started by the Ant tasks and Maven goals.
+ * The fingerprint of a run covers the arguments, the class files found on
+ * the classpath and the other input files. It is kept in a stamp file next
+ * to the output of the run together with the status and the log of the run.
+ * A later run with the same fingerprint and an unchanged output can be
+ * skipped and its result replayed from the stamp.
+ * <p>
+ * When an input can't be read the run is never considered up to date.
+ */
+public final class BuildStamp {
+
+    public static final String STAMP_SUFFIX = ".stamp";
+
+    private static final String FINGERPRINT = "fingerprint";
+    private static final String OUTPUT = "output";
+    private static final String PASSED = "passed";
+    private static final String RESULT = "result";
+    private static final String LOG = "log";
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final File output;
+    private final File stampFile;
+    private final MessageDigest digest = newDigest();
+    private final byte[] buf = new byte[0x10000];
+    private boolean broken = false;
+    private String fingerprint;
+    private Properties stamp;
+    private StringWriter log;
+
+    public BuildStamp(File output) {
+        this.output = output;
+        this.stampFile = new File(output.getPath() + STAMP_SUFFIX);
+        addArg(Version.Number);
+        addArg(System.getProperty("java.version"));
+    }
+
+    public void addArg(String arg) {
+        digest.update(String.valueOf(arg).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    public void addArgs(String[] args) {
+        addArg(String.valueOf(args.length));
+        for (String arg : args) {
+            addArg(arg);
+        }
+    }
+
+    /**
+     * Adds the content of a file, for example the signature file to check
+     * against.
+     */
+    public void addFile(File file) {
+        addArg(file.getPath());
+        if (!file.isFile()) {
+            addArg(null);
+            return;
+        }
+        try {
+            update(new FileInputStream(file));
+        } catch (IOException e) {
+            broken = true;
+        }
+    }
+
+    /**
+     * Adds the class files of the classpath entries. Directories are walked
+     * in name order, jar files are read entry by entry so that a repackaged
+     * jar with the same classes keeps the fingerprint.
+     */
+    public void addClasspath(List<String> entries) {
+        for (String entry : entries) {
+            File f = new File(entry);
+            addArg(entry);
+            try {
+                if (f.isDirectory()) {
+                    addClassDir(f, "");
+                } else if (f.isFile()) {
+                    addJar(f);
+                } else {
+                    addArg(null);
+                }
+            } catch (IOException e) {
+                broken = true;
+            }
+        }
+    }
+
+    private void addClassDir(File dir, String prefix) throws IOException {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            throw new IOException(dir.getPath());
+        }
+        Arrays.sort(files);
+        for (File f : files) {
+            String name = prefix + f.getName();
+            if (f.isDirectory()) {
+                addClassDir(f, name + '/');
+            } else if (name.endsWith(CLASS_SUFFIX)) {
+                addArg(name);
+                update(new FileInputStream(f));
+            }
+        }
+    }
+
+    private void addJar(File file) throws IOException {
+        ZipFile zf;
+        try {
+            zf = new ZipFile(file);
+        } catch (ZipException e) {
+            // not an archive, take it as it is
+            update(new FileInputStream(file));
+            return;
+        }
+        try (ZipFile z = zf) {
+            List<String> names = new ArrayList<>();
+            for (Enumeration<? extends ZipEntry> e = z.entries(); e.hasMoreElements(); ) {
+                ZipEntry ze = e.nextElement();
+                if (!ze.isDirectory() && ze.getName().endsWith(CLASS_SUFFIX)) {
+                    names.add(ze.getName());
+                }
+            }
+            Collections.sort(names);
+            for (String name : names) {
+                addArg(name);
+                update(z.getInputStream(z.getEntry(name)));
+            }
+        }
+    }
+
+    private void update(InputStream is) throws IOException {
+        update(digest, is);
+    }
+
+    private void update(MessageDigest md, InputStream is) throws IOException {
+        try (InputStream in = is) {
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                md.update(buf, 0, n);
+            }
+        }
+        md.update((byte) 0);
+    }
+
+    public String getFingerprint() {
+        if (fingerprint == null) {
+            fingerprint = toHex(digest.digest());
+        }
+        return fingerprint;
+    }
+
+    private String outputHash() throws IOException {
+        if (!output.isFile()) {
+            return "";
+        }
+        MessageDigest md = newDigest();
+        update(md, new FileInputStream(output));
+        return toHex(md.digest());
+    }
+
+    /**
+     * Checks the stamp left by the previous run. A stale stamp is removed
+     * so that an interrupted run can't leave it behind.
+     */
+    public boolean isUpToDate() {
+        if (!broken && stampFile.isFile()) {
+            Properties p = new Properties();
+            try (InputStream in = new FileInputStream(stampFile)) {
+                p.load(in);
+                if (getFingerprint().equals(p.getProperty(FINGERPRINT))
+                        && outputHash().equals(p.getProperty(OUTPUT))) {
+                    stamp = p;
+                    return true;
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                // rerun
+            }
+        }
+        stampFile.delete();
+        return false;
+    }
+
+    /**
+     * Returns a writer which writes to {@code out} and keeps the text for
+     * the stamp.
+     */
+    public Writer capture(final Writer out) {
+        log = new StringWriter();
+        return new Writer() {
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                log.write(cbuf, off, len);
+                out.write(cbuf, off, len);
+            }
+
+            public void flush() throws IOException {
+                out.flush();
+            }
+
+            public void close() throws IOException {
+                out.close();
+            }
+        };
+    }
+
+    /**
+     * Writes the stamp after the run.
+     */
+    public void store(boolean passed, String result) {
+        if (broken) {
+            return;
+        }
+        Properties p = new Properties();
+        try (OutputStream os = new FileOutputStream(stampFile)) {
+            p.setProperty(FINGERPRINT, getFingerprint());
+            p.setProperty(OUTPUT, outputHash());
+            p.setProperty(PASSED, String.valueOf(passed));
+            p.setProperty(RESULT, result);
+            p.setProperty(LOG, log == null ? "" : log.toString());
+            p.store(os, null);
+        } catch (IOException e) {
+            stampFile.delete();
+        }
+    }
+
+    public boolean isPassed() {
+        return Boolean.parseBoolean(stamp.getProperty(PASSED));
+    }
+
+    public String getResult() {
+        return stamp.getProperty(RESULT, "");
+    }
+
+    /**
+     * Prints the log of the stored run line by line.
+     */
+    public void replay(PrintWriter out) {
+        try (BufferedReader in = new BufferedReader(new StringReader(stamp.getProperty(LOG, "")))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                out.println(line);
+            }
+        } catch (IOException e) {
+            // can't happen with a string
+        }
+        out.flush();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] b) {
+        StringBuilder sb = new StringBuilder(b.length * 2);
+        for (byte x : b) {
+            sb.append(Character.forDigit((x >> 4) & 0xf, 16)).append(Character.forDigit(x & 0xf, 16));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.tdk.signaturetest.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only cache of input files shared between the runs of a long-lived
+ * process (see {@link com.sun.tdk.signaturetest.Daemon}). Holds class file
+ * bytes and class name lists of jar files and the content of signature
+ * files. An entry is keyed by the file path, its modification time and
+ * length, so a changed file is never served from the cache. Files modified
+ * in the last few seconds are not cached as the timestamp may not yet
+ * reflect a concurrent write.
+ * <p>
+ * There is no shared cache by default and all the files are read directly.
+ *
+ * @see #setShared(InputCache)
+ */
+public final class InputCache {
+
+    public interface Source<T> {
+        T load() throws IOException;
+    }
+
+    private static final long RACY_MILLIS = 3000;
+    private static final int MAX_NAME_LISTS = 1024;
+    private static volatile InputCache shared;
+
+    private final long maxBytes;
+    private long bytes;
+    private final LinkedHashMap<String, byte[]> data = new LinkedHashMap<>(1024, 0.75f, true);
+    private final Map<String, List<String>> names = new HashMap<>();
+
+    public InputCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public static InputCache getShared() {
+        return shared;
+    }
+
+    public static void setShared(InputCache cache) {
+        shared = cache;
+    }
+
+    /**
+     * Opens {@code url} reading it through the shared cache if any.
+     */
+    public static InputStream open(URL url) throws IOException {
+        InputCache cache = shared;
+        if (cache == null || !"file".equals(url.getProtocol())) {
+            return url.openStream();
+        }
+        final URL u = url;
+        File f;
+        try {
+            f = new File(url.toURI());
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return url.openStream();
+        }
+        // a file which won't be cached is streamed instead of being read into memory first
+        Archive archive = cache.archive(f);
+        if (archive.id == null || f.length() > cache.maxBytes) {
+            return url.openStream();
+        }
+        return new ByteArrayInputStream(archive.get(null, new Source<InputStream>() {
+            public InputStream load() throws IOException {
+                return u.openStream();
+            }
+        }));
+    }
+
+    /**
+     * Returns a view of the cache for {@code file} in its current state.
+     */
+    public Archive archive(File file) {
+        long modified = file.lastModified();
+        if (modified == 0 || System.currentTimeMillis() - modified < RACY_MILLIS) {
+            return new Archive(null);
+        }
+        return new Archive(file.getAbsolutePath() + '@' + modified + ':' + file.length());
+    }
+
+    public synchronized void clear() {
+        data.clear();
+        names.clear();
+        bytes = 0;
+    }
+
+    private synchronized byte[] getData(String key) {
+        return data.get(key);
+    }
+
+    private synchronized void putData(String key, byte[] b) {
+        if (b.length > maxBytes) {
+            return;
+        }
+        byte[] old = data.put(key, b);
+        bytes += b.length - (old == null ? 0 : old.length);
+        Iterator<byte[]> it = data.values().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            bytes -= it.next().length;
+            it.remove();
+        }
+    }
+
+    private synchronized List<String> getNames(String key) {
+        return names.get(key);
+    }
+
+    private synchronized void putNames(String key, List<String> list) {
+        if (names.size() >= MAX_NAME_LISTS) {
+            names.clear();
+        }
+        names.put(key, list);
+    }
+
+    private static byte[] readAll(InputStream is) throws IOException {
+        try (InputStream in = is) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(in.available(), 512));
+            byte[] buf = new byte[8192];
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                out.write(buf, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * Cache entries of one file.
+     */
+    public final class Archive {
+
+        private final String id;
+
+        private Archive(String id) {
+            this.id = id;
+        }
+
+        /**
+         * Returns the content of {@code entry} of the archive, or of the
+         * whole file if {@code entry} is null.
+         */
+        public byte[] get(String entry, Source<InputStream> source) throws IOException {
+            if (id == null) {
+                return readAll(source.load());
+            }
+            String key = entry == null ? id : id + '!' + entry;
+            byte[] b = getData(key);
+            if (b == null) {
+                b = readAll(source.load());
+                putData(key, b);
+            }
+            return b;
+        }
+
+        /**
+         * Returns the class names listed by the archive. The returned list
+         * must not be modified.
+         */
+        public List<String> getNames(Source<List<String>> source) throws IOException {
+            if (id == null) {
+                return source.load();
+            }
+            List<String> list = InputCache.this.getNames(id);
+            if (list == null) {
+                list = source.load();
+                putNames(id, list);
+            }
+            return list;
+        }
+    }
+}
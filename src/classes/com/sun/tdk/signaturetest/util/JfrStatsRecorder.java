@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.tdk.signaturetest.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Emits the statistics of a run as JFR events. Requires JDK 11 or later and
+ * is loaded reflectively by {@link Stats}.
+ */
+public class JfrStatsRecorder implements Stats.Recorder {
+
+    private RunEvent run;
+
+    @Override
+    public boolean isRecording() {
+        return FlightRecorder.isInitialized()
+                && !FlightRecorder.getFlightRecorder().getRecordings().isEmpty();
+    }
+
+    @Override
+    public void begin(String tool) {
+        run = new RunEvent();
+        run.tool = tool;
+        run.begin();
+    }
+
+    @Override
+    public void end(Stats stats) {
+        for (Stats.Phase p : Stats.Phase.values()) {
+            if (stats.getCalls(p) == 0) {
+                continue;
+            }
+            PhaseEvent e = new PhaseEvent();
+            e.tool = stats.getTool();
+            e.phase = p.getId();
+            e.calls = stats.getCalls(p);
+            e.wall = stats.getWallNanos(p);
+            e.cpu = stats.getCpuNanos(p);
+            e.commit();
+        }
+        if (run != null) {
+            run.classesLoaded = stats.get(Stats.Counter.CLASSES_LOADED);
+            run.cacheHits = stats.get(Stats.Counter.CACHE_HITS);
+            run.cacheMisses = stats.get(Stats.Counter.CACHE_MISSES);
+            run.controlFlowExceptions = stats.get(Stats.Counter.CONTROL_FLOW_EXCEPTIONS);
+            run.bytesRead = stats.get(Stats.Counter.BYTES_READ);
+            run.commit();
+            run = null;
+        }
+    }
+
+    @Name("com.sun.tdk.signaturetest.Run")
+    @Label("SigTest Run")
+    @Category("SigTest")
+    static class RunEvent extends Event {
+
+        @Label("Tool")
+        String tool;
+
+        @Label("Classes Loaded")
+        long classesLoaded;
+
+        @Label("Cache Hits")
+        long cacheHits;
+
+        @Label("Cache Misses")
+        long cacheMisses;
+
+        @Label("Control Flow Exceptions")
+        @Description("ClassNotFoundExceptions thrown and caught as part of normal lookup")
+        long controlFlowExceptions;
+
+        @Label("Bytes Read")
+        long bytesRead;
+    }
+
+    @Name("com.sun.tdk.signaturetest.Phase")
+    @Label("SigTest Phase")
+    @Description("Accumulated time of a phase over a run")
+    @Category("SigTest")
+    static class PhaseEvent extends Event {
+
+        @Label("Tool")
+        String tool;
+
+        @Label("Phase")
+        String phase;
+
+        @Label("Calls")
+        long calls;
+
+        @Label("Wall Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long wall;
+
+        @Label("CPU Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long cpu;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.sun.tdk.signaturetest.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs independent tasks on a bounded number of threads. Results are
+ * returned in task order, so callers that consume them in that order stay
+ * deterministic whatever the number of threads.
+ *
+ * @see com.sun.tdk.signaturetest.core.context.Option#THREADS
+ */
+public final class Parallel {
+
+    private Parallel() {
+    }
+
+    /**
+     * Returns the number of threads given by a {@code -Threads} value, or
+     * the number of available processors if the value is null.
+     *
+     * @throws NumberFormatException if the value is not a positive number
+     */
+    public static int getThreads(String value) {
+        if (value == null) {
+            return Runtime.getRuntime().availableProcessors();
+        }
+        int threads = Integer.parseInt(value.trim());
+        if (threads < 1) {
+            throw new NumberFormatException(value);
+        }
+        return threads;
+    }
+
+    /**
+     * Runs the tasks and returns their results in task order. With one
+     * thread or one task everything runs on the calling thread, as do tasks
+     * started by a task, so nested calls don't multiply the threads. An
+     * exception thrown by a task is rethrown after all the tasks have
+     * finished.
+     */
+    public static <T> List<T> invokeAll(int threads, List<? extends Callable<T>> tasks) {
+
+        List<T> results = new ArrayList<>(tasks.size());
+
+        if (threads <= 1 || tasks.size() <= 1 || Thread.currentThread() instanceof Worker) {
+            for (Callable<T> task : tasks) {
+                try {
+                    results.add(task.call());
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            return results;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            public Thread newThread(Runnable r) {
+                Thread t = new Worker(r, "sigtest-worker-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        });
+
+        try {
+            List<Future<T>> futures = executor.invokeAll(tasks);
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            executor.shutdown();
+        }
+        return results;
+    }
+
+    private static final class Worker extends Thread {
+
+        Worker(Runnable r, String name) {
+            super(r, name);
+        }
+    }
+}
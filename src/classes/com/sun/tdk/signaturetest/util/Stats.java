@@ -0,0 +1,377 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.tdk.signaturetest.util;
+
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-run timing and counters. Each tool begins a run with
+ * {@link #begin(String)}, wraps its phases into {@link #start(Phase)} spans
+ * and finishes with {@link #end(PrintWriter)}. Collection is off unless
+ * enabled by {@code -Stats}/{@code -StatsFile} or an active JFR recording,
+ * in which case spans and counters are no-ops.
+ * <p>
+ * Phase times are inclusive: class loading triggered while building members
+ * is counted in both phases. Nested spans of the same phase on one thread
+ * are counted once.
+ *
+ * @see com.sun.tdk.signaturetest.core.context.Option#STATS
+ */
+public class Stats {
+
+    public enum Phase {
+        CLASSPATH("classpath"),
+        SIGFILE_READ("sigfileRead"),
+        CLASS_LOAD("classLoad"),
+        MEMBER_BUILD("memberBuild"),
+        ERASURE("erasure"),
+        VERIFY("verify"),
+        SIGFILE_WRITE("sigfileWrite"),
+        ERROR_FORMAT("errorFormat"),
+        REPORT("report");
+
+        private final String id;
+
+        Phase(String id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return id;
+        }
+    }
+
+    public enum Counter {
+        CLASSES_LOADED("classesLoaded"),
+        CACHE_HITS("cacheHits"),
+        CACHE_MISSES("cacheMisses"),
+        CONTROL_FLOW_EXCEPTIONS("controlFlowExceptions"),
+        BYTES_READ("bytesRead");
+
+        private final String id;
+
+        Counter(String id) {
+            this.id = id;
+        }
+
+        public String getId() {
+            return id;
+        }
+    }
+
+    /**
+     * Receives the run boundaries, implemented on top of JFR when the
+     * running platform has it.
+     */
+    public interface Recorder {
+
+        boolean isRecording();
+
+        void begin(String tool);
+
+        void end(Stats stats);
+    }
+
+    private static final I18NResourceBundle i18n = I18NResourceBundle.getBundleForClass(Stats.class);
+    private static final String RECORDER_CLASS = "com.sun.tdk.signaturetest.util.JfrStatsRecorder";
+    private static final int NPHASES = Phase.values().length;
+    private static final int NCOUNTERS = Counter.values().length;
+    private static final Span NO_SPAN = new Span(null, null, 0, 0);
+
+    private final AtomicLongArray calls = new AtomicLongArray(NPHASES);
+    private final AtomicLongArray wall = new AtomicLongArray(NPHASES);
+    private final AtomicLongArray cpu = new AtomicLongArray(NPHASES);
+    private final AtomicLongArray counters = new AtomicLongArray(NCOUNTERS);
+    private final ThreadLocal<int[]> depth = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[NPHASES];
+        }
+    };
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final boolean cpuTimeSupported = threads.isCurrentThreadCpuTimeSupported();
+
+    private volatile boolean enabled;
+    private boolean print;
+    private String jsonFile;
+    private String tool;
+    private long runStart;
+    private long runEnd;
+    private Recorder recorder;
+
+    /**
+     * Starts a new run of {@code tool}, discarding data of the previous one.
+     */
+    public void begin(String tool) {
+        this.tool = tool;
+        for (int i = 0; i < NPHASES; i++) {
+            calls.set(i, 0);
+            wall.set(i, 0);
+            cpu.set(i, 0);
+        }
+        for (int i = 0; i < NCOUNTERS; i++) {
+            counters.set(i, 0);
+        }
+        runStart = System.nanoTime();
+        runEnd = 0;
+        recorder = loadRecorder();
+        if (recorder != null) {
+            if (recorder.isRecording()) {
+                enabled = true;
+                recorder.begin(tool);
+            } else {
+                recorder = null;
+            }
+        }
+    }
+
+    /**
+     * Enables collection; {@code print} adds a summary to the log and a
+     * non-null {@code jsonFile} receives the machine-readable dump.
+     */
+    public void configure(boolean print, String jsonFile) {
+        this.print = print;
+        this.jsonFile = jsonFile;
+        if (print || jsonFile != null) {
+            enabled = true;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Finishes the run and reports the collected data as configured.
+     */
+    public void end(PrintWriter log) {
+        if (!enabled) {
+            return;
+        }
+        runEnd = System.nanoTime();
+        if (print && log != null) {
+            print(log);
+        }
+        if (jsonFile != null) {
+            try (PrintWriter pw = new PrintWriter(new OutputStreamWriter(
+                    new FileOutputStream(jsonFile), StandardCharsets.UTF_8))) {
+                writeJson(pw);
+            } catch (IOException e) {
+                if (log != null) {
+                    log.println(i18n.getString("Stats.error.write", new Object[]{jsonFile, e}));
+                }
+            }
+        }
+        if (recorder != null) {
+            recorder.end(this);
+            recorder = null;
+        }
+        enabled = false;
+    }
+
+    public Span start(Phase p) {
+        if (!enabled) {
+            return NO_SPAN;
+        }
+        int[] d = depth.get();
+        if (d[p.ordinal()]++ > 0) {
+            return new Span(null, d, p.ordinal(), 0);
+        }
+        return new Span(this, d, p.ordinal(), cpuTime());
+    }
+
+    public void inc(Counter c) {
+        if (enabled) {
+            counters.incrementAndGet(c.ordinal());
+        }
+    }
+
+    public void add(Counter c, long delta) {
+        if (enabled) {
+            counters.addAndGet(c.ordinal(), delta);
+        }
+    }
+
+    /**
+     * Wraps {@code in} so that the bytes read from it are added to
+     * {@link Counter#BYTES_READ}.
+     */
+    public InputStream count(InputStream in) {
+        if (!enabled || in == null) {
+            return in;
+        }
+        return new FilterInputStream(in) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    add(Counter.BYTES_READ, 1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int n = super.read(b, off, len);
+                if (n > 0) {
+                    add(Counter.BYTES_READ, n);
+                }
+                return n;
+            }
+        };
+    }
+
+    public String getTool() {
+        return tool;
+    }
+
+    public long getRunNanos() {
+        return (runEnd != 0 ? runEnd : System.nanoTime()) - runStart;
+    }
+
+    public long getCalls(Phase p) {
+        return calls.get(p.ordinal());
+    }
+
+    public long getWallNanos(Phase p) {
+        return wall.get(p.ordinal());
+    }
+
+    public long getCpuNanos(Phase p) {
+        return cpu.get(p.ordinal());
+    }
+
+    public long get(Counter c) {
+        return counters.get(c.ordinal());
+    }
+
+    public void print(PrintWriter out) {
+        out.println(i18n.getString("Stats.header", new Object[]{tool, millis(getRunNanos())}));
+        out.println(String.format("  %-14s %10s %12s %12s", "phase", "calls", "wall ms", "cpu ms"));
+        for (Phase p : Phase.values()) {
+            if (getCalls(p) == 0) {
+                continue;
+            }
+            out.println(String.format("  %-14s %10d %12s %12s", p.getId(), getCalls(p),
+                    millis(getWallNanos(p)), cpuTimeSupported ? millis(getCpuNanos(p)) : "n/a"));
+        }
+        for (Counter c : Counter.values()) {
+            out.println(String.format("  %-22s %d", c.getId(), get(c)));
+        }
+        out.flush();
+    }
+
+    public void writeJson(PrintWriter out) {
+        out.println("{");
+        out.println("  \"tool\": \"" + tool + "\",");
+        out.println("  \"wallNanos\": " + getRunNanos() + ",");
+        out.println("  \"phases\": {");
+        boolean first = true;
+        for (Phase p : Phase.values()) {
+            if (!first) {
+                out.println(",");
+            }
+            first = false;
+            out.print("    \"" + p.getId() + "\": {\"calls\": " + getCalls(p)
+                    + ", \"wallNanos\": " + getWallNanos(p)
+                    + ", \"cpuNanos\": " + (cpuTimeSupported ? getCpuNanos(p) : -1) + "}");
+        }
+        out.println();
+        out.println("  },");
+        out.println("  \"counters\": {");
+        first = true;
+        for (Counter c : Counter.values()) {
+            if (!first) {
+                out.println(",");
+            }
+            first = false;
+            out.print("    \"" + c.getId() + "\": " + get(c));
+        }
+        out.println();
+        out.println("  }");
+        out.println("}");
+        out.flush();
+    }
+
+    private long cpuTime() {
+        return cpuTimeSupported ? threads.getCurrentThreadCpuTime() : 0;
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f", nanos / 1e6);
+    }
+
+    private static Recorder loadRecorder() {
+        try {
+            return (Recorder) Class.forName(RECORDER_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // no JFR on this platform
+            return null;
+        }
+    }
+
+    /**
+     * A timed section of a phase; end it in a {@code finally} block when the
+     * section is done.
+     */
+    public static final class Span {
+
+        private final Stats owner;
+        private final int[] depth;
+        private final int phase;
+        private final long cpuStart;
+        private final long wallStart;
+
+        private Span(Stats owner, int[] depth, int phase, long cpuStart) {
+            this.owner = owner;
+            this.depth = depth;
+            this.phase = phase;
+            this.cpuStart = cpuStart;
+            this.wallStart = owner != null ? System.nanoTime() : 0;
+        }
+
+        public void end() {
+            if (depth == null) {
+                return;
+            }
+            depth[phase]--;
+            if (owner != null) {
+                owner.calls.incrementAndGet(phase);
+                owner.wall.addAndGet(phase, System.nanoTime() - wallStart);
+                owner.cpu.addAndGet(phase, owner.cpuTime() - cpuStart);
+            }
+        }
+    }
+}